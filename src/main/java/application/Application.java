@@ -2,7 +2,9 @@ package application;
 
 import controller.javafx.JavaFXViewInitializer;
 import controller.javafx.UserWizard;
+import database.AutosaveScheduler;
 import database.DatabaseFactory;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import model.User;
 
@@ -14,6 +16,7 @@ import java.io.IOException;
 public class Application extends javafx.application.Application {
 
     private User user = null;
+    private AutosaveScheduler autosave = null;
 
     public static void main(String[] args) {
         launch(args);
@@ -36,6 +39,9 @@ public class Application extends javafx.application.Application {
         wizard.addListener(u -> {
             try {
                 this.user = u;
+                DatabaseFactory.getService().record(u);
+                this.autosave = new AutosaveScheduler(DatabaseFactory.getService(), Platform::runLater);
+                this.autosave.start(u);
                 JavaFXViewInitializer.initializeJavaFXView(stage, u);
             } catch (IOException e) {
                 e.printStackTrace();
@@ -44,13 +50,17 @@ public class Application extends javafx.application.Application {
     }
 
     /***
-     * Stops the application and saves the loaded user to its file.
+     * Stops the application and saves the loaded user to its file, which also clears the journal of its changes.
      * @throws IOException if saving of the user is unsuccessful.
      */
     @Override
     public void stop() throws IOException {
+        if (autosave != null) {
+            autosave.stop();
+        }
         if (user != null) {
             DatabaseFactory.getService().save(user);
+            DatabaseFactory.getService().stopRecording(user);
         }
     }
 }
@@ -18,7 +18,7 @@ import java.time.temporal.TemporalField;
 import java.time.temporal.WeekFields;
 import java.util.*;
 
-class CalendarPage extends ViewComponent implements IObserver {
+class CalendarPage extends ViewComponent implements IChangeObserver<Event> {
 
     private final TagHandler tagHandler;
     @FXML
@@ -78,7 +78,7 @@ class CalendarPage extends ViewComponent implements IObserver {
         this.eventList = eventList;
         this.contactList = contactList;
         this.tagHandler = tagHandler;
-        eventList.subscribe(this);
+        eventList.subscribeChanges(this);
 
         calendarPageAnchorPane.toFront();
 
@@ -95,7 +95,7 @@ class CalendarPage extends ViewComponent implements IObserver {
 
         this.getPane().addEventFilter(KeyEvent.KEY_PRESSED, this::keyPressed);
 
-        onEvent();
+        showWeek();
     }
 
     private void keyPressed(KeyEvent key) {
@@ -113,13 +113,13 @@ class CalendarPage extends ViewComponent implements IObserver {
     private void incrementWeek(ActionEvent actionEvent) {
         weekToDisplay = weekToDisplay.plusWeeks(1);
         setLabels(weekToDisplay);
-        onEvent();
+        showWeek();
     }
 
     private void decrementWeek(ActionEvent actionEvent) {
         weekToDisplay = weekToDisplay.minusWeeks(1);
         setLabels(weekToDisplay);
-        onEvent();
+        showWeek();
     }
 
     private void setLabels(LocalDate date) {
@@ -162,18 +162,45 @@ class CalendarPage extends ViewComponent implements IObserver {
         eventCard.getPane().toFront();
     }
 
+    /**
+     * Redraws the week on display if the changes added, removed or moved an event in it. The cards on display follow
+     * the other changes of their events themselves.
+     *
+     * @param changes the changes of the events
+     */
     @Override
-    public void onEvent() {
+    public void onChanges(List<ChangeEvent<Event>> changes) {
+        for (ChangeEvent<Event> change : changes) {
+            boolean moved = change.getType() != ChangeEvent.Type.UPDATED || change.isUpdateOf(Event.Field.DATE_TIME);
+            if (moved && (isOnDisplay(change.getEntity()) || isInWeekToDisplay(change.getEntity()))) {
+                showWeek();
+                return;
+            }
+        }
+    }
+
+    private boolean isOnDisplay(Event event) {
+        return weekEvents.values().stream().anyMatch(events -> events.contains(event));
+    }
+
+    private boolean isInWeekToDisplay(Event event) {
+        LocalDate monday = weekToDisplay.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return event.getDateTime() != null && !event.getDateTime().isBefore(monday.atStartOfDay())
+                && event.getDateTime().isBefore(monday.plusWeeks(1).atStartOfDay());
+    }
+
+    private void showWeek() {
         clearCalendar();
 
-        List<Event> eventsThisWeek = eventList.getEventsOfWeek(weekToDisplay);
+        // The events from the monday to the sunday on display, ordered by time.
+        LocalDate monday = weekToDisplay.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<Event> eventsThisWeek = eventList.getEventsBetween(monday.atStartOfDay(), monday.plusWeeks(1).atStartOfDay());
 
         for (Event event : eventsThisWeek) {
             weekEvents.get(event.getDateTime().getDayOfWeek().getValue()).add(event);
         }
 
         for (Map.Entry<Integer, List<Event>> entry : weekEvents.entrySet()) {
-            entry.getValue().sort(Comparator.comparing(Event::getDateTime));
             for (Event event : entry.getValue()) {
                 CalendarEventCard calendarEventCard = new CalendarEventCard(event);
                 calendarEventCard.getPane().setOnMouseClicked(mouseEvent -> editEvent(event));
@@ -189,6 +216,7 @@ class CalendarPage extends ViewComponent implements IObserver {
 
     private void closeEventPane() {
         calendarPageStackPane.getChildren().remove(eventCard.getPane());
+        // Pages still observing the event list as a whole refresh once an event has been edited.
         eventList.notifyObservers();
     }
 
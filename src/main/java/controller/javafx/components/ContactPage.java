@@ -2,6 +2,7 @@ package controller.javafx.components;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
@@ -9,16 +10,23 @@ import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.FlowPane;
 import model.*;
 import model.search.ISearchObserver;
+import model.search.LiveSearchIndex;
+import model.search.MultiFieldSearchEngine;
+import model.search.PrefixTrie;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 
-class ContactPage extends ViewComponent implements IObserver, ISearchObserver {
+class ContactPage extends ViewComponent implements IChangeObserver<Contact>, ISearchObserver {
     private final TagHandler tagHandler;
     @FXML
     private AnchorPane baseAnchorPane;
     @FXML
+    private ScrollPane cardScrollPane;
+    @FXML
     private FlowPane cardFlowPane;
     @FXML
     private Button newContactButton;
@@ -33,7 +41,6 @@ class ContactPage extends ViewComponent implements IObserver, ISearchObserver {
         super();
         this.contacts = contacts;
         this.tagHandler = tagHandler;
-        contacts.subscribe(this);
         this.newContactButton.setOnMouseClicked(this::newContact);
         contactGrayBox = new ContactGrayBox(tagHandler, eventList);
         contactGrayBox.setOnClose(mouseEvent -> closeGrayPane());
@@ -41,15 +48,51 @@ class ContactPage extends ViewComponent implements IObserver, ISearchObserver {
         baseAnchorPane.getChildren().add(contactGrayBoxPane);
         contactGrayBoxPane.setVisible(false);
         int searchTolerance = 4;
-        searchBar = new SearchBar<>(contacts.getList(), searchTolerance);
+        int completionLimit = 20;
+        LiveSearchIndex<Contact> searchIndex = new LiveSearchIndex<>(contacts, contacts::getList,
+                MultiFieldSearchEngine::new, PrefixTrie::new);
+        searchBar = new SearchBar<>(searchIndex, searchIndex, searchTolerance, completionLimit);
         searchBar.subscribe(this);
+        // Subscribed after the search index, so that the index holds added contacts when the search is run again.
+        contacts.subscribeChanges(this);
         searchBarAnchorPane.getChildren().add(searchBar.getPane());
         searchBar.getPane().layout();
+        cardScrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= cardScrollPane.getVmax()) {
+                searchBar.loadMore();
+            }
+        });
         this.getPane().addEventFilter(KeyEvent.KEY_PRESSED, this::keyPressed);
-        onEvent();
+        showAllContacts();
+    }
+
+    /**
+     * Adds the cards of added contacts and removes the cards of removed ones, leaving the other cards in place.
+     * While the cards show the results of a query, the query is run again instead of adding cards, so that only the
+     * added contacts matching it are shown. The cards follow the other changes of their contacts themselves.
+     *
+     * @param changes the changes of the contacts
+     */
+    @Override
+    public void onChanges(List<ChangeEvent<Contact>> changes) {
+        boolean added = false;
+        for (ChangeEvent<Contact> change : changes) {
+            if (change.getType() == ChangeEvent.Type.ADDED) {
+                if (searchBar.isFiltered()) {
+                    added = true;
+                } else {
+                    createCards(Collections.singletonList(change.getEntity()));
+                }
+            } else if (change.getType() == ChangeEvent.Type.REMOVED) {
+                removeCard(change.getEntity());
+            }
+        }
+        if (added) {
+            searchBar.refresh();
+        }
     }
 
-    public void onEvent() {
+    private void showAllContacts() {
         updateContactCards(contacts.getList());
     }
 
@@ -63,7 +106,7 @@ class ContactPage extends ViewComponent implements IObserver, ISearchObserver {
     public void closeGrayPane() {
         contactGrayBox.getPane().setVisible(false);
         contactGrayBox.getContact().unSubscribe(contactGrayBox);
-        onEvent();
+        showAllContacts();
     }
 
     private void keyPressed(KeyEvent key) {
@@ -74,13 +117,10 @@ class ContactPage extends ViewComponent implements IObserver, ISearchObserver {
 
     private void newContact(MouseEvent mouseEvent) {
         new CreateContactDialog(contacts, tagHandler).displayAndWait();
-        onEvent();
-        searchBar.updateSearchBase(contacts.getList());
     }
 
     private void removeContact(Contact contact) {
         contacts.removeContact(contact);
-        searchBar.updateSearchBase(contacts.getList());
     }
 
     private void clearCards() {
@@ -91,6 +131,17 @@ class ContactPage extends ViewComponent implements IObserver, ISearchObserver {
         contactCards.clear();
     }
 
+    private void removeCard(Contact contact) {
+        for (Iterator<ContactCard> it = contactCards.iterator(); it.hasNext(); ) {
+            ContactCard contactCard = it.next();
+            if (contactCard.getContact() == contact) {
+                contact.unSubscribe(contactCard);
+                cardFlowPane.getChildren().remove(contactCard.getPane());
+                it.remove();
+            }
+        }
+    }
+
     /**
      * Constructs cards from the given contacts and adds them to the list of contact cards.
      *
@@ -118,8 +169,17 @@ class ContactPage extends ViewComponent implements IObserver, ISearchObserver {
         createCards(contacts);
     }
 
+    /**
+     * Adds the cards of a further page of results after the current cards, or replaces the current cards with the
+     * cards of new results.
+     */
     @Override
     public void onSearch() {
-        updateContactCards(searchBar.getResults());
+        List<Contact> appended = searchBar.getAppendedResults();
+        if (appended == null) {
+            updateContactCards(searchBar.getResults());
+        } else {
+            createCards(appended);
+        }
     }
 }
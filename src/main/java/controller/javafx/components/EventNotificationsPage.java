@@ -5,8 +5,10 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import model.ChangeEvent;
 import model.Event;
 import model.EventList;
+import model.IChangeObserver;
 import model.IObserver;
 import model.notifications.Notifier;
 
@@ -21,7 +23,7 @@ import java.util.List;
  *
  * @author Simon Johnsson
  */
-public class EventNotificationsPage extends ViewComponent implements IObserver {
+public class EventNotificationsPage extends ViewComponent implements IObserver, IChangeObserver<Event> {
 
     private final Notifier<Event> eventNotifier;
     private final EventList eventList;
@@ -41,7 +43,7 @@ public class EventNotificationsPage extends ViewComponent implements IObserver {
         this.eventNotifier = new Notifier<>(events.getList());
         this.eventList = events;
         this.eventNotifier.subscribe(this);
-        this.eventList.subscribe(this);
+        this.eventList.subscribeChanges(this);
         this.notifications = eventNotifier.getActive();
         Thread thread = new Thread(eventNotifier, "Notifications");
         thread.setDaemon(true);
@@ -65,6 +67,20 @@ public class EventNotificationsPage extends ViewComponent implements IObserver {
        populateVBox();
     }
 
+    /**
+     * Updates the notifier once events have been added, removed or moved in time.
+     * The notifications on display follow the other changes of their events themselves.
+     */
+    @Override
+    public void onChanges(List<ChangeEvent<Event>> changes) {
+        for (ChangeEvent<Event> change : changes) {
+            if (change.getType() != ChangeEvent.Type.UPDATED || change.isUpdateOf(Event.Field.DATE_TIME)) {
+                onEvent();
+                return;
+            }
+        }
+    }
+
     private void updateLabel() {
         notificationsLabel.setText("You have (" + eventNotifier.size() + ") new notifications");
     }
@@ -1,32 +1,88 @@
 package controller.javafx.components;
 
+import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import javafx.scene.input.KeyCode;
+import model.search.IPrefixSearchEngine;
+import model.search.ISearchEngine;
 import model.search.ISearchObservable;
 import model.search.ISearchObserver;
 import model.search.ISearchable;
+import model.search.LatencyHistogram;
+import model.search.SearchCursor;
 import model.search.SearchEngine;
+import model.search.SearchResult;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * A component responsible for getting text input and returning results relevant to the given input.
  * Client decides when to query for the results. Searches can be done without handling the results.
+ * In type-ahead mode the input is also completed on every change of the text, while full searches are still made on
+ * demand.
+ * <p>
+ * Searches and completions are performed on a background thread, keeping the JavaFX application thread responsive.
+ * A new query cancels the previous one, and only the results of the latest query are delivered to the observers,
+ * which are notified on the JavaFX application thread. Completions wait for typing to pause before they start.
+ * </p>
+ * <p>
+ * Searches deliver their results a page at a time, and further pages are loaded on request.
+ * </p>
+ * <p>
+ * The time from submitting each delivered query until its observers have handled the results is recorded, and
+ * printed every {@value #LATENCY_LOG_INTERVAL} queries when the {@value #LATENCY_LOG_PROPERTY} system property is set
+ * to "true".
+ * </p>
  *
  * @param <T> the searchable type of the domain to search.
  * @author Simon Johnsson
  */
 public class SearchBar<T extends ISearchable<String>> extends ViewComponent implements ISearchObservable {
 
-    private SearchEngine<T> searchEngine;
+    private static final long KEYSTROKE_DEBOUNCE_MILLIS = 40;
+    private static final int SEARCH_PAGE_SIZE = 100;
+    // The system property printing the query-to-render latencies when set to "true"
+    static final String LATENCY_LOG_PROPERTY = "prm.search.latency";
+    static final int LATENCY_LOG_INTERVAL = 100;
+    private static final boolean LOG_LATENCY = Boolean.getBoolean(LATENCY_LOG_PROPERTY);
+
+    private final ISearchEngine<T> searchEngine;
+    // Completes the input in type-ahead mode, null if type-ahead is disabled
+    private final IPrefixSearchEngine<T> completionEngine;
+    // The results of the latest query, null if the entire search base is the result
     private List<T> results;
+    // The scored results of the latest query, empty unless it was a search
+    private List<SearchResult<T>> searchResults;
+    // The results appended by the latest delivered page, null if the latest delivery replaced the results
+    private List<T> appended;
+    // Pages through the results of the latest search, null unless the latest query was a search
+    private SearchCursor<T> cursor;
+    private final int completionLimit;
     private final int tolerance;
     private final List<ISearchObserver> observers;
 
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-bar");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The query currently waiting or running, only accessed on the JavaFX application thread
+    private Future<?> pending;
+    // Identifies the latest query, only accessed on the JavaFX application thread
+    private long generation;
+    // The query-to-render latencies of the delivered queries
+    private final LatencyHistogram latency = new LatencyHistogram();
+
     @FXML
     private TextField textField;
     @FXML
@@ -34,26 +90,60 @@ public class SearchBar<T extends ISearchable<String>> extends ViewComponent impl
 
     /**
      * Constructs a search bar with the given search base and tolerance.
+     * The search base is copied, as searches run on a background thread.
      * Default results are the entire search base.
      *
      * @param searchBase the information to iterate
      * @param tolerance  the maximum allowed edit distance from the search query to the result
      */
     SearchBar(List<T> searchBase, int tolerance) {
-        this.searchEngine = new SearchEngine<>(searchBase);
+        this(new SearchEngine<>(new ArrayList<>(searchBase)), tolerance);
+    }
+
+    /**
+     * Constructs a search bar searching with the given search engine and tolerance.
+     * An engine following changes of its search base, such as a {@link model.search.LiveSearchIndex},
+     * never has to be replaced. The engine is queried from a background thread.
+     * Default results are the entire search base.
+     *
+     * @param searchEngine the engine performing the searches
+     * @param tolerance    the maximum allowed edit distance from the search query to the result
+     */
+    SearchBar(ISearchEngine<T> searchEngine, int tolerance) {
+        this(searchEngine, null, tolerance, 0);
+    }
+
+    /**
+     * Constructs a search bar in type-ahead mode, completing the input on every change of the text and searching
+     * with the given search engine and tolerance on demand. Both engines are queried from a background thread.
+     * Default results are the entire search base.
+     *
+     * @param searchEngine     the engine performing the searches
+     * @param completionEngine the engine completing the input, or null to disable type-ahead
+     * @param tolerance        the maximum allowed edit distance from the search query to the result
+     * @param completionLimit  the maximum number of completions of the input
+     */
+    SearchBar(ISearchEngine<T> searchEngine, IPrefixSearchEngine<T> completionEngine, int tolerance, int completionLimit) {
+        this.searchEngine = searchEngine;
+        this.completionEngine = completionEngine;
         observers = new ArrayList<>();
         this.tolerance = tolerance;
-        results = searchBase;
+        this.completionLimit = completionLimit;
+        results = null;
+        searchResults = new ArrayList<>();
         textField.setOnKeyPressed(keyEvent -> {
             if (keyEvent.getCode() == KeyCode.ENTER) {
                 search(keyEvent);
             }
         });
         searchButton.setOnAction(this::search);
+        if (completionEngine != null) {
+            textField.textProperty().addListener((observable, oldText, newText) -> complete(newText));
+        }
     }
 
     /**
-     * Performs a search operation with the input text and updates the result list.
+     * Starts a search operation with the input text, which updates the result list once finished.
      * Searches are case-insensitive and returns a result depending on the input query and tolerance.
      * Tolerance is the maximum allowed edit distance for the query and result.
      * If no input is made, the entire search base is considered the result.
@@ -62,32 +152,180 @@ public class SearchBar<T extends ISearchable<String>> extends ViewComponent impl
      */
     @FXML
     void search(Event event) {
-        if ("".equals(textField.getText())) {
-            results = searchEngine.getSearchBase();
+        String query = textField.getText();
+        submit(() -> {
+            if (query == null || query.isEmpty()) {
+                return new Outcome<>(null, new ArrayList<>(), null, false);
+            }
+            SearchCursor<T> searchCursor = searchEngine.cursor(query, tolerance, SEARCH_PAGE_SIZE);
+            return pageOf(searchCursor, false);
+        }, 0);
+    }
+
+    /**
+     * Starts loading the next page of results of the latest search, which is appended to the result list once
+     * finished. Nothing is loaded while a query is running, or if the latest query was not a search with more
+     * results.
+     */
+    void loadMore() {
+        if (pending != null || cursor == null || !cursor.hasNextPage()) {
+            return;
+        }
+        SearchCursor<T> searchCursor = cursor;
+        submit(() -> pageOf(searchCursor, true), 0);
+    }
+
+    private Outcome<T> pageOf(SearchCursor<T> searchCursor, boolean append) {
+        List<SearchResult<T>> scored = searchCursor.nextPage();
+        List<T> elements = new ArrayList<>(scored.size());
+        for (SearchResult<T> result : scored) {
+            elements.add(result.getElement());
+        }
+        return new Outcome<>(elements, scored, searchCursor, append);
+    }
+
+    /**
+     * Starts completing the typed prefix once typing pauses, which updates the result list with the most relevant
+     * completions once finished.
+     * If no input is made, the entire search base is considered the result.
+     *
+     * @param prefix the typed prefix
+     */
+    private void complete(String prefix) {
+        submit(() -> {
+            if (prefix == null || prefix.isEmpty()) {
+                return new Outcome<>(null, new ArrayList<>(), null, false);
+            }
+            return new Outcome<>(completionEngine.complete(prefix, completionLimit), new ArrayList<>(), null, false);
+        }, KEYSTROKE_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Runs a query on the background thread after the given delay, cancelling the previous query.
+     * Its outcome is delivered on the JavaFX application thread unless a newer query has been submitted by then.
+     * A query failing with an exception is reported, and delivers nothing.
+     *
+     * @param query       computes the outcome of the query
+     * @param delayMillis the time to wait before running the query
+     */
+    private void submit(Supplier<Outcome<T>> query, long delayMillis) {
+        long submitted = System.nanoTime();
+        long queryGeneration = ++generation;
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        pending = executor.schedule(() -> {
+            Outcome<T> outcome;
+            try {
+                outcome = query.get();
+            } catch (RuntimeException e) {
+                // A cancelled query has been superseded, anything else is an error of the query.
+                if (!(e instanceof CancellationException)) {
+                    e.printStackTrace();
+                }
+                Platform.runLater(() -> fail(queryGeneration));
+                return;
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                Platform.runLater(() -> deliver(queryGeneration, outcome, submitted));
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops waiting for a query which failed to finish, unless it has been superseded, keeping the current results.
+     *
+     * @param queryGeneration identifies the failed query
+     */
+    private void fail(long queryGeneration) {
+        if (queryGeneration == generation) {
+            pending = null;
+        }
+    }
+
+    /**
+     * Updates the result list and notifies the observers, unless the outcome belongs to a superseded query.
+     *
+     * @param queryGeneration identifies the query of the outcome
+     * @param outcome         the outcome of the query
+     * @param submitted       the time the query was submitted, in nanoseconds
+     */
+    private void deliver(long queryGeneration, Outcome<T> outcome, long submitted) {
+        if (queryGeneration != generation) {
+            return;
+        }
+        pending = null;
+        cursor = outcome.cursor;
+        if (outcome.append) {
+            results.addAll(outcome.elements);
+            searchResults.addAll(outcome.scored);
+            appended = outcome.elements;
         } else {
-            results = searchEngine.search(textField.getText(), tolerance);
+            results = outcome.elements;
+            searchResults = outcome.scored;
+            appended = null;
         }
         notifyResult();
+        latency.record(System.nanoTime() - submitted);
+        if (LOG_LATENCY && latency.getCount() % LATENCY_LOG_INTERVAL == 0) {
+            System.out.println("Search latency: " + latency);
+        }
     }
 
     /**
-     * Returns the results from the previous search operation.
+     * Returns whether the results of the latest finished query are filtered by its input, rather than being the entire
+     * search base.
+     *
+     * @return true if an input was searched or completed
+     */
+    boolean isFiltered() {
+        return results != null;
+    }
+
+    /**
+     * Runs the latest query again with the current input, such as when objects have been added to the search base,
+     * which replaces the result list once finished. A completed input is completed again, anything else searched.
+     */
+    void refresh() {
+        if (completionEngine != null && cursor == null) {
+            complete(textField.getText());
+        } else {
+            search(null);
+        }
+    }
+
+    /**
+     * Returns the results from the latest finished query, including every page loaded since.
+     * If no input was made, the entire search base is returned.
      *
      * @return a list of the searchable type
      */
     List<T> getResults() {
+        if (results == null) {
+            return searchEngine.getSearchBase();
+        }
         return new ArrayList<>(results);
     }
 
     /**
-     * Constructs a new search engine with the given search base and sets it to the current engine
+     * Returns the results appended by the latest delivered page, letting observers add those alone to what they
+     * show. The results are replaced rather than appended by every query other than loading a further page.
      *
-     * @param searchBase the new search base
+     * @return the appended results, or null if the latest delivery replaced the results
      */
-    void updateSearchBase(List<T> searchBase) {
-        this.searchEngine = new SearchEngine<>(searchBase);
+    List<T> getAppendedResults() {
+        return appended == null ? null : new ArrayList<>(appended);
     }
 
+    /**
+     * Returns the scored results from the latest finished query, sorted by relevance.
+     * If no input was made, or the input was only completed, no results are returned.
+     *
+     * @return a list of scored results
+     */
+    List<SearchResult<T>> getSearchResults() {
+        return new ArrayList<>(searchResults);
+    }
 
     @Override
     public void subscribe(ISearchObserver observer) {
@@ -105,4 +343,25 @@ public class SearchBar<T extends ISearchable<String>> extends ViewComponent impl
             obs.onSearch();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The results of a query, along with their scores and the cursor of further pages if the query was a search.
+     * No results means the entire search base is the result.
+     *
+     * @param <T> the searchable type of the results
+     */
+    private static class Outcome<T extends ISearchable<String>> {
+        final List<T> elements;
+        final List<SearchResult<T>> scored;
+        final SearchCursor<T> cursor;
+        // Whether the results continue the current results rather than replacing them
+        final boolean append;
+
+        Outcome(List<T> elements, List<SearchResult<T>> scored, SearchCursor<T> cursor, boolean append) {
+            this.elements = elements;
+            this.scored = scored;
+            this.cursor = cursor;
+            this.append = append;
+        }
+    }
+}
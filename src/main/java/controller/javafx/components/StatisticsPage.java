@@ -1,11 +1,13 @@
 package controller.javafx.components;
 
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.chart.PieChart;
 import model.*;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 class StatisticsPage extends ViewComponent implements IObserver {
@@ -13,41 +15,51 @@ class StatisticsPage extends ViewComponent implements IObserver {
     @FXML
     private PieChart eventDelegationPieChart;
 
-    private EventList eventList;
-    private TagHandler tagHandler;
+    private final StatisticsEngine statistics;
+    private final TagHandler tagHandler;
+    // The slice of every tag in the pie chart.
+    private final Map<ITag, PieChart.Data> slices = new HashMap<>();
 
     StatisticsPage(EventList eventList, TagHandler tagHandler) {
-        this.eventList = eventList;
+        this.statistics = new StatisticsEngine(eventList);
         this.tagHandler = tagHandler;
-        eventList.subscribe(this);
+        statistics.subscribe(this);
+        eventDelegationPieChart.setData(FXCollections.observableArrayList());
         eventDelegationPieChart.setLabelsVisible(true);
         onEvent();
     }
 
-    private void createStatistics() {
-        Map<ITag, Integer> stats = StatisticsUtils.getEventDelegation(eventList, tagHandler);
-        ObservableList<PieChart.Data> pieChartData = convertStatistics(stats);
-        eventDelegationPieChart.setData(pieChartData);
+    // Patch the slices of the tags whose number of events or name has changed, rather than replacing every slice.
+    private void updateStatistics() {
+        List<ITag> tags = tagHandler.getAllTags();
+        for (ITag tag : tags) {
+            int count = statistics.getEventCount(tag);
+            PieChart.Data slice = slices.get(tag);
+            if (slice == null) {
+                slice = new PieChart.Data(tag.getName(), count);
+                slices.put(tag, slice);
+                eventDelegationPieChart.getData().add(slice);
+            } else {
+                if (slice.getPieValue() != count) {
+                    slice.setPieValue(count);
+                }
+                if (!slice.getName().equals(tag.getName())) {
+                    slice.setName(tag.getName());
+                }
+            }
+        }
+        slices.keySet().retainAll(new HashSet<>(tags));
+        eventDelegationPieChart.getData().retainAll(slices.values());
 
-        if (eventList.getList().isEmpty() || tagHandler.getAllTags().isEmpty()) {
+        if (statistics.getEventCount() == 0 || tags.isEmpty()) {
             eventDelegationPieChart.setTitle("No data to track, start tagging!");
         } else {
             eventDelegationPieChart.setTitle("Event delegation");
         }
     }
 
-    private ObservableList<PieChart.Data> convertStatistics(Map<ITag, Integer> stats) {
-        ObservableList<PieChart.Data> result = FXCollections.observableArrayList();
-
-        for (Map.Entry<ITag, Integer> entry : stats.entrySet()) {
-            result.add(new PieChart.Data(entry.getKey().getName(), entry.getValue()));
-        }
-
-        return result;
-    }
-
     @Override
     public void onEvent() {
-        createStatistics();
+        updateStatistics();
     }
 }
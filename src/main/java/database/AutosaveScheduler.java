@@ -0,0 +1,310 @@
+package database;
+
+import model.ChangeEvent;
+import model.Contact;
+import model.Event;
+import model.IChangeObserver;
+import model.ITag;
+import model.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * Saves a user in the background a while after it has changed.
+ * <p>
+ * The scheduler observes the changes of the contact and event lists of the user, which include the changes of every
+ * contact and event in them, along with the changes of the tag handler of the user, and marks the user dirty on every
+ * change. The first change after a save schedules the next one, and every change until then is coalesced into it. When the delay has passed, a snapshot of the user is taken on the thread which changes the user,
+ * and saved on the background thread of the scheduler, so that neither the copy nor the save holds up changes for
+ * longer than the copy takes. Once a snapshot is saved, the changes it holds are cleared from the journal of the user.
+ * </p>
+ * <p>
+ * The scheduler also compacts the journal: once it has grown large, the next save is taken right away rather than
+ * after the delay, so that the thread changing the user never saves the user itself.
+ * </p>
+ */
+public class AutosaveScheduler {
+
+    // The delay between the first change to a saved user and the next save, unless given.
+    public static final long DEFAULT_DELAY_MILLIS = 10_000;
+    // The time the scheduler waits for a running save when stopped.
+    private static final long STOP_TIMEOUT_MILLIS = 30_000;
+
+    private final Database database;
+    private final Executor modelExecutor;
+    private final long delayMillis;
+    private final ScheduledExecutorService executor;
+
+    private User user;
+    private final IChangeObserver<Contact> contactsObserver = this::onChanges;
+    private final IChangeObserver<Event> eventsObserver = this::onChanges;
+    private final IChangeObserver<ITag> tagsObserver = this::onChanges;
+    // The number of changes to the user.
+    private long editCount;
+    private boolean saveScheduled;
+    private boolean stopped;
+
+    private long saveCount;
+    private long failedSaveCount;
+    private long coalescedEditCount;
+    private Duration lastSaveDuration = Duration.ZERO;
+    private Duration totalSaveDuration = Duration.ZERO;
+    private long lastBytesWritten;
+    private long totalBytesWritten;
+
+    /***
+     * The metrics of the saves of an autosave scheduler at a point in time.
+     */
+    public static final class Metrics {
+        private final long saveCount;
+        private final long failedSaveCount;
+        private final long editCount;
+        private final long coalescedEditCount;
+        private final Duration lastSaveDuration;
+        private final Duration totalSaveDuration;
+        private final long lastBytesWritten;
+        private final long totalBytesWritten;
+
+        private Metrics(AutosaveScheduler scheduler) {
+            this.saveCount = scheduler.saveCount;
+            this.failedSaveCount = scheduler.failedSaveCount;
+            this.editCount = scheduler.editCount;
+            this.coalescedEditCount = scheduler.coalescedEditCount;
+            this.lastSaveDuration = scheduler.lastSaveDuration;
+            this.totalSaveDuration = scheduler.totalSaveDuration;
+            this.lastBytesWritten = scheduler.lastBytesWritten;
+            this.totalBytesWritten = scheduler.totalBytesWritten;
+        }
+
+        /***
+         * @return The number of saved snapshots.
+         */
+        public long getSaveCount() {
+            return saveCount;
+        }
+
+        /***
+         * @return The number of snapshots which could not be saved.
+         */
+        public long getFailedSaveCount() {
+            return failedSaveCount;
+        }
+
+        /***
+         * @return The number of changes to the user.
+         */
+        public long getEditCount() {
+            return editCount;
+        }
+
+        /***
+         * @return The number of changes saved along with an earlier change rather than by a save of their own.
+         */
+        public long getCoalescedEditCount() {
+            return coalescedEditCount;
+        }
+
+        /***
+         * @return The time the last save took, zero if there has been none.
+         */
+        public Duration getLastSaveDuration() {
+            return lastSaveDuration;
+        }
+
+        /***
+         * @return The time all saves took.
+         */
+        public Duration getTotalSaveDuration() {
+            return totalSaveDuration;
+        }
+
+        /***
+         * @return The size of the user file written by the last save in bytes, zero if there has been none.
+         */
+        public long getLastBytesWritten() {
+            return lastBytesWritten;
+        }
+
+        /***
+         * @return The size of all user files written in bytes.
+         */
+        public long getTotalBytesWritten() {
+            return totalBytesWritten;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{" +
+                    "saveCount=" + saveCount +
+                    ", failedSaveCount=" + failedSaveCount +
+                    ", editCount=" + editCount +
+                    ", coalescedEditCount=" + coalescedEditCount +
+                    ", lastSaveDuration=" + lastSaveDuration +
+                    ", totalSaveDuration=" + totalSaveDuration +
+                    ", lastBytesWritten=" + lastBytesWritten +
+                    ", totalBytesWritten=" + totalBytesWritten +
+                    '}';
+        }
+    }
+
+    /***
+     * Create an autosave scheduler saving {@value #DEFAULT_DELAY_MILLIS} milliseconds after a change.
+     * @param database The database to save to.
+     * @param modelExecutor The executor running tasks on the thread which changes the user, such as the JavaFX
+     *                      application thread.
+     */
+    public AutosaveScheduler(Database database, Executor modelExecutor) {
+        this(database, modelExecutor, DEFAULT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /***
+     * Create an autosave scheduler.
+     * @param database The database to save to.
+     * @param modelExecutor The executor running tasks on the thread which changes the user, such as the JavaFX
+     *                      application thread.
+     * @param delay The delay between the first change to a saved user and the next save.
+     * @param unit The unit of the delay.
+     */
+    public AutosaveScheduler(Database database, Executor modelExecutor, long delay, TimeUnit unit) {
+        this.database = database;
+        this.modelExecutor = modelExecutor;
+        this.delayMillis = unit.toMillis(delay);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor;
+    }
+
+    /***
+     * Start saving the changes of a user. Must be called on the thread which changes the user.
+     * @param user The user to save the changes of.
+     */
+    public synchronized void start(User user) {
+        if (this.user != null || stopped) {
+            throw new IllegalStateException("The scheduler has already been started");
+        }
+        this.user = user;
+        user.getContacts().subscribeChanges(contactsObserver);
+        user.getEvents().subscribeChanges(eventsObserver);
+        user.getTagHandler().subscribeChanges(tagsObserver);
+    }
+
+    /***
+     * Stop saving the changes of the user, waiting for a running save to complete. Changes which have not been saved
+     * yet are left to the caller to save.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            if (user != null) {
+                user.getContacts().unSubscribeChanges(contactsObserver);
+                user.getEvents().unSubscribeChanges(eventsObserver);
+                user.getTagHandler().unSubscribeChanges(tagsObserver);
+            }
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /***
+     * Mark the user as changed, for changes the scheduler does not observe, such as changes to the name of the user.
+     * Must be called on the thread which changes the user.
+     */
+    public synchronized void markDirty() {
+        if (stopped || user == null) {
+            return;
+        }
+        editCount++;
+        if (saveScheduled) {
+            coalescedEditCount++;
+        } else {
+            saveScheduled = true;
+            executor.schedule(() -> modelExecutor.execute(this::takeSnapshot),
+                    database.isJournalFull(user) ? 0 : delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /***
+     * Get the metrics of the saves so far.
+     * @return The metrics.
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(this);
+    }
+
+    // Take a snapshot of the user on the thread which changes it, and hand it to the background thread to save.
+    private void takeSnapshot() {
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            saveScheduled = false;
+            Database.Snapshot snapshot = database.snapshot(user);
+            executor.execute(() -> save(snapshot));
+        }
+    }
+
+    // Save a snapshot on the background thread.
+    private void save(Database.Snapshot snapshot) {
+        long start = System.nanoTime();
+        long bytes;
+        try {
+            bytes = database.save(snapshot);
+        } catch (IOException e) {
+            // The changes remain in the journal.
+            e.printStackTrace();
+            synchronized (this) {
+                failedSaveCount++;
+            }
+            return;
+        }
+        if (bytes < 0) {
+            return;
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        synchronized (this) {
+            saveCount++;
+            lastSaveDuration = duration;
+            totalSaveDuration = totalSaveDuration.plus(duration);
+            lastBytesWritten = bytes;
+            totalBytesWritten += bytes;
+        }
+        modelExecutor.execute(() -> clearJournal(snapshot));
+    }
+
+    // Clear the changes held by a saved snapshot from the journal of the user, on the thread which changes it.
+    private void clearJournal(Database.Snapshot snapshot) {
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+        }
+        try {
+            database.clearJournal(user, snapshot);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Mark the user dirty once for every change, whether of a list or of a contact, event or tag in it.
+    private synchronized <T> void onChanges(List<ChangeEvent<T>> changes) {
+        changes.forEach(change -> markDirty());
+    }
+
+}
@@ -6,8 +6,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /***
  * The PRM model database with abstract logic.
@@ -24,35 +27,168 @@ public class Database {
     final private IDatabaseSaver saver;
     // The database tracker logic.
     final private IDatabaseTracker tracker;
+    // The database journal logic.
+    final private IDatabaseJournal journal;
+    // The number of journaled changes after which the journal of a recorded user is to be compacted.
+    private static final int COMPACTION_THRESHOLD = 1000;
+    // The number of times every user has been saved along with its journal cleared, which tells whether a snapshot is
+    // older than the saved user.
+    private final Map<UUID, Long> saveCounts = new ConcurrentHashMap<>();
+
+    /***
+     * A copy of a user taken at a point in time, which can be saved on another thread while the user changes.
+     */
+    public static final class Snapshot {
+        private final User copy;
+        // The number of times the user had been saved along with its journal cleared when the copy was taken.
+        private final long saveCount;
+        // The number of changes in the journal of the user when the copy was taken, which the copy holds.
+        private final int journalEntryCount;
+
+        private Snapshot(User copy, long saveCount, int journalEntryCount) {
+            this.copy = copy;
+            this.saveCount = saveCount;
+            this.journalEntryCount = journalEntryCount;
+        }
+
+        /***
+         * Get the copy of the user.
+         * @return The copy of the user.
+         */
+        public User getUser() {
+            return copy;
+        }
+    }
 
     /**
-     * Construct a database with tracker, loader and saver logic.
+     * Construct a database with tracker, loader, saver and journal logic.
      * @param tracker The database tracker logic.
      * @param loader The database loader logic.
      * @param storer The database saver logic.
+     * @param journal The database journal logic.
      */
-    Database(IDatabaseTracker tracker, IDatabaseLoader loader, IDatabaseSaver storer) {
+    Database(IDatabaseTracker tracker, IDatabaseLoader loader, IDatabaseSaver storer, IDatabaseJournal journal) {
         this.loader = loader;
         this.saver = storer;
         this.tracker = tracker;
+        this.journal = journal;
     }
 
     /***
-     * Load a user from the database.
+     * Load a user from the database, with every change in its journal applied.
      * @param uuid The UID of the user to load.
      * @return The loaded user.
      */
     public User load(UUID uuid) throws IOException {
-        return this.loader.load(this.baseDirectory.resolve("users/" + uuid.toString()));
+        User user = this.loader.load(this.baseDirectory.resolve("users/" + uuid.toString()));
+        return this.journal.replay(user, journalPath(uuid));
     }
 
     /***
-     * Save a user to the database.
+     * Save a user to the database and clear its journal, as the journaled changes are now part of the saved user.
      * @param user The user to save.
      */
-    public void save(User user) throws IOException {
+    public synchronized void save(User user) throws IOException {
         this.tracker.addUser(user.getId(), user.getName(), this.databaseTrackerPath);
         this.saver.save(user, this.baseDirectory.resolve("users/" + user.getId().toString()));
+        this.saveCounts.merge(user.getId(), 1L, Long::sum);
+        this.journal.clear(user, journalPath(user.getId()));
+    }
+
+    /***
+     * Take a snapshot of a user to be saved later, possibly on another thread. The snapshot must be taken on the
+     * thread which changes the user.
+     * @param user The user to take a snapshot of.
+     * @return The snapshot of the user.
+     */
+    public Snapshot snapshot(User user) {
+        return new Snapshot(DatabaseCaches.copyOf(user), this.saveCounts.getOrDefault(user.getId(), 0L),
+                this.journal.getEntryCount(user));
+    }
+
+    /***
+     * Save a snapshot of a user to the database. The journal of the user is left as it is, as the user may have
+     * changed since the snapshot was taken; replaying the journal over the saved snapshot gives the same user.
+     * A snapshot is not saved if the user has been saved since the snapshot was taken, as the saved user is newer.
+     * @param snapshot The snapshot to save.
+     * @return The size of the saved user file in bytes, or -1 if the snapshot was not saved.
+     * @throws IOException If an IO error occurs while saving the snapshot.
+     */
+    public synchronized long save(Snapshot snapshot) throws IOException {
+        User user = snapshot.copy;
+        if (this.saveCounts.getOrDefault(user.getId(), 0L) != snapshot.saveCount) {
+            return -1;
+        }
+        Path userFile = this.baseDirectory.resolve("users/" + user.getId().toString());
+        this.tracker.addUser(user.getId(), user.getName(), this.databaseTrackerPath);
+        this.saver.save(user, userFile);
+        return Files.size(userFile);
+    }
+
+    /***
+     * Clear the changes a saved snapshot holds from the journal of a user, keeping the changes made since the snapshot
+     * was taken. Must be called on the thread which changes the user. The journal is left as it is if the user has
+     * been saved since the snapshot was taken, and snapshots taken before are no longer saved.
+     * @param user The user to clear the journal of.
+     * @param snapshot The saved snapshot of the user.
+     * @throws IOException If an IO error occurs while clearing the journal.
+     */
+    public void clearJournal(User user, Snapshot snapshot) throws IOException {
+        if (this.saveCounts.getOrDefault(user.getId(), 0L) != snapshot.saveCount) {
+            return;
+        }
+        this.journal.clear(user, journalPath(user.getId()),
+                this.journal.getEntryCount(user) - snapshot.journalEntryCount);
+        this.saveCounts.merge(user.getId(), 1L, Long::sum);
+    }
+
+    /***
+     * Check whether the journal of a recorded user has grown large enough to be compacted, by saving a snapshot of the
+     * user and clearing the changes it holds from the journal.
+     * @param user The recorded user.
+     * @return True if the journal should be compacted, false otherwise.
+     */
+    public boolean isJournalFull(User user) {
+        return this.journal.getEntryCount(user) >= COMPACTION_THRESHOLD;
+    }
+
+    /***
+     * Persist every change made to a user as it happens, by appending it to the journal of the user. The user is
+     * saved first if it has never been. The journal is compacted by the saves of an {@link AutosaveScheduler}, see
+     * {@link #isJournalFull(User)}.
+     * @param user The user to record the changes of.
+     * @throws IOException If an IO error occurs while saving the user or opening its journal.
+     */
+    public void record(User user) throws IOException {
+        if (!Files.exists(this.baseDirectory.resolve("users/" + user.getId().toString()))) {
+            save(user);
+        }
+        this.journal.record(user, journalPath(user.getId()));
+    }
+
+    /***
+     * Stop recording the changes of a user.
+     * @param user The user to stop recording the changes of.
+     * @throws IOException If an IO error occurs while closing the journal of the user.
+     */
+    public void stopRecording(User user) throws IOException {
+        this.journal.stop(user);
+    }
+
+    /***
+     * Open the queries of a saved user, which look up the events of a contact, of a tag or of a period of time from the
+     * indices of the user file without loading the user. Meant for users which are not loaded, as the queries see the
+     * user as it was last saved; a journal left by the user is saved into the user file first.
+     * @param uuid The UID of the user to query.
+     * @return The queries of the user, to be closed once done, or nothing if the user file has no indices to query.
+     * @throws IOException If an IO error occurs while saving the journal or opening the user file.
+     */
+    public Optional<IDatabaseQueries> openQueries(UUID uuid) throws IOException {
+        Path journalFile = journalPath(uuid);
+        if (Files.exists(journalFile) && Files.size(journalFile) > 0) {
+            save(load(uuid));
+        }
+        return this.loader.openQueries(this.baseDirectory.resolve("users/" + uuid.toString()));
     }
 
     /**
@@ -61,9 +197,11 @@ public class Database {
      * @throws IOException If an IO error occurs.
      */
     public void remove(User user) throws IOException {
+        this.journal.stop(user);
         if(this.tracker.removeUser(user.getId(), this.databaseTrackerPath)) {
             Files.delete(baseDirectory.resolve("users/" + user.getId().toString()));
         }
+        Files.deleteIfExists(journalPath(user.getId()));
     }
 
     /**
@@ -85,4 +223,9 @@ public class Database {
         return this.tracker.getUsername(uuid, this.databaseTrackerPath);
     }
 
+    // The journal file of a user.
+    private Path journalPath(UUID uuid) {
+        return this.baseDirectory.resolve("users/" + uuid.toString() + ".journal");
+    }
+
 }
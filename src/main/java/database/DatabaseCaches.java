@@ -0,0 +1,121 @@
+package database;
+
+import model.*;
+import model.notes.Note;
+import model.notes.NoteBook;
+
+import java.util.*;
+
+/***
+ * Access to the caches of the model for database formats which write the caches themselves rather than records.
+ */
+public final class DatabaseCaches {
+
+    private DatabaseCaches() {
+    }
+
+    /***
+     * Get the cache of a visitable model object.
+     * @param visitable The model object.
+     * @param type The type of the cache of the model object.
+     * @param <C> The type of the cache.
+     * @return The cache of the model object.
+     */
+    public static <C> C cacheOf(ICacheVisitable visitable, Class<C> type) {
+        return type.cast(visitable.accept(CacheCollector.INSTANCE, null).orElseThrow(IllegalStateException::new));
+    }
+
+    /***
+     * Get the notes of a notes cache, decoding them if the notes book they were collected from loads them lazily.
+     * The notes book itself is left as it is.
+     * @param noteBook The cache of the notes book.
+     * @return The notes.
+     */
+    public static List<Note> notesOf(NoteBook.NotesCache noteBook) {
+        return noteBook.elementsLoader != null ? noteBook.elementsLoader.get() : noteBook.elements;
+    }
+
+    /***
+     * Copy a user through the caches of its model objects. The copy shares no mutable model object with the user, so
+     * that it can be saved on another thread while the user changes.
+     * @param user The user to copy.
+     * @return The copy of the user.
+     */
+    public static User copyOf(User user) {
+        User.UserCache cache = cacheOf(user, User.UserCache.class);
+        Map<ITag, Tag> tags = new IdentityHashMap<>();
+        Map<Contact, Contact> contacts = new IdentityHashMap<>();
+
+        TagHandler.TagHandlerCache tagHandler = cacheOf(cache.tagHandler, TagHandler.TagHandlerCache.class);
+        tagHandler.stringTagHashMap.replaceAll((key, tag) -> copyOf(tag, tags));
+        cache.tagHandler = new TagHandler(tagHandler);
+        cache.contacts.replaceAll(contact -> copyOf(contact, tags, contacts));
+        cache.events.replaceAll(event -> {
+            Event.EventCache eventCache = cacheOf(event, Event.EventCache.class);
+            eventCache.tag = eventCache.tag == null ? null : copyOf(eventCache.tag, tags);
+            eventCache.contacts.replaceAll(contact -> copyOf(contact, tags, contacts));
+            return new Event(eventCache);
+        });
+        return new User(cache);
+    }
+
+    // Copy a tag, unless it has already been copied.
+    private static Tag copyOf(ITag tag, Map<ITag, Tag> tags) {
+        return tags.computeIfAbsent(tag, t -> new Tag(cacheOf((Tag) t, Tag.TagCache.class)));
+    }
+
+    // Copy a contact along with its notes, unless it has already been copied. Notes are immutable and are shared, and
+    // notes which are loaded lazily are left to be loaded by the copy.
+    private static Contact copyOf(Contact contact, Map<ITag, Tag> tags, Map<Contact, Contact> contacts) {
+        Contact copy = contacts.get(contact);
+        if (copy == null) {
+            Contact.ContactCache cache = cacheOf(contact, Contact.ContactCache.class);
+            cache.tags.replaceAll(tag -> copyOf(tag, tags));
+            cache.noteBook = new NoteBook(cacheOf(cache.noteBook, NoteBook.NotesCache.class));
+            copy = new Contact(cache);
+            contacts.put(contact, copy);
+        }
+        return copy;
+    }
+
+    // The cache collector returns the visited caches as they are.
+    private static class CacheCollector implements ICacheVisitor<Void, Object> {
+        static final CacheCollector INSTANCE = new CacheCollector();
+
+        @Override
+        public Optional<Object> visit(User.UserCache user, Void env) {
+            return Optional.of(user);
+        }
+
+        @Override
+        public Optional<Object> visit(Contact.ContactCache contact, Void env) {
+            return Optional.of(contact);
+        }
+
+        @Override
+        public Optional<Object> visit(Event.EventCache event, Void env) {
+            return Optional.of(event);
+        }
+
+        @Override
+        public Optional<Object> visit(NoteBook.NotesCache notes, Void env) {
+            return Optional.of(notes);
+        }
+
+        @Override
+        public Optional<Object> visit(Note.NoteCache note, Void env) {
+            return Optional.of(note);
+        }
+
+        @Override
+        public Optional<Object> visit(TagHandler.TagHandlerCache tagHandler, Void env) {
+            return Optional.of(tagHandler);
+        }
+
+        @Override
+        public Optional<Object> visit(Tag.TagCache tag, Void env) {
+            return Optional.of(tag);
+        }
+    }
+
+}
@@ -1,8 +1,13 @@
 package database;
 
+import database.binary.BinaryDatabaseLoader;
+import database.binary.BinaryDatabaseSaver;
+import database.json.JSONDatabaseJournal;
 import database.json.JSONDatabaseLoader;
 import database.json.JSONDatabaseSaver;
 import database.json.JSONDatabaseTracker;
+import database.sql.SQLDatabaseLoader;
+import database.sql.SQLDatabaseSaver;
 
 import java.io.IOException;
 
@@ -11,6 +16,12 @@ import java.io.IOException;
  */
 public final class DatabaseFactory {
 
+    // The system property choosing the format users are saved in, the JSON format unless set to "binary" or "sql".
+    static public final String FORMAT_PROPERTY = "prm.database.format";
+    static private final String BINARY_FORMAT = "binary";
+    static private final String SQL_FORMAT = "sql";
+    // The system property wrapping JSON and binary user files in a compressed container when set to "true".
+    static public final String COMPRESS_PROPERTY = "prm.database.compress";
     // The database instance.
     static private Database database = null;
 
@@ -18,14 +29,28 @@ public final class DatabaseFactory {
     }
 
     /***
-     * Create a new abstract PRM database.
+     * Create a new abstract PRM database, saving users in the format given by the {@value #FORMAT_PROPERTY} system
+     * property. Users saved in the JSON format can be loaded in any format, and users saved in the binary format can
+     * be loaded in the SQL format. JSON and binary user files are compressed if the {@value #COMPRESS_PROPERTY} system
+     * property is set, and compressed files are loaded as any other.
      * @throws IOException If the factory failed to initialize the database disk storage.
      * @return The new PRM database.
      */
     static synchronized public Database getService() {
         if (database == null) {
             /// TODO Don't use a temporary file dummy!
-            database = new Database(new JSONDatabaseTracker(), new JSONDatabaseLoader(), new JSONDatabaseSaver());
+            String format = System.getProperty(FORMAT_PROPERTY);
+            boolean compressed = Boolean.getBoolean(COMPRESS_PROPERTY);
+            if (SQL_FORMAT.equals(format)) {
+                database = new Database(new JSONDatabaseTracker(), new SQLDatabaseLoader(), new SQLDatabaseSaver(),
+                        new JSONDatabaseJournal());
+            } else if (BINARY_FORMAT.equals(format)) {
+                database = new Database(new JSONDatabaseTracker(), new BinaryDatabaseLoader(),
+                        new BinaryDatabaseSaver(compressed), new JSONDatabaseJournal());
+            } else {
+                database = new Database(new JSONDatabaseTracker(), new JSONDatabaseLoader(),
+                        new JSONDatabaseSaver(compressed), new JSONDatabaseJournal());
+            }
         }
         return database;
     }
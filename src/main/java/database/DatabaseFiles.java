@@ -0,0 +1,86 @@
+package database;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/***
+ * File operations shared by the database formats.
+ */
+public final class DatabaseFiles {
+
+    /***
+     * The writing of a file through a channel.
+     */
+    public interface IChannelWriter {
+        /***
+         * Write the contents of a file.
+         * @param channel The channel of the file. Buffered writers on top of it must be flushed before returning.
+         * @throws IOException If an IO error occurs while writing.
+         */
+        void write(FileChannel channel) throws IOException;
+    }
+
+    /***
+     * The building of a file by a writer which opens the file itself, such as a database driver.
+     */
+    public interface IFileBuilder {
+        /***
+         * Write the contents of a file.
+         * @param file The empty file to write. The writer must have closed the file before returning.
+         * @throws IOException If an IO error occurs while writing.
+         */
+        void build(Path file) throws IOException;
+    }
+
+    private DatabaseFiles() {
+    }
+
+    /***
+     * Replace a file with the written contents, so that the file is either left as it was or completely replaced.
+     * The contents are written to a temporary file next to the file, which is synced to disk and then moved over the
+     * file, atomically if the file system allows it.
+     * @param file The file to replace.
+     * @param writer The writer of the new contents.
+     * @throws IOException If an IO error occurs while writing or moving the file.
+     */
+    public static void writeAtomically(Path file, IChannelWriter writer) throws IOException {
+        buildAtomically(file, temporaryFile -> {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                writer.write(channel);
+                channel.force(true);
+            }
+        });
+    }
+
+    /***
+     * Replace a file with a file built by a writer opening it itself, so that the file is either left as it was or
+     * completely replaced. The file is built at a temporary path next to the file, synced to disk and then moved over
+     * the file, atomically if the file system allows it.
+     * @param file The file to replace.
+     * @param builder The builder of the new file.
+     * @throws IOException If an IO error occurs while building or moving the file.
+     */
+    public static void buildAtomically(Path file, IFileBuilder builder) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            builder.build(temporaryFile);
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package database;
+
+import model.User;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The journal logic of a database. Appends the changes made to a user after its last save, so that they can be
+ * persisted as they happen and replayed over the saved user when it is loaded.
+ */
+public interface IDatabaseJournal {
+
+    /**
+     * Start appending every change made to a user to its journal file.
+     * @param user The user to record the changes of.
+     * @param journalFile The journal file to append the changes to.
+     * @throws IOException If an IO error occurs while opening the journal file.
+     */
+    void record(User user, Path journalFile) throws IOException;
+
+    /**
+     * Stop recording the changes of a user and close its journal file.
+     * @param user The user to stop recording the changes of.
+     * @throws IOException If an IO error occurs while closing the journal file.
+     */
+    void stop(User user) throws IOException;
+
+    /**
+     * Get the number of changes in the journal of a recorded user.
+     * @param user The recorded user.
+     * @return The number of changes appended since the journal was last cleared, 0 if the user is not recorded.
+     */
+    int getEntryCount(User user);
+
+    /**
+     * Remove every change from a journal file, once the changes are part of the saved user.
+     * @param user The user of the journal.
+     * @param journalFile The journal file to clear.
+     * @throws IOException If an IO error occurs while clearing the journal file.
+     */
+    void clear(User user, Path journalFile) throws IOException;
+
+    /**
+     * Remove every change but the latest ones from a journal file, once the older changes are part of the saved user.
+     * @param user The user of the journal.
+     * @param journalFile The journal file to clear.
+     * @param keptEntryCount The number of latest changes to keep, which were made after the saved user was copied.
+     * @throws IOException If an IO error occurs while clearing the journal file.
+     */
+    void clear(User user, Path journalFile, int keptEntryCount) throws IOException;
+
+    /**
+     * Apply the changes of a journal file to a loaded user.
+     * @param user The user loaded from the database file.
+     * @param journalFile The journal file to replay.
+     * @return The user with every change of the journal applied.
+     * @throws IOException If an IO error occurs while reading the journal file.
+     */
+    User replay(User user, Path journalFile) throws IOException;
+
+}
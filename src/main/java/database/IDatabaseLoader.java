@@ -4,6 +4,7 @@ import model.User;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * The loading logic of a database.
@@ -18,4 +19,14 @@ public interface IDatabaseLoader {
      */
     User load(Path databasePath) throws IOException;
 
+    /***
+     * Open the queries of a database file, which look up the events of the saved user without loading it.
+     * @param databasePath The database file to query.
+     * @return The queries of the database file, or nothing if the format of the file has no indices to query.
+     * @throws IOException If an IO error occurs while opening the database file.
+     */
+    default Optional<IDatabaseQueries> openQueries(Path databasePath) throws IOException {
+        return Optional.empty();
+    }
+
 }
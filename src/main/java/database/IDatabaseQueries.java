@@ -0,0 +1,40 @@
+package database;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The query logic of a database able to look up the events of a saved user without loading the user.
+ * Events and contacts are identified by their directory ids.
+ */
+public interface IDatabaseQueries extends Closeable {
+
+    /**
+     * Get the events a contact takes part in.
+     * @param contactId The directory id of the contact.
+     * @return The directory ids of the events of the contact, ordered by time.
+     * @throws IOException If an IO error occurs while querying the database.
+     */
+    List<UUID> getContactsEvents(UUID contactId) throws IOException;
+
+    /**
+     * Get the events of a tag.
+     * @param tagName The name of the tag.
+     * @return The directory ids of the events of the tag, ordered by time.
+     * @throws IOException If an IO error occurs while querying the database.
+     */
+    List<UUID> getEventsOfTag(String tagName) throws IOException;
+
+    /**
+     * Get the events taking place in a period of time.
+     * @param from The start of the period, inclusive.
+     * @param to The end of the period, exclusive.
+     * @return The directory ids of the events in the period, ordered by time.
+     * @throws IOException If an IO error occurs while querying the database.
+     */
+    List<UUID> getEventsBetween(LocalDateTime from, LocalDateTime to) throws IOException;
+
+}
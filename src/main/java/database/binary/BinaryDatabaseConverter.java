@@ -0,0 +1,67 @@
+package database.binary;
+
+import database.IDatabaseLoader;
+import database.IDatabaseSaver;
+import database.json.JSONDatabaseLoader;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/***
+ * Converts user files of the JSON database format to the binary database format.
+ * <p>
+ * Run with {@code java database.binary.BinaryDatabaseConverter [users directory]}, converting every JSON user file
+ * in {@code ~/.prm/users} unless another directory is given.
+ * </p>
+ */
+public final class BinaryDatabaseConverter {
+
+    private static final IDatabaseLoader JSON_LOADER = new JSONDatabaseLoader();
+    private static final IDatabaseSaver BINARY_SAVER = new BinaryDatabaseSaver();
+
+    private BinaryDatabaseConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path usersDirectory = args.length > 0
+                ? Paths.get(args[0]) : Paths.get(System.getProperty("user.home"), ".prm", "users");
+        int converted = convertAll(usersDirectory);
+        System.out.println("Converted " + converted + " user files in " + usersDirectory);
+    }
+
+    /***
+     * Convert a JSON user file to a binary user file.
+     * @param jsonFile The JSON user file to convert.
+     * @param binaryFile The binary user file to write, which may be the JSON user file itself.
+     * @throws IOException If an IO error occurs while reading or writing the files.
+     */
+    public static void convert(Path jsonFile, Path binaryFile) throws IOException {
+        BINARY_SAVER.save(JSON_LOADER.load(jsonFile), binaryFile);
+    }
+
+    /***
+     * Convert every JSON user file in a directory in place. Journals and files already in the binary format are left
+     * as they are.
+     * @param usersDirectory The directory of the user files.
+     * @return The number of converted user files.
+     * @throws IOException If an IO error occurs while reading or writing the files.
+     */
+    public static int convertAll(Path usersDirectory) throws IOException {
+        int converted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(usersDirectory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!Files.isRegularFile(file) || name.contains(".") || BinaryFormat.isBinary(file)) {
+                    continue;
+                }
+                convert(file, file);
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+}
@@ -0,0 +1,175 @@
+package database.binary;
+
+import database.IDatabaseLoader;
+import database.block.BlockFormat;
+import database.json.JSONDatabaseLoader;
+import model.*;
+import model.notes.NoteBook;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/***
+ * A concrete implementation of an IDatabaseLoader operating with the binary file format, see {@link BinaryFormat}.
+ * Files in any other format are handed to a fallback loader, so that users saved in the JSON format can still be
+ * loaded and are converted by their next save.
+ */
+public class BinaryDatabaseLoader implements IDatabaseLoader {
+
+    // The loader of files which are not binary database files.
+    private final IDatabaseLoader fallback;
+
+    /***
+     * Create a binary database loader falling back to the JSON format.
+     */
+    public BinaryDatabaseLoader() {
+        this(new JSONDatabaseLoader());
+    }
+
+    /***
+     * Create a binary database loader.
+     * @param fallback The loader of files which are not binary database files.
+     */
+    public BinaryDatabaseLoader(IDatabaseLoader fallback) {
+        this.fallback = fallback;
+    }
+
+    /***
+     * Load a user from the database file.
+     * The file is read as a stream, and the notes of every contact are kept as encoded blocks which are only decoded
+     * once the notes are accessed. The loaded user holds no reference to the file, so that the file can be replaced or
+     * deleted by the next save.
+     * @return The loaded user.
+     */
+    @Override
+    public User load(Path databaseFile) throws IOException {
+        if (BlockFormat.isCompressed(databaseFile)) {
+            try (InputStream stream = new BufferedInputStream(BlockFormat.open(databaseFile))) {
+                if (BinaryFormat.isBinary(stream)) {
+                    return new UserReader(new BinaryInput(stream)).read();
+                }
+            }
+            return fallback.load(databaseFile);
+        }
+        if (!BinaryFormat.isBinary(databaseFile)) {
+            return fallback.load(databaseFile);
+        }
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(databaseFile))) {
+            return new UserReader(new BinaryInput(stream)).read();
+        }
+    }
+
+    // Reads a user from a binary database file.
+    private static class UserReader {
+        private final BinaryInput in;
+        private int version;
+        private String[] strings;
+        private Tag[] tags;
+        private Contact[] contacts;
+
+        UserReader(BinaryInput in) {
+            this.in = in;
+        }
+
+        User read() throws IOException {
+            in.readInt();
+            version = in.readByte();
+            if (version != BinaryFormat.VERSION && version != BinaryFormat.UNBLOCKED_NOTES_VERSION) {
+                throw new IOException("Unsupported binary database version " + version);
+            }
+
+            strings = new String[in.readVarInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readString();
+            }
+
+            User.UserCache user = new User.UserCache();
+            user.name = readStringReference();
+            user.uuid = in.readUuid();
+
+            tags = new Tag[in.readVarInt()];
+            Map<String, Tag> tagsByKey = new HashMap<>();
+            for (int i = 0; i < tags.length; i++) {
+                String key = readStringReference();
+                Tag.TagCache cache = new Tag.TagCache();
+                cache.name = readStringReference();
+                cache.color = readStringReference();
+                tags[i] = new Tag(cache);
+                if (key != null) {
+                    tagsByKey.put(key, tags[i]);
+                }
+            }
+            TagHandler.TagHandlerCache tagHandler = new TagHandler.TagHandlerCache();
+            tagHandler.stringTagHashMap = tagsByKey;
+            user.tagHandler = new TagHandler(tagHandler);
+
+            contacts = new Contact[in.readVarInt()];
+            for (int i = 0; i < contacts.length; i++) {
+                contacts[i] = readContact();
+            }
+
+            int userContactCount = in.readVarInt();
+            user.contacts = new ArrayList<>(userContactCount);
+            for (int i = 0; i < userContactCount; i++) {
+                user.contacts.add(contacts[in.readVarInt()]);
+            }
+
+            int eventCount = in.readVarInt();
+            user.events = new ArrayList<>(eventCount);
+            for (int i = 0; i < eventCount; i++) {
+                user.events.add(readEvent());
+            }
+            return new User(user);
+        }
+
+        private Contact readContact() throws IOException {
+            Contact.ContactCache cache = new Contact.ContactCache();
+            cache.name = readStringReference();
+            cache.phoneNumber = readStringReference();
+            cache.address = readStringReference();
+            cache.directoryId = in.readUuid();
+            int tagCount = in.readVarInt();
+            cache.tags = new ArrayList<>(tagCount);
+            for (int i = 0; i < tagCount; i++) {
+                cache.tags.add(tags[in.readVarInt()]);
+            }
+            NoteBook.NotesCache noteBook = new NoteBook.NotesCache();
+            if (version == BinaryFormat.UNBLOCKED_NOTES_VERSION) {
+                noteBook.elements = EncodedNotes.read(in);
+            } else {
+                noteBook.elementsLoader = new EncodedNotes(in.readBlock());
+            }
+            cache.noteBook = new NoteBook(noteBook);
+            return new Contact(cache);
+        }
+
+        private Event readEvent() throws IOException {
+            Event.EventCache cache = new Event.EventCache();
+            cache.name = readStringReference();
+            cache.address = readStringReference();
+            cache.description = readStringReference();
+            cache.dateTime = in.readTime();
+            int tag = in.readVarInt();
+            cache.tag = tag == 0 ? null : tags[tag - 1];
+            int contactCount = in.readVarInt();
+            cache.contacts = new ArrayList<>(contactCount);
+            for (int i = 0; i < contactCount; i++) {
+                cache.contacts.add(contacts[in.readVarInt()]);
+            }
+            cache.directoryId = in.readUuid();
+            return new Event(cache);
+        }
+
+        private String readStringReference() throws IOException {
+            int reference = in.readVarInt();
+            return reference == 0 ? null : strings[reference - 1];
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package database.binary;
+
+import database.DatabaseFiles;
+import database.IDatabaseSaver;
+import database.block.BlockOutputStream;
+import model.*;
+import model.notes.Note;
+import model.notes.NoteBook;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.*;
+
+import static database.DatabaseCaches.cacheOf;
+import static database.DatabaseCaches.notesOf;
+
+/***
+ * A concrete implementation of an IDatabaseSaver operating with the binary file format, see {@link BinaryFormat}.
+ */
+public class BinaryDatabaseSaver implements IDatabaseSaver {
+
+    // Whether files are wrapped in a compressed container, see BlockFormat.
+    private final boolean compressed;
+
+    /***
+     * Create a binary database saver writing uncompressed files.
+     */
+    public BinaryDatabaseSaver() {
+        this(false);
+    }
+
+    /***
+     * Create a binary database saver.
+     * @param compressed Whether files are wrapped in a compressed container with checksummed blocks.
+     */
+    public BinaryDatabaseSaver(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    /***
+     * Save a user to a database file.
+     * The file is written to a temporary file which is moved over the database file once complete.
+     * @param user The user to save.
+     * @throws IOException If there was a problem writing to the database file.
+     */
+    @Override
+    public void save(User user, Path databaseFile) throws IOException {
+        UserLayout layout = new UserLayout(cacheOf(user, User.UserCache.class));
+        DatabaseFiles.writeAtomically(databaseFile, channel -> {
+            BlockOutputStream blocks = compressed ? new BlockOutputStream(Channels.newOutputStream(channel)) : null;
+            BinaryOutput out = new BinaryOutput(new BufferedOutputStream(
+                    blocks != null ? blocks : Channels.newOutputStream(channel)));
+            layout.write(out);
+            out.flush();
+            if (blocks != null) {
+                blocks.finish();
+            }
+        });
+    }
+
+    // The caches of a user indexed the way they are written: tags and contacts by position and strings by position
+    // in the string table.
+    private static class UserLayout {
+        private final User.UserCache user;
+        private final List<Event.EventCache> events = new ArrayList<>();
+        private final List<Contact.ContactCache> contacts = new ArrayList<>();
+        private final Map<Contact, Integer> contactIndices = new IdentityHashMap<>();
+        private final List<Tag.TagCache> tags = new ArrayList<>();
+        private final List<String> tagKeys = new ArrayList<>();
+        private final Map<ITag, Integer> tagIndices = new IdentityHashMap<>();
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+        UserLayout(User.UserCache user) {
+            this.user = user;
+            TagHandler.TagHandlerCache tagHandler = cacheOf(user.tagHandler, TagHandler.TagHandlerCache.class);
+            tagHandler.stringTagHashMap.forEach((key, tag) -> indexTag(tag, key));
+            user.contacts.forEach(this::indexContact);
+            for (Event event : user.events) {
+                Event.EventCache cache = cacheOf(event, Event.EventCache.class);
+                events.add(cache);
+                cache.contacts.forEach(this::indexContact);
+                Optional.ofNullable(cache.tag).ifPresent(t -> indexTag(t, null));
+            }
+
+            intern(user.name);
+            for (int i = 0; i < tags.size(); i++) {
+                intern(tagKeys.get(i));
+                intern(tags.get(i).name);
+                intern(tags.get(i).color);
+            }
+            for (Contact.ContactCache contact : contacts) {
+                intern(contact.name);
+                intern(contact.phoneNumber);
+                intern(contact.address);
+            }
+            for (Event.EventCache event : events) {
+                intern(event.name);
+                intern(event.address);
+                intern(event.description);
+            }
+        }
+
+        // Give a tag the next index, unless it already has one. Tags missing from the tag handler have no key.
+        private void indexTag(ITag tag, String key) {
+            if (!tagIndices.containsKey(tag)) {
+                tagIndices.put(tag, tags.size());
+                tags.add(cacheOf((Tag) tag, Tag.TagCache.class));
+                tagKeys.add(key);
+            }
+        }
+
+        // Give a contact the next index, unless it already has one.
+        private void indexContact(Contact contact) {
+            if (!contactIndices.containsKey(contact)) {
+                Contact.ContactCache cache = cacheOf(contact, Contact.ContactCache.class);
+                contactIndices.put(contact, contacts.size());
+                contacts.add(cache);
+                cache.tags.forEach(t -> indexTag(t, null));
+            }
+        }
+
+        private void intern(String value) {
+            if (value != null) {
+                strings.putIfAbsent(value, strings.size());
+            }
+        }
+
+        private void writeStringReference(BinaryOutput out, String value) throws IOException {
+            out.writeVarInt(value == null ? 0 : strings.get(value) + 1);
+        }
+
+        void write(BinaryOutput out) throws IOException {
+            out.writeInt(BinaryFormat.MAGIC);
+            out.writeByte(BinaryFormat.VERSION);
+
+            out.writeVarInt(strings.size());
+            for (String value : strings.keySet()) {
+                out.writeString(value);
+            }
+
+            writeStringReference(out, user.name);
+            out.writeUuid(user.uuid);
+
+            out.writeVarInt(tags.size());
+            for (int i = 0; i < tags.size(); i++) {
+                writeStringReference(out, tagKeys.get(i));
+                writeStringReference(out, tags.get(i).name);
+                writeStringReference(out, tags.get(i).color);
+            }
+
+            ByteArrayOutputStream notesBlock = new ByteArrayOutputStream();
+            BinaryOutput notesOut = new BinaryOutput(notesBlock);
+            out.writeVarInt(contacts.size());
+            for (Contact.ContactCache contact : contacts) {
+                writeStringReference(out, contact.name);
+                writeStringReference(out, contact.phoneNumber);
+                writeStringReference(out, contact.address);
+                out.writeUuid(contact.directoryId);
+                out.writeVarInt(contact.tags.size());
+                for (ITag tag : contact.tags) {
+                    out.writeVarInt(tagIndices.get(tag));
+                }
+                NoteBook.NotesCache noteBook = cacheOf(contact.noteBook, NoteBook.NotesCache.class);
+                if (noteBook.elementsLoader instanceof EncodedNotes) {
+                    // Notes which have not been decoded since they were loaded are written back as they were read.
+                    out.writeBlock(((EncodedNotes) noteBook.elementsLoader).getBlock());
+                    continue;
+                }
+                List<Note> notes = notesOf(noteBook);
+                notesBlock.reset();
+                notesOut.writeVarInt(notes.size());
+                for (Note note : notes) {
+                    Note.NoteCache cache = cacheOf(note, Note.NoteCache.class);
+                    notesOut.writeString(cache.text);
+                    notesOut.writeTime(cache.pointOfCreation);
+                }
+                notesOut.flush();
+                out.writeBlock(notesBlock);
+            }
+
+            out.writeVarInt(user.contacts.size());
+            for (Contact contact : user.contacts) {
+                out.writeVarInt(contactIndices.get(contact));
+            }
+
+            out.writeVarInt(events.size());
+            for (Event.EventCache event : events) {
+                writeStringReference(out, event.name);
+                writeStringReference(out, event.address);
+                writeStringReference(out, event.description);
+                out.writeTime(event.dateTime);
+                out.writeVarInt(event.tag == null ? 0 : tagIndices.get(event.tag) + 1);
+                out.writeVarInt(event.contacts.size());
+                for (Contact contact : event.contacts) {
+                    out.writeVarInt(contactIndices.get(contact));
+                }
+                out.writeUuid(event.directoryId);
+            }
+        }
+    }
+
+}
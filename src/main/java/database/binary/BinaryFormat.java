@@ -0,0 +1,77 @@
+package database.binary;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/***
+ * Constants of the binary database format.
+ * <p>
+ * A file starts with the magic number and the format version, followed by
+ * <ol>
+ *     <li>the string table: the number of strings and every string, which the rest of the file refers to by index
+ *     plus one, 0 being null,</li>
+ *     <li>the name and UUID of the user,</li>
+ *     <li>the tags: their number and the key, name and color of every tag, keys being null for tags missing from the
+ *     tag handler,</li>
+ *     <li>the contacts: their number and every contact, referring to its tags by index and ending with its notes
+ *     as a block preceded by its length in bytes,</li>
+ *     <li>the indices of the contacts of the user,</li>
+ *     <li>the events: their number and every event, referring to its tag by index plus one and to its contacts by
+ *     index.</li>
+ * </ol>
+ * Counts, indices and string lengths are variable length integers, UUIDs are two longs and times are nanoseconds
+ * since the epoch. The text of notes is written in place rather than in the string table, as it is rarely repeated.
+ * </p>
+ * <p>
+ * Since version 2 the notes of every contact are a block of their own, which lets a loader skip them and decode them
+ * only once they are accessed. Version 1 files have no block lengths and are still loaded.
+ * </p>
+ */
+final class BinaryFormat {
+
+    // The first four bytes of a binary database file, "PRMB".
+    static final int MAGIC = 0x50524D42;
+    static final int VERSION = 2;
+    // The first version, which writes the notes of a contact without the length of the notes block.
+    static final int UNBLOCKED_NOTES_VERSION = 1;
+    static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private BinaryFormat() {
+    }
+
+    /***
+     * Check whether a file is a binary database file.
+     * @param file The file to check.
+     * @return True if the file starts with the magic number, false otherwise.
+     * @throws IOException If an IO error occurs while reading the file.
+     */
+    static boolean isBinary(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return new DataInputStream(in).readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /***
+     * Check whether a stream holds a binary database file, leaving the stream at its start.
+     * @param in The stream to check, which must support mark and reset.
+     * @return True if the stream starts with the magic number, false otherwise.
+     * @throws IOException If an IO error occurs while reading the stream.
+     */
+    static boolean isBinary(InputStream in) throws IOException {
+        in.mark(Integer.BYTES);
+        try {
+            return new DataInputStream(in).readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+}
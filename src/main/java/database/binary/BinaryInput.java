@@ -0,0 +1,82 @@
+package database.binary;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/***
+ * Reads the values of the binary database format from a stream.
+ */
+class BinaryInput {
+
+    private final DataInputStream in;
+
+    BinaryInput(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    /***
+     * Read an integer written by {@link BinaryOutput#writeVarInt(int)}.
+     * @return The integer.
+     * @throws IOException If the integer is longer than 5 bytes or the stream ends.
+     */
+    int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Malformed variable length integer");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    int readInt() throws IOException {
+        return in.readInt();
+    }
+
+    int readByte() throws IOException {
+        return in.readUnsignedByte();
+    }
+
+    String readString() throws IOException {
+        byte[] bytes = new byte[readVarInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /***
+     * Read a block written by {@link BinaryOutput#writeBlock(byte[])}.
+     * @return The bytes of the block, without its length.
+     * @throws IOException If the length is negative or the stream ends.
+     */
+    byte[] readBlock() throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Malformed block length " + length);
+        }
+        byte[] block = new byte[length];
+        in.readFully(block);
+        return block;
+    }
+
+    UUID readUuid() throws IOException {
+        long mostSignificantBits = in.readLong();
+        return new UUID(mostSignificantBits, in.readLong());
+    }
+
+    LocalDateTime readTime() throws IOException {
+        long nanos = in.readLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, BinaryFormat.NANOS_PER_SECOND),
+                (int) Math.floorMod(nanos, BinaryFormat.NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+}
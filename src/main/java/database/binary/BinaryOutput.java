@@ -0,0 +1,98 @@
+package database.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/***
+ * Writes the values of the binary database format to a stream.
+ */
+class BinaryOutput {
+
+    private final DataOutputStream out;
+
+    BinaryOutput(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /***
+     * Write a non-negative integer in 7 bit groups, least significant first, with the high bit set on every group
+     * but the last. Small integers such as indices and lengths take a single byte.
+     * @param value The integer to write.
+     */
+    void writeVarInt(int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Variable length integers cannot be negative");
+        }
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    void writeInt(int value) throws IOException {
+        out.writeInt(value);
+    }
+
+    void writeByte(int value) throws IOException {
+        out.writeByte(value);
+    }
+
+    /***
+     * Write a string as its length in UTF-8 bytes followed by the bytes.
+     * @param value The string to write.
+     */
+    void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /***
+     * Write a UUID as its most and least significant halves.
+     * @param value The UUID to write.
+     */
+    void writeUuid(UUID value) throws IOException {
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    /***
+     * Write a time as nanoseconds since the epoch, reading the time as UTC.
+     * @param value The time to write.
+     * @throws ArithmeticException If the time is too far from the epoch to be represented in nanoseconds.
+     */
+    void writeTime(LocalDateTime value) throws IOException {
+        out.writeLong(Math.addExact(Math.multiplyExact(value.toEpochSecond(ZoneOffset.UTC), BinaryFormat.NANOS_PER_SECOND),
+                value.getNano()));
+    }
+
+    /***
+     * Write a block of bytes preceded by its length as an int, so that readers can skip it.
+     * @param block The block to write.
+     */
+    void writeBlock(ByteArrayOutputStream block) throws IOException {
+        out.writeInt(block.size());
+        block.writeTo(out);
+    }
+
+    /***
+     * Write a block of bytes preceded by its length as an int, see {@link #writeBlock(ByteArrayOutputStream)}.
+     * @param block The block to write.
+     */
+    void writeBlock(byte[] block) throws IOException {
+        out.writeInt(block.length);
+        out.write(block);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+}
@@ -0,0 +1,60 @@
+package database.binary;
+
+import model.notes.Note;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/***
+ * The notes of a contact as the block they were loaded from, decoded every time they are asked for.
+ * The block is read from the file along with the rest of the user, so that no loaded user holds on to the file, and is
+ * written back as it is when the notes are saved without having been decoded.
+ */
+final class EncodedNotes implements Supplier<List<Note>> {
+
+    private final byte[] block;
+
+    EncodedNotes(byte[] block) {
+        this.block = block;
+    }
+
+    /***
+     * Get the encoded notes block, without its length.
+     * @return The block, which must not be modified.
+     */
+    byte[] getBlock() {
+        return block;
+    }
+
+    @Override
+    public List<Note> get() {
+        try {
+            return read(new BinaryInput(new ByteArrayInputStream(block)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /***
+     * Read the notes of a contact.
+     * @param in The input positioned at the number of notes.
+     * @return The notes.
+     * @throws IOException If the notes are malformed or the input ends.
+     */
+    static List<Note> read(BinaryInput in) throws IOException {
+        int noteCount = in.readVarInt();
+        List<Note> notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            Note.NoteCache note = new Note.NoteCache();
+            note.text = in.readString();
+            note.pointOfCreation = in.readTime();
+            notes.add(new Note(note));
+        }
+        return notes;
+    }
+
+}
@@ -0,0 +1,81 @@
+package database.block;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/***
+ * Constants of the compressed block container, which database files of any format can be wrapped in.
+ * <p>
+ * A container starts with the magic number and the container version, followed by blocks of at most
+ * {@value #BLOCK_SIZE} bytes of the wrapped file. Every block is
+ * <ol>
+ *     <li>the length of the block before compression, as an int,</li>
+ *     <li>the length of the compressed block, as an int,</li>
+ *     <li>the CRC32 of the block before compression, as an int,</li>
+ *     <li>the block compressed with deflate.</li>
+ * </ol>
+ * The container ends with a block length of 0, so that a truncated container is told apart from a complete one.
+ * A corrupt block is detected by its lengths and its checksum, and reported along with its index.
+ * </p>
+ */
+public final class BlockFormat {
+
+    // The first four bytes of a compressed container, "PRMZ".
+    static final int MAGIC = 0x50524D5A;
+    static final int VERSION = 1;
+    // The number of bytes of the wrapped file in a block.
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    private BlockFormat() {
+    }
+
+    /***
+     * Get the largest compressed length of a block, which deflate reaches for data that does not compress at all.
+     * This is the bound of zlib's compressBound, counting the stored block headers and the zlib header and trailer.
+     * @param rawLength The length of the block before compression.
+     * @return The largest length of the compressed block.
+     */
+    static int maxCompressedLength(int rawLength) {
+        return rawLength + (rawLength >> 12) + (rawLength >> 14) + (rawLength >> 25) + 13;
+    }
+
+    /***
+     * Check whether a file is a compressed container.
+     * @param file The file to check.
+     * @return True if the file starts with the magic number, false otherwise.
+     * @throws IOException If an IO error occurs while reading the file.
+     */
+    public static boolean isCompressed(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return new DataInputStream(in).readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /***
+     * Open a database file for reading, decompressing it if it is a compressed container.
+     * @param file The file to open.
+     * @return The buffered contents of the file, or of the wrapped file if it is a compressed container.
+     * @throws IOException If an IO error occurs while opening the file.
+     */
+    public static InputStream open(Path file) throws IOException {
+        boolean compressed = isCompressed(file);
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        if (compressed) {
+            try {
+                return new BlockInputStream(in);
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+        return in;
+    }
+
+}
@@ -0,0 +1,134 @@
+package database.block;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/***
+ * An input stream reading the wrapped file of a compressed container, see {@link BlockFormat}.
+ * Every block is checked against its checksum once decompressed, before any of its bytes are returned, so a corrupt
+ * block fails with a {@link CorruptBlockException} naming the block.
+ */
+public class BlockInputStream extends InputStream {
+
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater();
+    private final CRC32 crc = new CRC32();
+    // One spare byte tells a block decompressing to more than its length.
+    private final byte[] block = new byte[BlockFormat.BLOCK_SIZE + 1];
+    private final byte[] compressed = new byte[BlockFormat.maxCompressedLength(BlockFormat.BLOCK_SIZE)];
+    private int length = 0;
+    private int position = 0;
+    // The index of the next block to read.
+    private long blockIndex = 0;
+    private boolean ended = false;
+
+    /***
+     * Create a stream reading a compressed container.
+     * @param in The stream of the container, positioned at its start.
+     * @throws IOException If the stream is not a compressed container or an IO error occurs while reading its header.
+     */
+    public BlockInputStream(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        if (this.in.readInt() != BlockFormat.MAGIC) {
+            throw new IOException("Not a compressed container");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != BlockFormat.VERSION) {
+            throw new IOException("Unsupported compressed container version " + version);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == length && !readBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int count) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        if (position == length && !readBlock()) {
+            return -1;
+        }
+        int copied = Math.min(count, length - position);
+        System.arraycopy(block, position, bytes, offset, copied);
+        position += copied;
+        return copied;
+    }
+
+    @Override
+    public int available() {
+        return length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    // Read, decompress and check the next block, returning false at the end of the container.
+    private boolean readBlock() throws IOException {
+        if (ended) {
+            return false;
+        }
+        int rawLength;
+        int compressedLength;
+        int checksum;
+        try {
+            rawLength = in.readInt();
+            if (rawLength == 0) {
+                ended = true;
+                return false;
+            }
+            compressedLength = in.readInt();
+            checksum = in.readInt();
+            // The lengths are checked before anything is read, so a corrupt header never allocates or reads past a block.
+            if (rawLength < 0 || rawLength > BlockFormat.BLOCK_SIZE) {
+                throw new CorruptBlockException(blockIndex, "block length " + rawLength + " out of range");
+            }
+            if (compressedLength < 0 || compressedLength > BlockFormat.maxCompressedLength(rawLength)) {
+                throw new CorruptBlockException(blockIndex, "compressed length " + compressedLength + " out of range");
+            }
+            in.readFully(compressed, 0, compressedLength);
+        } catch (EOFException e) {
+            throw new CorruptBlockException(blockIndex, "the container is cut short");
+        }
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        int inflated = 0;
+        try {
+            while (!inflater.finished() && inflated <= rawLength) {
+                int count = inflater.inflate(block, inflated, block.length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+        } catch (DataFormatException e) {
+            throw new CorruptBlockException(blockIndex, e.getMessage());
+        }
+        if (inflated != rawLength || !inflater.finished()) {
+            throw new CorruptBlockException(blockIndex, "wrong decompressed length");
+        }
+        crc.reset();
+        crc.update(block, 0, rawLength);
+        if ((int) crc.getValue() != checksum) {
+            throw new CorruptBlockException(blockIndex, "checksum mismatch");
+        }
+        length = rawLength;
+        position = 0;
+        blockIndex++;
+        return true;
+    }
+
+}
@@ -0,0 +1,116 @@
+package database.block;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/***
+ * An output stream writing a compressed container, see {@link BlockFormat}.
+ * The written bytes are collected into blocks, which are compressed and written once full.
+ */
+public class BlockOutputStream extends OutputStream {
+
+    private final DataOutputStream out;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] block = new byte[BlockFormat.BLOCK_SIZE];
+    // The compressed block, large enough for incompressible blocks.
+    private byte[] compressed = new byte[BlockFormat.maxCompressedLength(BlockFormat.BLOCK_SIZE)];
+    private int length = 0;
+    private boolean finished = false;
+
+    /***
+     * Create a compressed container stream with the default compression level.
+     * @param out The stream to write the container to.
+     * @throws IOException If an IO error occurs while writing the header of the container.
+     */
+    public BlockOutputStream(OutputStream out) throws IOException {
+        this(out, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /***
+     * Create a compressed container stream.
+     * @param out The stream to write the container to.
+     * @param level The deflate compression level, from 0 to 9.
+     * @throws IOException If an IO error occurs while writing the header of the container.
+     */
+    public BlockOutputStream(OutputStream out, int level) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.deflater = new Deflater(level);
+        this.out.writeInt(BlockFormat.MAGIC);
+        this.out.writeByte(BlockFormat.VERSION);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (length == block.length) {
+            writeBlock();
+        }
+        block[length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int count) throws IOException {
+        while (count > 0) {
+            if (length == block.length) {
+                writeBlock();
+            }
+            int copied = Math.min(count, block.length - length);
+            System.arraycopy(bytes, offset, block, length, copied);
+            length += copied;
+            offset += copied;
+            count -= copied;
+        }
+    }
+
+    /***
+     * Write the last block and the end of the container, leaving the underlying stream open.
+     * @throws IOException If an IO error occurs while writing.
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            writeBlock();
+            out.writeInt(0);
+            out.flush();
+            deflater.end();
+            finished = true;
+        }
+    }
+
+    /***
+     * Finish the container and close the underlying stream.
+     * @throws IOException If an IO error occurs while writing or closing.
+     */
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private void writeBlock() throws IOException {
+        if (length == 0) {
+            return;
+        }
+        crc.reset();
+        crc.update(block, 0, length);
+        deflater.reset();
+        deflater.setInput(block, 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        out.writeInt(length);
+        out.writeInt(compressedLength);
+        out.writeInt((int) crc.getValue());
+        out.write(compressed, 0, compressedLength);
+        length = 0;
+    }
+
+}
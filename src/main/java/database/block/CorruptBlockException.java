@@ -0,0 +1,32 @@
+package database.block;
+
+import java.io.IOException;
+
+/***
+ * Thrown when a block of a compressed container does not match its checksum, cannot be decompressed or is cut short.
+ */
+public class CorruptBlockException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long blockIndex;
+
+    /***
+     * Create an exception for a corrupt block.
+     * @param blockIndex The index of the corrupt block in the container.
+     * @param message The description of the corruption.
+     */
+    public CorruptBlockException(long blockIndex, String message) {
+        super("Block " + blockIndex + " is corrupt: " + message);
+        this.blockIndex = blockIndex;
+    }
+
+    /***
+     * Get the index of the corrupt block. The blocks before it are intact.
+     * @return The index of the corrupt block in the container.
+     */
+    public long getBlockIndex() {
+        return blockIndex;
+    }
+
+}
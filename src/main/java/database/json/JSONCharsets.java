@@ -0,0 +1,67 @@
+package database.json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/***
+ * The charsets JSON database files are read with.
+ * Files are written as UTF-8. Files written by earlier versions are in the default charset of the platform which wrote
+ * them, which is UTF-8 on most platforms and windows-1252 on Windows. Files failing to decode as UTF-8 are therefore
+ * read as windows-1252, and written as UTF-8 by the next save.
+ */
+final class JSONCharsets {
+
+    // The charset files written before UTF-8 are read with.
+    static final Charset LEGACY = Charset.forName("windows-1252");
+
+    private JSONCharsets() {
+    }
+
+    /***
+     * Create a decoder reading UTF-8, which reports malformed input rather than replacing it.
+     * @return The decoder.
+     */
+    static CharsetDecoder utf8Decoder() {
+        return StandardCharsets.UTF_8.newDecoder();
+    }
+
+    /***
+     * Create a decoder reading the legacy charset, which replaces anything the charset does not map.
+     * @return The decoder.
+     */
+    static CharsetDecoder legacyDecoder() {
+        return LEGACY.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /***
+     * Decode the contents of a file as UTF-8, or in the legacy charset if they are not UTF-8.
+     * @param bytes The contents of the file.
+     * @return The decoded contents.
+     */
+    static String decode(byte[] bytes) {
+        try {
+            return utf8Decoder().decode(ByteBuffer.wrap(bytes)).toString();
+        } catch (CharacterCodingException e) {
+            return new String(bytes, LEGACY);
+        }
+    }
+
+    /***
+     * Check whether reading a file failed because it could not be decoded, which the JSON parser may report wrapped.
+     * @param e The exception reading the file failed with.
+     * @return True if the file could not be decoded, false otherwise.
+     */
+    static boolean isUndecodable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CharacterCodingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,607 @@
+package database.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import database.DatabaseFiles;
+import database.IDatabaseJournal;
+import model.*;
+import model.notes.NoteBook;
+import model.exceptions.NameNotAllowedException;
+import model.exceptions.NameNotAvailableException;
+import model.exceptions.TagNotFoundException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static database.DatabaseCaches.cacheOf;
+
+/***
+ * A concrete implementation of an IDatabaseJournal operating with the JSON lines file format.
+ * Every change is a journal record on a line of its own, holding the whole record of an added contact or event, the
+ * directory id of a removed one, or the new value of the one field of a contact or event which changed. Created,
+ * renamed and recoloured tags are journaled by name. A line cut short by a crash ends the replay of the journal.
+ */
+public class JSONDatabaseJournal implements IDatabaseJournal {
+
+    private final Gson gson = new Gson();
+    // The recorders of the recorded users.
+    private final Map<User, Recorder> recorders = new HashMap<>();
+
+    @Override
+    public void record(User user, Path journalFile) throws IOException {
+        if (recorders.containsKey(user)) {
+            throw new IllegalStateException("The user is already recorded");
+        }
+        Files.createDirectories(journalFile.getParent());
+        dropPartialLine(journalFile);
+        Recorder recorder = new Recorder(user, journalFile);
+        recorders.put(user, recorder);
+        recorder.start();
+    }
+
+    // Cut a journal file back to its last complete line, dropping a change a crash left half written, so that the
+    // changes appended after it are not lost on the broken line.
+    private static void dropPartialLine(Path journalFile) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            long end = channel.size();
+            while (end > 0) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new EOFException("The journal file was cut short while reading it");
+                    }
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        channel.truncate(start + i + 1);
+                        return;
+                    }
+                }
+                end = start;
+            }
+            channel.truncate(0);
+        }
+    }
+
+    @Override
+    public void stop(User user) throws IOException {
+        Recorder recorder = recorders.remove(user);
+        if (recorder != null) {
+            recorder.close();
+        }
+    }
+
+    @Override
+    public int getEntryCount(User user) {
+        Recorder recorder = recorders.get(user);
+        return recorder == null ? 0 : recorder.entryCount;
+    }
+
+    @Override
+    public void clear(User user, Path journalFile) throws IOException {
+        Recorder recorder = recorders.get(user);
+        if (recorder != null) {
+            recorder.closeWriter();
+            recorder.entryCount = 0;
+        }
+        Files.deleteIfExists(journalFile);
+    }
+
+    /***
+     * Remove the oldest changes from a journal file, rewriting the file with the latest changes alone.
+     */
+    @Override
+    public void clear(User user, Path journalFile, int keptEntryCount) throws IOException {
+        Recorder recorder = recorders.get(user);
+        if (recorder == null || keptEntryCount <= 0) {
+            clear(user, journalFile);
+            return;
+        }
+        recorder.closeWriter();
+        if (Files.exists(journalFile)) {
+            List<String> lines = Files.readAllLines(journalFile, StandardCharsets.UTF_8);
+            if (lines.size() > keptEntryCount) {
+                List<String> kept = lines.subList(lines.size() - keptEntryCount, lines.size());
+                DatabaseFiles.writeAtomically(journalFile, channel -> {
+                    Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+                    for (String line : kept) {
+                        writer.write(line);
+                        writer.write(System.lineSeparator());
+                    }
+                    writer.flush();
+                });
+            }
+        }
+        recorder.entryCount = Math.min(recorder.entryCount, keptEntryCount);
+    }
+
+    /***
+     * Apply the changes of a journal file to a loaded user. Contacts and events keep their position when changed, and
+     * are added last when added.
+     * @param user The user loaded from the database file.
+     * @param journalFile The journal file to replay.
+     * @return The user with every change of the journal applied, or the given user if there is no journal file.
+     * @throws IOException If an IO error occurs while reading the journal file.
+     */
+    @Override
+    public User replay(User user, Path journalFile) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return user;
+        }
+        Replay replay = new Replay(user);
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JSONRecords.JournalRecord record;
+                try {
+                    record = gson.fromJson(line, JSONRecords.JournalRecord.class);
+                } catch (JsonParseException e) {
+                    // The last change was not completely written.
+                    break;
+                }
+                if (record != null) {
+                    replay.apply(record);
+                }
+            }
+        }
+        return replay.build();
+    }
+
+    // Create the tag records of the given tags.
+    private static List<JSONRecords.TagRecord> tagRecords(Collection<ITag> tags) {
+        List<JSONRecords.TagRecord> records = new ArrayList<>();
+        for (ITag tag : tags) {
+            JSONRecords.TagRecord record = new JSONRecords.TagRecord();
+            record.name = tag.getName();
+            record.color = tag.getColor();
+            records.add(record);
+        }
+        return records;
+    }
+
+    // Records the changes of a user by observing the changes of its contact list, event list and tag handler.
+    private class Recorder {
+        private final User user;
+        private final Path journalFile;
+        private final JSONDatabaseSaver.CacheVisitor visitor = new JSONDatabaseSaver.CacheVisitor();
+        private final IChangeObserver<Contact> contactsObserver = this::onContactChanges;
+        private final IChangeObserver<Event> eventsObserver = this::onEventChanges;
+        private final IChangeObserver<ITag> tagsObserver = this::onTagChanges;
+        // The name every tag was last journaled with, which a rename refers to the tag by.
+        private final Map<ITag, String> tagNames = new IdentityHashMap<>();
+        // The journal file writer, opened at the first change after the journal was cleared.
+        private BufferedWriter writer;
+        private int entryCount;
+
+        Recorder(User user, Path journalFile) {
+            this.user = user;
+            this.journalFile = journalFile;
+        }
+
+        void start() {
+            user.getTagHandler().getAllTags().forEach(tag -> tagNames.put(tag, tag.getName()));
+            user.getContacts().subscribeChanges(contactsObserver);
+            user.getEvents().subscribeChanges(eventsObserver);
+            user.getTagHandler().subscribeChanges(tagsObserver);
+        }
+
+        void close() throws IOException {
+            user.getContacts().unSubscribeChanges(contactsObserver);
+            user.getEvents().unSubscribeChanges(eventsObserver);
+            user.getTagHandler().unSubscribeChanges(tagsObserver);
+            tagNames.clear();
+            closeWriter();
+        }
+
+        void closeWriter() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+
+        // Journal the contacts added to or removed from the contact list, and the changed fields of its contacts.
+        private void onContactChanges(List<ChangeEvent<Contact>> changes) {
+            for (ChangeEvent<Contact> change : changes) {
+                Contact contact = change.getEntity();
+                switch (change.getType()) {
+                    case ADDED:
+                        append(putContact(contact));
+                        break;
+                    case REMOVED:
+                        append(record(JSONRecords.JournalRecord.Operation.REMOVE_CONTACT, contact.getDirectoryId()));
+                        break;
+                    default:
+                        append(setField(contact, (Contact.Field) change.getField()));
+                }
+            }
+        }
+
+        // Journal the events added to or removed from the event list, and the changed fields of its events.
+        private void onEventChanges(List<ChangeEvent<Event>> changes) {
+            for (ChangeEvent<Event> change : changes) {
+                Event event = change.getEntity();
+                switch (change.getType()) {
+                    case ADDED:
+                        append(putEvent(event));
+                        break;
+                    case REMOVED:
+                        append(record(JSONRecords.JournalRecord.Operation.REMOVE_EVENT, event.getDirectoryId()));
+                        break;
+                    default:
+                        append(setField(event, (Event.Field) change.getField()));
+                }
+            }
+        }
+
+        // Journal the created tags and the renamed and recoloured ones.
+        private void onTagChanges(List<ChangeEvent<ITag>> changes) {
+            for (ChangeEvent<ITag> change : changes) {
+                ITag tag = change.getEntity();
+                JSONRecords.JournalRecord record = new JSONRecords.JournalRecord();
+                if (change.getType() == ChangeEvent.Type.ADDED) {
+                    tagNames.put(tag, tag.getName());
+                    record.operation = JSONRecords.JournalRecord.Operation.PUT_TAG;
+                    record.id = tag.getName();
+                    record.tags = tagRecords(Collections.singletonList(tag));
+                } else if (change.isUpdateOf(Tag.Field.NAME)) {
+                    String previous = tagNames.put(tag, tag.getName());
+                    if (previous == null || previous.equals(tag.getName())) {
+                        continue;
+                    }
+                    record.operation = JSONRecords.JournalRecord.Operation.RENAME_TAG;
+                    record.id = previous;
+                    record.value = tag.getName();
+                } else {
+                    record.operation = JSONRecords.JournalRecord.Operation.SET_TAG_COLOR;
+                    record.id = tag.getName();
+                    record.value = tag.getColor();
+                }
+                append(record);
+            }
+        }
+
+        private JSONRecords.JournalRecord putContact(Contact contact) {
+            JSONRecords.JournalRecord record = record(JSONRecords.JournalRecord.Operation.PUT_CONTACT,
+                    contact.getDirectoryId());
+            record.contact = (JSONRecords.ContactRecord) contact.accept(visitor,
+                    new JSONDatabaseSaver.CacheVisitorState(null)).orElseThrow(IllegalStateException::new);
+            record.tags = tagRecords(contact.getTags());
+            return record;
+        }
+
+        private JSONRecords.JournalRecord putEvent(Event event) {
+            JSONRecords.JournalRecord record = record(JSONRecords.JournalRecord.Operation.PUT_EVENT,
+                    event.getDirectoryId());
+            record.event = (JSONRecords.EventRecord) event.accept(visitor,
+                    new JSONDatabaseSaver.CacheVisitorState(null)).orElseThrow(IllegalStateException::new);
+            // The contacts of the event are referred to by directory id rather than by index.
+            record.event.contacts = new ArrayList<>();
+            record.eventContacts = contactIds(event);
+            record.tags = tagRecords(event.getTag() == null
+                    ? Collections.emptyList() : Collections.singletonList(event.getTag()));
+            return record;
+        }
+
+        private JSONRecords.JournalRecord setField(Contact contact, Contact.Field field) {
+            JSONRecords.JournalRecord record = record(JSONRecords.JournalRecord.Operation.SET_CONTACT_FIELD,
+                    contact.getDirectoryId());
+            record.field = field.name();
+            switch (field) {
+                case NAME:
+                    record.value = contact.getName();
+                    break;
+                case PHONE_NUMBER:
+                    record.value = contact.getPhoneNumber();
+                    break;
+                case ADDRESS:
+                    record.value = contact.getAddress();
+                    break;
+                case TAGS:
+                    record.tags = tagRecords(contact.getTags());
+                    break;
+                default:
+                    record.notes = (JSONRecords.NotesRecord) cacheOf(contact, Contact.ContactCache.class).noteBook
+                            .accept(visitor, new JSONDatabaseSaver.CacheVisitorState(null))
+                            .orElseThrow(IllegalStateException::new);
+            }
+            return record;
+        }
+
+        private JSONRecords.JournalRecord setField(Event event, Event.Field field) {
+            JSONRecords.JournalRecord record = record(JSONRecords.JournalRecord.Operation.SET_EVENT_FIELD,
+                    event.getDirectoryId());
+            record.field = field.name();
+            switch (field) {
+                case NAME:
+                    record.value = event.getName();
+                    break;
+                case ADDRESS:
+                    record.value = event.getAddress();
+                    break;
+                case DESCRIPTION:
+                    record.value = event.getDescription();
+                    break;
+                case DATE_TIME:
+                    record.value = event.getDateTime() == null ? null : event.getDateTime().toString();
+                    break;
+                case TAG:
+                    record.tags = tagRecords(event.getTag() == null
+                            ? Collections.emptyList() : Collections.singletonList(event.getTag()));
+                    break;
+                default:
+                    record.eventContacts = contactIds(event);
+            }
+            return record;
+        }
+
+        private JSONRecords.JournalRecord record(JSONRecords.JournalRecord.Operation operation, UUID id) {
+            JSONRecords.JournalRecord record = new JSONRecords.JournalRecord();
+            record.operation = operation;
+            record.id = id.toString();
+            return record;
+        }
+
+        private List<String> contactIds(Event event) {
+            return event.getContacts().stream().map(c -> c.getDirectoryId().toString()).collect(Collectors.toList());
+        }
+
+        // Append a change to the journal file and flush it.
+        private void append(JSONRecords.JournalRecord record) {
+            try {
+                if (writer == null) {
+                    writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                gson.toJson(record, writer);
+                writer.newLine();
+                writer.flush();
+                entryCount++;
+            } catch (IOException e) {
+                // The change is still part of the next save.
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Applies journal records to a loaded user.
+    private static class Replay {
+        // The operations changing a tag, which refer to the tag by name rather than by directory id.
+        private static final Set<JSONRecords.JournalRecord.Operation> TAG_OPERATIONS = EnumSet.of(
+                JSONRecords.JournalRecord.Operation.PUT_TAG, JSONRecords.JournalRecord.Operation.RENAME_TAG,
+                JSONRecords.JournalRecord.Operation.SET_TAG_COLOR);
+        private final User user;
+        private final JSONDatabaseLoader.RecordVisitor visitor = new JSONDatabaseLoader.RecordVisitor();
+        private final JSONDatabaseLoader.RecordVisitorState env = new JSONDatabaseLoader.RecordVisitorState();
+        // The contacts of the contact list, in order.
+        private final Map<UUID, Contact> contacts = new LinkedHashMap<>();
+        // The latest version of every contact, including removed ones which may still be contacts of events.
+        private final Map<UUID, Contact> versions = new HashMap<>();
+        // The events of the event list, in order, along with the directory ids of their contacts.
+        private final Map<UUID, Event> events = new LinkedHashMap<>();
+        private final Map<Event, List<UUID>> eventContacts = new IdentityHashMap<>();
+
+        Replay(User user) {
+            this.user = user;
+            for (ITag tag : user.getTagHandler().getAllTags()) {
+                env.tags.put(tag.getName(), (Tag) tag);
+            }
+            for (Contact contact : user.getContacts().getList()) {
+                contacts.put(contact.getDirectoryId(), contact);
+                versions.put(contact.getDirectoryId(), contact);
+            }
+            for (Event event : user.getEvents().getList()) {
+                events.put(event.getDirectoryId(), event);
+                List<UUID> ids = new ArrayList<>();
+                for (Contact contact : event.getContacts()) {
+                    versions.putIfAbsent(contact.getDirectoryId(), contact);
+                    ids.add(contact.getDirectoryId());
+                }
+                eventContacts.put(event, ids);
+            }
+        }
+
+        void apply(JSONRecords.JournalRecord record) throws IOException {
+            if (TAG_OPERATIONS.contains(record.operation)) {
+                applyToTag(record);
+                return;
+            }
+            UUID id = UUID.fromString(record.id);
+            switch (record.operation) {
+                case PUT_CONTACT:
+                    createTags(record.tags);
+                    Contact contact = (Contact) record.contact.accept(visitor, env).orElseThrow(IllegalStateException::new);
+                    contacts.put(id, contact);
+                    versions.put(id, contact);
+                    break;
+                case REMOVE_CONTACT:
+                    contacts.remove(id);
+                    break;
+                case PUT_EVENT:
+                    createTags(record.tags);
+                    Event event = (Event) record.event.accept(visitor, env).orElseThrow(IllegalStateException::new);
+                    Event previous = events.put(id, event);
+                    if (previous != null) {
+                        eventContacts.remove(previous);
+                    }
+                    eventContacts.put(event, record.eventContacts.stream().map(UUID::fromString)
+                            .collect(Collectors.toList()));
+                    break;
+                case REMOVE_EVENT:
+                    Event removed = events.remove(id);
+                    if (removed != null) {
+                        eventContacts.remove(removed);
+                    }
+                    break;
+                case SET_CONTACT_FIELD:
+                    setContactField(id, record);
+                    break;
+                case SET_EVENT_FIELD:
+                    setEventField(id, record);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown journal operation " + record.operation);
+            }
+        }
+
+        // Replace a contact with a version with the changed field.
+        private void setContactField(UUID id, JSONRecords.JournalRecord record) throws IOException {
+            Contact previous = versions.get(id);
+            if (previous == null) {
+                return;
+            }
+            Contact.ContactCache cache = cacheOf(previous, Contact.ContactCache.class);
+            switch (field(Contact.Field.class, record.field)) {
+                case NAME:
+                    cache.name = record.value;
+                    break;
+                case PHONE_NUMBER:
+                    cache.phoneNumber = record.value;
+                    break;
+                case ADDRESS:
+                    cache.address = record.value;
+                    break;
+                case TAGS:
+                    createTags(record.tags);
+                    cache.tags = record.tags.stream().map(t -> (ITag) env.tags.get(t.name)).collect(Collectors.toList());
+                    break;
+                case NOTES:
+                    cache.noteBook = (NoteBook) record.notes.accept(visitor, env).orElseThrow(IllegalStateException::new);
+                    break;
+                default:
+                    return;
+            }
+            Contact contact = new Contact(cache);
+            versions.put(id, contact);
+            contacts.replace(id, contact);
+        }
+
+        // Replace an event with a version with the changed field.
+        private void setEventField(UUID id, JSONRecords.JournalRecord record) throws IOException {
+            Event previous = events.get(id);
+            if (previous == null) {
+                return;
+            }
+            Event.EventCache cache = cacheOf(previous, Event.EventCache.class);
+            List<UUID> ids = eventContacts.remove(previous);
+            switch (field(Event.Field.class, record.field)) {
+                case NAME:
+                    cache.name = record.value;
+                    break;
+                case ADDRESS:
+                    cache.address = record.value;
+                    break;
+                case DESCRIPTION:
+                    cache.description = record.value;
+                    break;
+                case DATE_TIME:
+                    cache.dateTime = record.value == null ? null : LocalDateTime.parse(record.value);
+                    break;
+                case TAG:
+                    createTags(record.tags);
+                    cache.tag = record.tags.isEmpty() ? null : env.tags.get(record.tags.get(0).name);
+                    break;
+                default:
+                    ids = record.eventContacts.stream().map(UUID::fromString).collect(Collectors.toList());
+            }
+            Event event = new Event(cache);
+            events.put(id, event);
+            eventContacts.put(event, ids);
+        }
+
+        // Create, rename or recolour a tag of the tag handler.
+        private void applyToTag(JSONRecords.JournalRecord record) throws IOException {
+            switch (record.operation) {
+                case PUT_TAG:
+                    createTags(record.tags);
+                    return;
+                case RENAME_TAG:
+                    Tag renamed = env.tags.remove(record.id);
+                    if (renamed == null) {
+                        return;
+                    }
+                    try {
+                        user.getTagHandler().rename(renamed, record.value);
+                    } catch (NameNotAvailableException | TagNotFoundException e) {
+                        throw new IOException("The journal renames a tag to an unavailable name", e);
+                    }
+                    env.tags.put(record.value, renamed);
+                    return;
+                case SET_TAG_COLOR:
+                    Tag recoloured = env.tags.get(record.id);
+                    if (recoloured == null) {
+                        return;
+                    }
+                    try {
+                        user.getTagHandler().setColor(recoloured, record.value);
+                    } catch (TagNotFoundException e) {
+                        throw new IOException("The journal recolours a missing tag", e);
+                    }
+                    return;
+                default:
+                    throw new IllegalStateException("Unknown journal operation " + record.operation);
+            }
+        }
+
+        private static <F extends Enum<F>> F field(Class<F> type, String name) throws IOException {
+            try {
+                return Enum.valueOf(type, name);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IOException("The journal changes an unknown field " + name, e);
+            }
+        }
+
+        // Create the tags which were created after the last save.
+        private void createTags(List<JSONRecords.TagRecord> tags) throws IOException {
+            for (JSONRecords.TagRecord tag : tags) {
+                if (env.tags.containsKey(tag.name)) {
+                    continue;
+                }
+                try {
+                    user.getTagHandler().createTag(tag.name, tag.color);
+                    env.tags.put(tag.name, (Tag) user.getTagHandler().getTag(tag.name));
+                } catch (NameNotAllowedException | TagNotFoundException e) {
+                    throw new IOException("The journal contains an invalid tag", e);
+                }
+            }
+        }
+
+        // Build the user from the replayed contacts and events, pointing every event to the latest contact versions.
+        User build() {
+            for (Event event : events.values()) {
+                event.setContacts(eventContacts.get(event).stream().map(versions::get).filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+            }
+            // The loaded user is discarded, so its lists let go of the contacts and events handed to the replayed one.
+            user.getContacts().release();
+            user.getEvents().release();
+            User.UserCache cache = new User.UserCache();
+            cache.name = user.getName();
+            cache.uuid = user.getId();
+            // The replayed user gets a handler of its own, holding the replayed tags.
+            cache.tagHandler = new TagHandler(cacheOf(user.getTagHandler(), TagHandler.TagHandlerCache.class));
+            cache.contacts = new ArrayList<>(contacts.values());
+            cache.events = new ArrayList<>(events.values());
+            return new User(cache);
+        }
+    }
+
+}
@@ -1,17 +1,25 @@
 package database.json;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import database.IDatabaseLoader;
+import database.block.BlockFormat;
+import database.block.CorruptBlockException;
 import model.*;
 import model.notes.Note;
 import model.notes.NoteBook;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.io.InputStreamReader;
+import java.nio.charset.CharsetDecoder;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /***
@@ -19,35 +27,220 @@ import java.util.stream.Collectors;
  */
 public class JSONDatabaseLoader implements IDatabaseLoader {
 
+    // The number of contact or event records decoded by a task of their own.
+    private static final int BATCH_SIZE = 1024;
+
     /***
      * Load a user from the database file.
+     * The file is read as UTF-8 and parsed as a stream, decompressing it first if it is a compressed container. Contact and event records are decoded into the model in
+     * batches on the common fork/join pool while the file is being parsed, contacts once the tags are known and events
+     * once every contact has been decoded, as events refer to contacts by index. A file which is not UTF-8 was written
+     * by an earlier version, and is read again in the legacy charset.
      * @return The loaded user.
      */
     @Override
     public User load(Path databaseFile) throws IOException {
-        List<String> lines = Files.readAllLines(databaseFile, StandardCharsets.ISO_8859_1);
-        JSONRecords.UserRecord record = new Gson().fromJson(String.join("\n", lines), JSONRecords.UserRecord.class);
-        RecordVisitorState env = new RecordVisitorState();
-        return (User) record.accept(new RecordVisitor(), env).orElseThrow(IllegalStateException::new);
+        try {
+            return load(databaseFile, JSONCharsets.utf8Decoder());
+        } catch (IOException | JsonParseException e) {
+            if (!JSONCharsets.isUndecodable(e)) {
+                throw e;
+            }
+            return load(databaseFile, JSONCharsets.legacyDecoder());
+        }
+    }
+
+    private User load(Path databaseFile, CharsetDecoder decoder) throws IOException {
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(
+                BlockFormat.open(databaseFile), decoder)))) {
+            return new UserReader(reader).read();
+        } catch (JsonParseException e) {
+            // Gson reports a corrupt block of a compressed container while reading a record as a syntax error.
+            if (e.getCause() instanceof CorruptBlockException) {
+                throw (CorruptBlockException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Reads a user record field by field and returns the reinstated user model.
+    private static class UserReader {
+        private final JsonReader reader;
+        private final Gson gson = new Gson();
+        private final RecordVisitor visitor = new RecordVisitor();
+        private final RecordVisitorState env = new RecordVisitorState();
+        private final User.UserCache cache = new User.UserCache();
+        private final List<Integer> contactIndices = new ArrayList<>();
+        private final BatchDecoder<Contact> contacts = new BatchDecoder<>(visitor, env, Contact.class);
+        private final BatchDecoder<Event> events = new BatchDecoder<>(visitor, env, Event.class);
+        private boolean contactsRead = false;
+        private boolean contactsDecoded = false;
+
+        UserReader(JsonReader reader) {
+            this.reader = reader;
+        }
+
+        User read() throws IOException {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name":
+                        cache.name = nextStringOrNull(reader);
+                        break;
+                    case "tags":
+                        JSONRecords.TagHandlerRecord tags = gson.fromJson(reader, JSONRecords.TagHandlerRecord.class);
+                        cache.tagHandler = reinstate(tags, visitor, env, TagHandler.class);
+                        // Older files write the tags last, after every contact and event.
+                        contacts.start();
+                        if (contactsRead) {
+                            finishContacts();
+                        }
+                        break;
+                    case "contacts":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            contactIndices.add(reader.nextInt());
+                        }
+                        reader.endArray();
+                        break;
+                    case "contactObjects":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            contacts.add(gson.fromJson(reader, JSONRecords.ContactRecord.class));
+                        }
+                        reader.endArray();
+                        contactsRead = true;
+                        if (cache.tagHandler != null) {
+                            finishContacts();
+                        }
+                        break;
+                    case "events":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            events.add(gson.fromJson(reader, JSONRecords.EventRecord.class));
+                        }
+                        reader.endArray();
+                        break;
+                    case "uuid":
+                        cache.uuid = UUID.fromString(reader.nextString());
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (cache.tagHandler == null) {
+                throw new JsonParseException("The user record has no tags");
+            }
+            if (!contactsDecoded) {
+                finishContacts();
+            }
+            cache.events = events.finish();
+            cache.contacts = contactIndices.stream().map(i -> env.contacts.get(i)).collect(Collectors.toList());
+            return new User(cache);
+        }
+
+        // Wait for every contact to be decoded, so that the events referring to them can be decoded.
+        private void finishContacts() {
+            env.contacts.addAll(contacts.finish());
+            contactsDecoded = true;
+            events.start();
+        }
+    }
+
+    // Decodes records into model objects in batches on the common fork/join pool, while the reader goes on parsing.
+    // Records are held back until the decoder is started, as decoding them may depend on records read later.
+    private static class BatchDecoder<T extends ICacheVisitable> {
+        private final RecordVisitor visitor;
+        private final RecordVisitorState env;
+        private final Class<T> type;
+        private final List<CompletableFuture<List<T>>> batches = new ArrayList<>();
+        private List<JSONRecords.IRecordVisitable> batch = new ArrayList<>();
+        private boolean started = false;
+
+        BatchDecoder(RecordVisitor visitor, RecordVisitorState env, Class<T> type) {
+            this.visitor = visitor;
+            this.env = env;
+            this.type = type;
+        }
+
+        void add(JSONRecords.IRecordVisitable record) {
+            batch.add(record);
+            if (started && batch.size() >= BATCH_SIZE) {
+                submit(batch);
+                batch = new ArrayList<>();
+            }
+        }
+
+        void start() {
+            if (!started) {
+                started = true;
+                for (int i = 0; i < batch.size(); i += BATCH_SIZE) {
+                    submit(batch.subList(i, Math.min(i + BATCH_SIZE, batch.size())));
+                }
+                batch = new ArrayList<>();
+            }
+        }
+
+        // Wait for every record to be decoded and return the model objects in the order of their records.
+        List<T> finish() {
+            start();
+            submit(batch);
+            batch = new ArrayList<>();
+            List<T> decoded = new ArrayList<>();
+            try {
+                batches.forEach(b -> decoded.addAll(b.join()));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            batches.clear();
+            return decoded;
+        }
+
+        private void submit(List<JSONRecords.IRecordVisitable> records) {
+            if (!records.isEmpty()) {
+                batches.add(CompletableFuture.supplyAsync(() -> records.stream()
+                        .map(r -> reinstate(r, visitor, env, type)).collect(Collectors.toList())));
+            }
+        }
+    }
+
+    // Visit a record and return the reinstated model object.
+    private static <T extends ICacheVisitable> T reinstate(JSONRecords.IRecordVisitable record, RecordVisitor visitor,
+                                                           RecordVisitorState env, Class<T> type) {
+        return type.cast(record.accept(visitor, env).orElseThrow(IllegalStateException::new));
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
     }
 
     // The environment of the record visitor.
-    static private class RecordVisitorState {
+    static class RecordVisitorState {
         List<Contact> contacts = new ArrayList<>();
         Map<String, Tag> tags = new HashMap<>();
     }
 
     // The record visitor visits all the JSON records and returns the reinstated user model.
-    static private class RecordVisitor implements JSONRecords.IRecordVisitor<RecordVisitorState, ICacheVisitable> {
-        // Visit a user record from the json file.
+    static class RecordVisitor implements JSONRecords.IRecordVisitor<RecordVisitorState, ICacheVisitable> {
+        // Visit a user record from the json file. The tags are reinstated first, then the contacts in parallel and
+        // then the events in parallel, which only read the tags and contacts of the environment.
         @Override
         public Optional<ICacheVisitable> visit(JSONRecords.UserRecord user, RecordVisitorState env) {
             User.UserCache cache = new User.UserCache();
             cache.tagHandler = (TagHandler) user.tags.accept(this, env).orElseThrow(IllegalStateException::new);
-            user.contactObjects.forEach(c -> env.contacts.add((Contact) c.accept(this, env).orElseThrow(IllegalStateException::new)));
+            env.contacts.addAll(user.contactObjects.parallelStream().map(c -> (Contact) c.accept(this, env).orElseThrow(IllegalStateException::new)).collect(Collectors.toList()));
             cache.name = user.name;
             cache.contacts = user.contacts.stream().map(i -> env.contacts.get(i)).collect(Collectors.toList());
-            cache.events = user.events.stream().map(e -> (Event) e.accept(this, env).orElseThrow(IllegalStateException::new)).collect(Collectors.toList());
+            cache.events = user.events.parallelStream().map(e -> (Event) e.accept(this, env).orElseThrow(IllegalStateException::new)).collect(Collectors.toList());
             cache.uuid = UUID.fromString(user.uuid);
             return Optional.of(new User(cache));
         }
@@ -59,8 +252,6 @@ public class JSONDatabaseLoader implements IDatabaseLoader {
             cache.name = contact.name;
             cache.phoneNumber = contact.phoneNumber;
             cache.address = contact.address;
-            cache.tags = new ArrayList<>();
-            cache.noteBook = (NoteBook) contact.notes.accept(this, env).orElseThrow(IllegalStateException::new);
             cache.tags = contact.tags.stream().map(t -> env.tags.get(t)).collect(Collectors.toList());
             cache.noteBook = (NoteBook) contact.notes.accept(this, env).orElseThrow(IllegalStateException::new);
             cache.directoryId = UUID.fromString(contact.directoryId);
@@ -1,80 +1,154 @@
 package database.json;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import database.DatabaseFiles;
 import database.IDatabaseSaver;
+import database.block.BlockOutputStream;
 import model.*;
 import model.notes.Note;
 import model.notes.NoteBook;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static database.DatabaseCaches.notesOf;
+
 /***
  * A concrete implementation of a DatabaseSaver operating with the JSON file formats.
  */
 public class JSONDatabaseSaver implements IDatabaseSaver {
 
+    // Whether files are wrapped in a compressed container, see BlockFormat.
+    private final boolean compressed;
+
+    /***
+     * Create a JSON database saver writing plain JSON files.
+     */
+    public JSONDatabaseSaver() {
+        this(false);
+    }
+
+    /***
+     * Create a JSON database saver.
+     * @param compressed Whether files are wrapped in a compressed container with checksummed blocks.
+     */
+    public JSONDatabaseSaver(boolean compressed) {
+        this.compressed = compressed;
+    }
+
     /***
-     * Save a user to a database file.
+     * Save a user to a database file, encoded as UTF-8.
+     * The records are streamed one at a time into a temporary file next to the database file, which is synced to
+     * disk and then moved over the database file, so a failed save never leaves a truncated database behind.
      * @param user The user to save.
      * @throws IOException If there was a problem writing to the database file.
      */
     @Override
     public void save(User user, Path databaseFile) throws IOException {
-        CacheVisitorState state = new CacheVisitorState();
-
-        user.accept(new CacheVisitor(), state).orElseThrow(IllegalStateException::new);
-        Files.createDirectories(databaseFile.getParent());
-        if (!Files.exists(databaseFile)) {
-            Files.createFile(databaseFile);
-        }
-        Files.write(databaseFile, new Gson().toJson(state.user).getBytes(), StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        DatabaseFiles.writeAtomically(databaseFile, channel -> {
+            BlockOutputStream blocks = compressed ? new BlockOutputStream(Channels.newOutputStream(channel)) : null;
+            JsonWriter writer = new JsonWriter(new BufferedWriter(blocks != null
+                    ? new OutputStreamWriter(blocks, StandardCharsets.UTF_8.newEncoder())
+                    : Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1)));
+            try {
+                user.accept(new CacheVisitor(), new CacheVisitorState(writer));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+            if (blocks != null) {
+                blocks.finish();
+            }
+        });
     }
 
     // The environment of the cache visitor.
-    static private class CacheVisitorState {
+    static class CacheVisitorState {
+        // The writer the user is streamed to.
+        final JsonWriter writer;
+        final Gson gson = new Gson();
         // The indices of contact records in the prm model.
-        Map<Contact, Integer> contactIndices = new HashMap<>();
-        // The final prm record to serialize.
-        JSONRecords.UserRecord user = new JSONRecords.UserRecord();
+        final Map<Contact, Integer> contactIndices = new HashMap<>();
+        // The contacts to write records of, positioned by index.
+        final List<Contact> contacts = new ArrayList<>();
+
+        CacheVisitorState(JsonWriter writer) {
+            this.writer = writer;
+        }
     }
 
-    // The cache visitor visits the entire cache hierarchy of the model and returns a serializable JSON record.
-    static private class CacheVisitor implements ICacheVisitor<CacheVisitorState, JSONRecords.IRecordVisitable> {
-        // Create a contact JSON record and return its index. If the record already exists, just return its index.
-        private int createContact(Contact contact, CacheVisitorState env) {
-            if (!env.contactIndices.containsKey(contact)) {
-                JSONRecords.ContactRecord result = (JSONRecords.ContactRecord) contact.accept(this, env).orElseThrow(IllegalStateException::new);
-                env.contactIndices.put(contact, env.user.contactObjects.size());
-                env.user.contactObjects.add(result);
+    // The cache visitor visits the entire cache hierarchy of the model. The user is streamed to the writer of the
+    // environment, while every other case returns a serializable JSON record.
+    static class CacheVisitor implements ICacheVisitor<CacheVisitorState, JSONRecords.IRecordVisitable> {
+        // Give a contact the next index. If the contact already has an index, just return it.
+        private int indexContact(Contact contact, CacheVisitorState env) {
+            Integer index = env.contactIndices.get(contact);
+            if (index == null) {
+                index = env.contacts.size();
+                env.contactIndices.put(contact, index);
+                env.contacts.add(contact);
             }
+            return index;
+        }
 
-            return env.contactIndices.get(contact);
+        // Create a JSON record and write it to the writer of the environment.
+        private <R extends JSONRecords.IRecordVisitable> void write(ICacheVisitable visitable, Class<R> type,
+                                                                   CacheVisitorState env) {
+            R record = type.cast(visitable.accept(this, env).orElseThrow(IllegalStateException::new));
+            env.gson.toJson(record, type, env.writer);
         }
 
-        // Visit user cache and return a JSON record of it.
+        // Visit user cache and stream it to the writer in the order of the fields of the user record.
         @Override
         public Optional<JSONRecords.IRecordVisitable> visit(User.UserCache user, CacheVisitorState env) {
-            JSONRecords.UserRecord record = new JSONRecords.UserRecord();
-            env.user = record;
-            record.name = user.name;
-            record.tags = (JSONRecords.TagHandlerRecord) user.tagHandler.accept(this, env).orElseThrow(IllegalStateException::new);
-            record.uuid = user.uuid.toString();
-            // Add contact indices to user record.
+            // Index every contact first, as the indices of the user contacts are written before the contact records.
+            List<Integer> userContacts = new ArrayList<>();
             for (Contact contact : user.contacts) {
-                record.contacts.add(createContact(contact, env));
+                userContacts.add(indexContact(contact, env));
             }
-            // Add events to user record.
             for (Event event : user.events) {
-                record.events.add((JSONRecords.EventRecord) event.accept(this, env).orElseThrow(IllegalStateException::new));
+                event.getContacts().forEach(c -> indexContact(c, env));
             }
-            return Optional.of(record);
+
+            try {
+                JsonWriter writer = env.writer;
+                writer.beginObject();
+                writer.name("name").value(user.name);
+                writer.name("tags");
+                write(user.tagHandler, JSONRecords.TagHandlerRecord.class, env);
+                writer.name("contacts").beginArray();
+                for (int index : userContacts) {
+                    writer.value(index);
+                }
+                writer.endArray();
+                writer.name("contactObjects").beginArray();
+                for (Contact contact : env.contacts) {
+                    write(contact, JSONRecords.ContactRecord.class, env);
+                }
+                writer.endArray();
+                writer.name("events").beginArray();
+                for (Event event : user.events) {
+                    write(event, JSONRecords.EventRecord.class, env);
+                }
+                writer.endArray();
+                writer.name("uuid").value(user.uuid.toString());
+                writer.endObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return Optional.empty();
         }
 
         // Visit contact cache and return a JSON record of it.
@@ -102,7 +176,7 @@ public class JSONDatabaseSaver implements IDatabaseSaver {
             record.directoryId = event.directoryId.toString();
             // Add contact indices to event record.
             for (Contact contact : event.contacts) {
-                record.contacts.add(createContact(contact, env));
+                record.contacts.add(indexContact(contact, env));
             }
             return Optional.of(record);
         }
@@ -111,7 +185,7 @@ public class JSONDatabaseSaver implements IDatabaseSaver {
         @Override
         public Optional<JSONRecords.IRecordVisitable> visit(NoteBook.NotesCache cache, CacheVisitorState env) {
             JSONRecords.NotesRecord record = new JSONRecords.NotesRecord();
-            record.elements = cache.elements.stream().map(
+            record.elements = notesOf(cache).stream().map(
                             n -> (JSONRecords.NoteRecord) n.accept(this, env).orElseThrow(IllegalStateException::new))
                     .collect(Collectors.toList());
             return Optional.of(record);
@@ -1,50 +1,107 @@
 package database.json;
 
 import com.google.gson.Gson;
+import database.DatabaseFiles;
 import database.IDatabaseTracker;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
 /***
  * A concrete implementation of the IDatabaseTracker interface operating with the JSON file format.
+ * The tracker keeps the last read or written tracker file in memory, and only reads the file again once its
+ * modification time or size has changed, so that looking up the names of all users reads the file once.
  */
 public class JSONDatabaseTracker implements IDatabaseTracker {
 
     private JSONRecords.TrackerRecord record = new JSONRecords.TrackerRecord();
+    // The tracker file the record is a copy of, null if no file has been read yet.
+    private Path recordFile = null;
+    // The modification time and size of the tracker file when the record was read or written, null if it was missing.
+    private FileTime recordModified = null;
+    private long recordSize = -1;
 
     private void save(Path databaseTrackerFile) throws IOException {
-        if (!Files.exists(databaseTrackerFile)) {
-            Files.createDirectories(databaseTrackerFile.getParent());
-            Files.createFile(databaseTrackerFile);
+        String json = new Gson().toJson(record);
+        try {
+            DatabaseFiles.writeAtomically(databaseTrackerFile, channel -> {
+                Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+                writer.write(json);
+                writer.flush();
+            });
+        } catch (IOException e) {
+            // The record no longer matches the file, so it is read again.
+            recordFile = null;
+            throw e;
         }
-
-        Files.write(databaseTrackerFile, new Gson().toJson(record).getBytes(), StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        stamp(databaseTrackerFile);
     }
 
     private void load(Path databaseTrackerFile) throws IOException {
+        if (isCurrent(databaseTrackerFile)) {
+            return;
+        }
         if (Files.exists(databaseTrackerFile)) {
-            record = new Gson().fromJson(String.join("\n", Files.readAllLines(databaseTrackerFile)), JSONRecords.TrackerRecord.class);
+            // Tracker files written by earlier versions are in the legacy charset.
+            String json = JSONCharsets.decode(Files.readAllBytes(databaseTrackerFile));
+            record = new Gson().fromJson(json, JSONRecords.TrackerRecord.class);
         } else {
             record = new JSONRecords.TrackerRecord();
         }
+        stamp(databaseTrackerFile);
+    }
+
+    // Check whether the record is a copy of the tracker file as it is now.
+    private boolean isCurrent(Path databaseTrackerFile) throws IOException {
+        if (!databaseTrackerFile.equals(recordFile)) {
+            return false;
+        }
+        if (!Files.exists(databaseTrackerFile)) {
+            return recordModified == null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(databaseTrackerFile, BasicFileAttributes.class);
+        return attributes.lastModifiedTime().equals(recordModified) && attributes.size() == recordSize;
     }
 
+    // Remember the modification time and size of the tracker file the record is a copy of.
+    private void stamp(Path databaseTrackerFile) throws IOException {
+        recordFile = databaseTrackerFile;
+        if (Files.exists(databaseTrackerFile)) {
+            BasicFileAttributes attributes = Files.readAttributes(databaseTrackerFile, BasicFileAttributes.class);
+            recordModified = attributes.lastModifiedTime();
+            recordSize = attributes.size();
+        } else {
+            recordModified = null;
+            recordSize = -1;
+        }
+    }
+
+    /***
+     * Add a user to the database tracker file.
+     * The file is only written if the user is new or has changed name.
+     */
     @Override
-    public void addUser(UUID id, String name, Path databaseTrackerFile) throws IOException {
+    public synchronized void addUser(UUID id, String name, Path databaseTrackerFile) throws IOException {
         load(databaseTrackerFile);
 
-        record.users.put(id, name);
-
-        save(databaseTrackerFile);
+        if (!Objects.equals(record.users.put(id, name), name)) {
+            save(databaseTrackerFile);
+        }
     }
 
     @Override
-    public boolean removeUser(UUID id, Path databaseTrackerFile) throws IOException {
+    public synchronized boolean removeUser(UUID id, Path databaseTrackerFile) throws IOException {
         load(databaseTrackerFile);
 
         if (record.users.containsKey(id)) {
@@ -58,14 +115,14 @@ public class JSONDatabaseTracker implements IDatabaseTracker {
     }
 
     @Override
-    public Set<UUID> getUsers(Path databaseTrackerFile) throws IOException {
+    public synchronized Set<UUID> getUsers(Path databaseTrackerFile) throws IOException {
         load(databaseTrackerFile);
 
-        return record.users.keySet();
+        return Collections.unmodifiableSet(new HashSet<>(record.users.keySet()));
     }
 
     @Override
-    public String getUsername(UUID uuid, Path databaseTrackerFile) throws IOException {
+    public synchronized String getUsername(UUID uuid, Path databaseTrackerFile) throws IOException {
         load(databaseTrackerFile);
 
         return record.users.get(uuid);
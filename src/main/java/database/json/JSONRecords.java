@@ -114,12 +114,14 @@ public class JSONRecords {
 
     // User JSON record.
     @SuppressWarnings({"MismatchedQueryAndUpdateOfCollection", "unused"})
+    // The tags are declared first so that they are written before, and can be resolved while reading, the contacts
+    // and events referring to them.
     static class UserRecord implements JSONRecords.IRecordVisitable {
         String name;
+        TagHandlerRecord tags;
         List<Integer> contacts = new ArrayList<>();
         List<ContactRecord> contactObjects = new ArrayList<>();
         List<EventRecord> events = new ArrayList<>();
-        TagHandlerRecord tags;
         String uuid;
 
         @Override
@@ -128,6 +130,31 @@ public class JSONRecords {
         }
     }
 
+    // Journal entry JSON record, written as one line per change to a user.
+    static class JournalRecord {
+        // The kind of change.
+        enum Operation {
+            PUT_CONTACT, REMOVE_CONTACT, PUT_EVENT, REMOVE_EVENT, SET_CONTACT_FIELD, SET_EVENT_FIELD, PUT_TAG,
+            RENAME_TAG, SET_TAG_COLOR
+        }
+
+        Operation operation;
+        // The directory id of the added, changed or removed contact or event, or the name of the changed tag.
+        String id;
+        ContactRecord contact;
+        EventRecord event;
+        // The changed field of the contact or event.
+        String field;
+        // The new value of a changed text or time field, or the new name or color of the tag.
+        String value;
+        // The new notes of the contact.
+        NotesRecord notes;
+        // The directory ids of the contacts of the event.
+        List<String> eventContacts;
+        // The tags of the contact or event, or the created tag.
+        List<TagRecord> tags;
+    }
+
     static class TrackerRecord {
         Map<UUID, String> users = new HashMap<>();
     }
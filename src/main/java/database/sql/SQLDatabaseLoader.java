@@ -0,0 +1,182 @@
+package database.sql;
+
+import database.IDatabaseLoader;
+import database.IDatabaseQueries;
+import database.binary.BinaryDatabaseLoader;
+import model.*;
+import model.notes.Note;
+import model.notes.NoteBook;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/***
+ * A concrete implementation of an IDatabaseLoader operating with the embedded SQLite database format, see
+ * {@link SQLSchema}.
+ * Files in any other format are handed to a fallback loader, so that users saved in the binary or JSON format can
+ * still be loaded and are converted by their next save.
+ */
+public class SQLDatabaseLoader implements IDatabaseLoader {
+
+    // The loader of files which are not SQLite database files.
+    private final IDatabaseLoader fallback;
+
+    /***
+     * Create an SQL database loader falling back to the binary and JSON formats.
+     */
+    public SQLDatabaseLoader() {
+        this(new BinaryDatabaseLoader());
+    }
+
+    /***
+     * Create an SQL database loader.
+     * @param fallback The loader of files which are not SQLite database files.
+     */
+    public SQLDatabaseLoader(IDatabaseLoader fallback) {
+        this.fallback = fallback;
+    }
+
+    /***
+     * Load a user from the database file.
+     * @return The loaded user.
+     */
+    @Override
+    public User load(Path databaseFile) throws IOException {
+        if (!SQLSchema.isSQLite(databaseFile)) {
+            return fallback.load(databaseFile);
+        }
+        try (Connection connection = SQLSchema.connect(databaseFile);
+             Statement statement = connection.createStatement()) {
+            return new UserReader(statement).read();
+        } catch (SQLException e) {
+            throw new IOException("Could not load the user from " + databaseFile, e);
+        }
+    }
+
+    /***
+     * Open the queries of the database file, if it is an SQLite database file.
+     * @return The queries of the database file, or nothing if it is in another format.
+     */
+    @Override
+    public Optional<IDatabaseQueries> openQueries(Path databaseFile) throws IOException {
+        if (!SQLSchema.isSQLite(databaseFile)) {
+            return fallback.openQueries(databaseFile);
+        }
+        return Optional.of(new SQLDatabaseQueries(databaseFile));
+    }
+
+    // Reads a user from the tables, each table in a single query ordered by id and position.
+    private static class UserReader {
+        private final Statement statement;
+        private final Map<Integer, Tag> tags = new HashMap<>();
+        private final Map<Integer, Contact> contacts = new HashMap<>();
+
+        UserReader(Statement statement) {
+            this.statement = statement;
+        }
+
+        User read() throws SQLException, IOException {
+            User.UserCache user = new User.UserCache();
+            try (ResultSet rows = statement.executeQuery("SELECT uuid, name FROM user")) {
+                if (!rows.next()) {
+                    throw new IOException("The database file contains no user");
+                }
+                user.uuid = UUID.fromString(rows.getString(1));
+                user.name = rows.getString(2);
+            }
+
+            Map<String, Tag> tagsByKey = new HashMap<>();
+            try (ResultSet rows = statement.executeQuery("SELECT id, handler_key, name, color FROM tag ORDER BY id")) {
+                while (rows.next()) {
+                    Tag.TagCache cache = new Tag.TagCache();
+                    cache.name = rows.getString(3);
+                    cache.color = rows.getString(4);
+                    Tag tag = new Tag(cache);
+                    tags.put(rows.getInt(1), tag);
+                    String key = rows.getString(2);
+                    if (key != null) {
+                        tagsByKey.put(key, tag);
+                    }
+                }
+            }
+            TagHandler.TagHandlerCache tagHandler = new TagHandler.TagHandlerCache();
+            tagHandler.stringTagHashMap = tagsByKey;
+            user.tagHandler = new TagHandler(tagHandler);
+
+            Map<Integer, List<ITag>> contactTags = new HashMap<>();
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT contact_id, tag_id FROM contact_tag ORDER BY contact_id, position")) {
+                while (rows.next()) {
+                    contactTags.computeIfAbsent(rows.getInt(1), id -> new ArrayList<>()).add(tags.get(rows.getInt(2)));
+                }
+            }
+            Map<Integer, List<Note>> contactNotes = new HashMap<>();
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT contact_id, text, point_of_creation FROM note ORDER BY contact_id, position")) {
+                while (rows.next()) {
+                    Note.NoteCache note = new Note.NoteCache();
+                    note.text = rows.getString(2);
+                    note.pointOfCreation = SQLSchema.fromNanos(rows.getLong(3));
+                    contactNotes.computeIfAbsent(rows.getInt(1), id -> new ArrayList<>()).add(new Note(note));
+                }
+            }
+
+            SortedMap<Integer, Contact> userContacts = new TreeMap<>();
+            try (ResultSet rows = statement.executeQuery("SELECT id, directory_id, name, phone_number, address,"
+                    + " list_position FROM contact ORDER BY id")) {
+                while (rows.next()) {
+                    int id = rows.getInt(1);
+                    Contact.ContactCache cache = new Contact.ContactCache();
+                    cache.directoryId = UUID.fromString(rows.getString(2));
+                    cache.name = rows.getString(3);
+                    cache.phoneNumber = rows.getString(4);
+                    cache.address = rows.getString(5);
+                    cache.tags = contactTags.getOrDefault(id, new ArrayList<>());
+                    NoteBook.NotesCache noteBook = new NoteBook.NotesCache();
+                    noteBook.elements = contactNotes.getOrDefault(id, Collections.emptyList());
+                    cache.noteBook = new NoteBook(noteBook);
+                    Contact contact = new Contact(cache);
+                    contacts.put(id, contact);
+                    int listPosition = rows.getInt(6);
+                    if (!rows.wasNull()) {
+                        userContacts.put(listPosition, contact);
+                    }
+                }
+            }
+            user.contacts = new ArrayList<>(userContacts.values());
+
+            Map<Integer, List<Contact>> eventContacts = new HashMap<>();
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT event_id, contact_id FROM event_contact ORDER BY event_id, position")) {
+                while (rows.next()) {
+                    eventContacts.computeIfAbsent(rows.getInt(1), id -> new ArrayList<>())
+                            .add(contacts.get(rows.getInt(2)));
+                }
+            }
+            user.events = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("SELECT id, directory_id, name, address, description,"
+                    + " date_time, tag_id FROM event ORDER BY id")) {
+                while (rows.next()) {
+                    int id = rows.getInt(1);
+                    Event.EventCache cache = new Event.EventCache();
+                    cache.directoryId = UUID.fromString(rows.getString(2));
+                    cache.name = rows.getString(3);
+                    cache.address = rows.getString(4);
+                    cache.description = rows.getString(5);
+                    cache.dateTime = SQLSchema.fromNanos(rows.getLong(6));
+                    int tag = rows.getInt(7);
+                    cache.tag = rows.wasNull() ? null : tags.get(tag);
+                    cache.contacts = eventContacts.getOrDefault(id, new ArrayList<>());
+                    user.events.add(new Event(cache));
+                }
+            }
+            return new User(user);
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package database.sql;
+
+import database.IDatabaseQueries;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/***
+ * A concrete implementation of IDatabaseQueries answering queries from the indices of a user file in the embedded
+ * SQLite database format, see {@link SQLSchema}. The queries see the user as it was last saved.
+ */
+public class SQLDatabaseQueries implements IDatabaseQueries {
+
+    private final Connection connection;
+    private final PreparedStatement contactsEvents;
+    private final PreparedStatement eventsOfTag;
+    private final PreparedStatement eventsBetween;
+
+    /***
+     * Open the queries of a user file.
+     * @param databaseFile The user file saved by an {@link SQLDatabaseSaver}.
+     * @throws IOException If the file could not be opened as an SQLite database.
+     */
+    public SQLDatabaseQueries(Path databaseFile) throws IOException {
+        if (!SQLSchema.isSQLite(databaseFile)) {
+            throw new IOException(databaseFile + " is not an SQLite database file");
+        }
+        try {
+            connection = SQLSchema.connect(databaseFile);
+            contactsEvents = connection.prepareStatement("SELECT event.directory_id FROM contact"
+                    + " JOIN event_contact ON event_contact.contact_id = contact.id"
+                    + " JOIN event ON event.id = event_contact.event_id"
+                    + " WHERE contact.directory_id = ? ORDER BY event.date_time, event.id");
+            eventsOfTag = connection.prepareStatement("SELECT event.directory_id FROM tag"
+                    + " JOIN event ON event.tag_id = tag.id"
+                    + " WHERE tag.name = ? ORDER BY event.date_time, event.id");
+            eventsBetween = connection.prepareStatement("SELECT directory_id FROM event"
+                    + " WHERE date_time >= ? AND date_time < ? ORDER BY date_time, id");
+        } catch (SQLException e) {
+            close();
+            throw new IOException("Could not open the queries of " + databaseFile, e);
+        }
+    }
+
+    @Override
+    public List<UUID> getContactsEvents(UUID contactId) throws IOException {
+        try {
+            contactsEvents.setString(1, contactId.toString());
+            return eventIds(contactsEvents);
+        } catch (SQLException e) {
+            throw new IOException("Could not query the events of contact " + contactId, e);
+        }
+    }
+
+    @Override
+    public List<UUID> getEventsOfTag(String tagName) throws IOException {
+        try {
+            eventsOfTag.setString(1, tagName);
+            return eventIds(eventsOfTag);
+        } catch (SQLException e) {
+            throw new IOException("Could not query the events of tag " + tagName, e);
+        }
+    }
+
+    @Override
+    public List<UUID> getEventsBetween(LocalDateTime from, LocalDateTime to) throws IOException {
+        try {
+            eventsBetween.setLong(1, SQLSchema.toNanos(from));
+            eventsBetween.setLong(2, SQLSchema.toNanos(to));
+            return eventIds(eventsBetween);
+        } catch (SQLException e) {
+            throw new IOException("Could not query the events between " + from + " and " + to, e);
+        }
+    }
+
+    private static List<UUID> eventIds(PreparedStatement query) throws SQLException {
+        List<UUID> ids = new ArrayList<>();
+        try (ResultSet rows = query.executeQuery()) {
+            while (rows.next()) {
+                ids.add(UUID.fromString(rows.getString(1)));
+            }
+        }
+        return ids;
+    }
+
+    /***
+     * Close the connection to the user file.
+     * @throws IOException If the connection could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+}
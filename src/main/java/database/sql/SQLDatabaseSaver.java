@@ -0,0 +1,210 @@
+package database.sql;
+
+import database.DatabaseFiles;
+import database.IDatabaseSaver;
+import model.*;
+import model.notes.Note;
+import model.notes.NoteBook;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+
+import static database.DatabaseCaches.cacheOf;
+import static database.DatabaseCaches.notesOf;
+
+/***
+ * A concrete implementation of an IDatabaseSaver operating with the embedded SQLite database format, see
+ * {@link SQLSchema}.
+ */
+public class SQLDatabaseSaver implements IDatabaseSaver {
+
+    /***
+     * Save a user to a database file.
+     * The user is written to a new SQLite file in a single transaction, which is moved over the database file once
+     * complete.
+     * @param user The user to save.
+     * @throws IOException If there was a problem writing to the database file.
+     */
+    @Override
+    public void save(User user, Path databaseFile) throws IOException {
+        DatabaseFiles.buildAtomically(databaseFile, file -> write(user, file));
+    }
+
+    private void write(User user, Path databaseFile) throws IOException {
+        try (Connection connection = SQLSchema.connect(databaseFile)) {
+            connection.setAutoCommit(false);
+            try {
+                SQLSchema.create(connection);
+                new UserWriter(connection, cacheOf(user, User.UserCache.class)).write();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not save the user to " + databaseFile, e);
+        }
+    }
+
+    // Writes the caches of a user to the tables, numbering tags, contacts and events by position.
+    private static class UserWriter {
+        private final Connection connection;
+        private final User.UserCache user;
+        private final Map<ITag, Integer> tagIds = new IdentityHashMap<>();
+        private final Map<Contact, Integer> contactIds = new IdentityHashMap<>();
+        private final Map<Contact, Integer> listPositions = new IdentityHashMap<>();
+        private final List<Contact> contacts = new ArrayList<>();
+        private final List<Tag> tags = new ArrayList<>();
+        private final List<String> tagKeys = new ArrayList<>();
+
+        UserWriter(Connection connection, User.UserCache user) {
+            this.connection = connection;
+            this.user = user;
+        }
+
+        void write() throws SQLException {
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO user (uuid, name) VALUES (?, ?)")) {
+                insert.setString(1, user.uuid.toString());
+                insert.setString(2, user.name);
+                insert.executeUpdate();
+            }
+
+            TagHandler.TagHandlerCache tagHandler = cacheOf(user.tagHandler, TagHandler.TagHandlerCache.class);
+            tagHandler.stringTagHashMap.forEach((key, tag) -> indexTag(tag, key));
+            for (int i = 0; i < user.contacts.size(); i++) {
+                listPositions.putIfAbsent(user.contacts.get(i), i);
+                indexContact(user.contacts.get(i));
+            }
+            List<Event.EventCache> events = new ArrayList<>();
+            for (Event event : user.events) {
+                Event.EventCache cache = cacheOf(event, Event.EventCache.class);
+                events.add(cache);
+                cache.contacts.forEach(this::indexContact);
+                Optional.ofNullable(cache.tag).ifPresent(t -> indexTag(t, null));
+            }
+            List<Contact.ContactCache> contactCaches = new ArrayList<>();
+            for (Contact contact : contacts) {
+                Contact.ContactCache cache = cacheOf(contact, Contact.ContactCache.class);
+                cache.tags.forEach(t -> indexTag(t, null));
+                contactCaches.add(cache);
+            }
+
+            writeTags();
+            writeContacts(contactCaches);
+            writeEvents(events);
+        }
+
+        private void indexTag(ITag tag, String key) {
+            if (!tagIds.containsKey(tag)) {
+                tagIds.put(tag, tags.size());
+                tags.add((Tag) tag);
+                tagKeys.add(key);
+            }
+        }
+
+        private void indexContact(Contact contact) {
+            if (!contactIds.containsKey(contact)) {
+                contactIds.put(contact, contacts.size());
+                contacts.add(contact);
+            }
+        }
+
+        private void writeTags() throws SQLException {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO tag (id, handler_key, name, color) VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < tags.size(); i++) {
+                    Tag.TagCache tag = cacheOf(tags.get(i), Tag.TagCache.class);
+                    insert.setInt(1, i);
+                    insert.setString(2, tagKeys.get(i));
+                    insert.setString(3, tag.name);
+                    insert.setString(4, tag.color);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        private void writeContacts(List<Contact.ContactCache> caches) throws SQLException {
+            try (PreparedStatement insertContact = connection.prepareStatement("INSERT INTO contact"
+                    + " (id, directory_id, name, phone_number, address, list_position) VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement insertTag = connection.prepareStatement(
+                         "INSERT INTO contact_tag (contact_id, position, tag_id) VALUES (?, ?, ?)");
+                 PreparedStatement insertNote = connection.prepareStatement(
+                         "INSERT INTO note (contact_id, position, text, point_of_creation) VALUES (?, ?, ?, ?)")) {
+                for (int id = 0; id < caches.size(); id++) {
+                    Contact.ContactCache contact = caches.get(id);
+                    insertContact.setInt(1, id);
+                    insertContact.setString(2, contact.directoryId.toString());
+                    insertContact.setString(3, contact.name);
+                    insertContact.setString(4, contact.phoneNumber);
+                    insertContact.setString(5, contact.address);
+                    Integer listPosition = listPositions.get(contacts.get(id));
+                    if (listPosition == null) {
+                        insertContact.setNull(6, Types.INTEGER);
+                    } else {
+                        insertContact.setInt(6, listPosition);
+                    }
+                    insertContact.addBatch();
+
+                    for (int position = 0; position < contact.tags.size(); position++) {
+                        insertTag.setInt(1, id);
+                        insertTag.setInt(2, position);
+                        insertTag.setInt(3, tagIds.get(contact.tags.get(position)));
+                        insertTag.addBatch();
+                    }
+
+                    List<Note> notes = notesOf(cacheOf(contact.noteBook, NoteBook.NotesCache.class));
+                    for (int position = 0; position < notes.size(); position++) {
+                        Note.NoteCache note = cacheOf(notes.get(position), Note.NoteCache.class);
+                        insertNote.setInt(1, id);
+                        insertNote.setInt(2, position);
+                        insertNote.setString(3, note.text);
+                        insertNote.setLong(4, SQLSchema.toNanos(note.pointOfCreation));
+                        insertNote.addBatch();
+                    }
+                }
+                insertContact.executeBatch();
+                insertTag.executeBatch();
+                insertNote.executeBatch();
+            }
+        }
+
+        private void writeEvents(List<Event.EventCache> events) throws SQLException {
+            try (PreparedStatement insertEvent = connection.prepareStatement("INSERT INTO event"
+                    + " (id, directory_id, name, address, description, date_time, tag_id) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement insertContact = connection.prepareStatement(
+                         "INSERT INTO event_contact (event_id, position, contact_id) VALUES (?, ?, ?)")) {
+                for (int id = 0; id < events.size(); id++) {
+                    Event.EventCache event = events.get(id);
+                    insertEvent.setInt(1, id);
+                    insertEvent.setString(2, event.directoryId.toString());
+                    insertEvent.setString(3, event.name);
+                    insertEvent.setString(4, event.address);
+                    insertEvent.setString(5, event.description);
+                    insertEvent.setLong(6, SQLSchema.toNanos(event.dateTime));
+                    if (event.tag == null) {
+                        insertEvent.setNull(7, Types.INTEGER);
+                    } else {
+                        insertEvent.setInt(7, tagIds.get(event.tag));
+                    }
+                    insertEvent.addBatch();
+
+                    for (int position = 0; position < event.contacts.size(); position++) {
+                        insertContact.setInt(1, id);
+                        insertContact.setInt(2, position);
+                        insertContact.setInt(3, contactIds.get(event.contacts.get(position)));
+                        insertContact.addBatch();
+                    }
+                }
+                insertEvent.executeBatch();
+                insertContact.executeBatch();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package database.sql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/***
+ * The tables of the embedded SQLite database format, one file per user.
+ * <p>
+ * Contacts, events and tags are numbered by their position when saved and refer to each other by these numbers.
+ * Contacts of the user have a position in the contact list, while contacts only taking part in events have none.
+ * Times are nanoseconds since the epoch, reading the times as UTC, so that they are ordered as integers. Events are
+ * indexed by time, tag and contact, see {@link SQLDatabaseQueries}. The tags of contacts, the notes and the contacts of
+ * events are indexed by their owner and position, the order they are loaded in.
+ * </p>
+ */
+final class SQLSchema {
+
+    private static final String[] CREATE_STATEMENTS = {
+            "CREATE TABLE IF NOT EXISTS user (uuid TEXT NOT NULL, name TEXT)",
+            "CREATE TABLE IF NOT EXISTS tag (id INTEGER PRIMARY KEY, handler_key TEXT, name TEXT, color TEXT)",
+            "CREATE TABLE IF NOT EXISTS contact (id INTEGER PRIMARY KEY, directory_id TEXT NOT NULL, name TEXT,"
+                    + " phone_number TEXT, address TEXT, list_position INTEGER)",
+            "CREATE TABLE IF NOT EXISTS contact_tag (contact_id INTEGER NOT NULL, position INTEGER NOT NULL,"
+                    + " tag_id INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS note (contact_id INTEGER NOT NULL, position INTEGER NOT NULL, text TEXT,"
+                    + " point_of_creation INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS event (id INTEGER PRIMARY KEY, directory_id TEXT NOT NULL, name TEXT,"
+                    + " address TEXT, description TEXT, date_time INTEGER NOT NULL, tag_id INTEGER)",
+            "CREATE TABLE IF NOT EXISTS event_contact (event_id INTEGER NOT NULL, position INTEGER NOT NULL,"
+                    + " contact_id INTEGER NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS contact_directory_id ON contact (directory_id)",
+            "CREATE INDEX IF NOT EXISTS contact_tag_contact ON contact_tag (contact_id, position)",
+            "CREATE INDEX IF NOT EXISTS note_contact ON note (contact_id, position)",
+            "CREATE INDEX IF NOT EXISTS event_date_time ON event (date_time)",
+            "CREATE INDEX IF NOT EXISTS event_tag ON event (tag_id, date_time)",
+            "CREATE INDEX IF NOT EXISTS event_contact_event ON event_contact (event_id, position)",
+            "CREATE INDEX IF NOT EXISTS event_contact_contact ON event_contact (contact_id)",
+    };
+
+    // The first 16 bytes of an SQLite database file.
+    private static final byte[] HEADER = "SQLite format 3\0".getBytes(StandardCharsets.US_ASCII);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private SQLSchema() {
+    }
+
+    /***
+     * Open a connection to a user file.
+     * @param file The user file, created if missing.
+     * @return The connection.
+     * @throws SQLException If the file could not be opened as an SQLite database.
+     */
+    static Connection connect(Path file) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+    }
+
+    /***
+     * Create the tables and indices of a user file which are missing.
+     * @param connection The connection to the user file.
+     * @throws SQLException If a table or index could not be created.
+     */
+    static void create(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String create : CREATE_STATEMENTS) {
+                statement.executeUpdate(create);
+            }
+        }
+    }
+
+    /***
+     * Check whether a file is an SQLite database file.
+     * @param file The file to check.
+     * @return True if the file starts with the SQLite header, false otherwise.
+     * @throws IOException If an IO error occurs while reading the file.
+     */
+    static boolean isSQLite(Path file) throws IOException {
+        byte[] header = new byte[HEADER.length];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read = 0;
+            while (read < header.length) {
+                int count = in.read(header, read, header.length - read);
+                if (count < 0) {
+                    return false;
+                }
+                read += count;
+            }
+        }
+        return Arrays.equals(header, HEADER);
+    }
+
+    static long toNanos(LocalDateTime time) {
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), time.getNano());
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+
+}
@@ -0,0 +1,98 @@
+package model;
+
+import java.util.Objects;
+
+/***
+ * A change to an observed object, telling what happened to which entity.
+ * Lists report the entities added to and removed from them, and entities report which of their fields was updated.
+ * @param <T> the type of the changed entity
+ */
+public final class ChangeEvent<T> {
+
+    /***
+     * The kinds of change.
+     */
+    public enum Type {
+        ADDED, REMOVED, UPDATED
+    }
+
+    private final Type type;
+    private final T entity;
+    private final Enum<?> field;
+
+    private ChangeEvent(Type type, T entity, Enum<?> field) {
+        this.type = type;
+        this.entity = entity;
+        this.field = field;
+    }
+
+    /***
+     * Creates a change of an entity added to a list.
+     * @param entity the added entity
+     * @param <T> the type of the entity
+     * @return the change
+     */
+    public static <T> ChangeEvent<T> added(T entity) {
+        return new ChangeEvent<>(Type.ADDED, entity, null);
+    }
+
+    /***
+     * Creates a change of an entity removed from a list.
+     * @param entity the removed entity
+     * @param <T> the type of the entity
+     * @return the change
+     */
+    public static <T> ChangeEvent<T> removed(T entity) {
+        return new ChangeEvent<>(Type.REMOVED, entity, null);
+    }
+
+    /***
+     * Creates a change of a field of an entity.
+     * @param entity the updated entity
+     * @param field the updated field, such as {@link Event.Field#DATE_TIME}
+     * @param <T> the type of the entity
+     * @return the change
+     */
+    public static <T> ChangeEvent<T> updated(T entity, Enum<?> field) {
+        return new ChangeEvent<>(Type.UPDATED, entity, Objects.requireNonNull(field));
+    }
+
+    /***
+     * @return the kind of change
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /***
+     * @return the changed entity
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    /***
+     * @return the updated field of the entity, null unless the change is an update
+     */
+    public Enum<?> getField() {
+        return field;
+    }
+
+    /***
+     * Returns whether the change is an update of the given field.
+     * @param field the field
+     * @return true if the field of the entity was updated
+     */
+    public boolean isUpdateOf(Enum<?> field) {
+        return this.field == field;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "type=" + type +
+                ", entity=" + entity +
+                (field == null ? "" : ", field=" + field) +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/***
+ * Delivers the changes of an observable object to its change observers.
+ * Changes are delivered as they are made, unless a batch has been begun, in which case they are held back and
+ * delivered together when the outermost batch ends.
+ * @param <T> the type of the changed entities
+ */
+class ChangeNotifier<T> {
+
+    private final List<IChangeObserver<T>> observers = new ArrayList<>();
+    // The changes held back by the running batch.
+    private final List<ChangeEvent<T>> pending = new ArrayList<>();
+    // The number of batches begun but not yet ended.
+    private int batchDepth = 0;
+
+    void subscribe(IChangeObserver<T> observer) {
+        observers.add(observer);
+    }
+
+    void unSubscribe(IChangeObserver<T> observer) {
+        observers.remove(observer);
+    }
+
+    /***
+     * Delivers a change to the observers, or holds it back until the running batch ends.
+     * @param change the change
+     */
+    void fire(ChangeEvent<T> change) {
+        if (batchDepth > 0) {
+            pending.add(change);
+        } else if (!observers.isEmpty()) {
+            deliver(Collections.singletonList(change));
+        }
+    }
+
+    /***
+     * Holds back the changes from now until the matching call to {@link #endBatch()}.
+     */
+    void beginBatch() {
+        batchDepth++;
+    }
+
+    /***
+     * Ends a batch, delivering the held back changes together if it was the outermost one.
+     */
+    void endBatch() {
+        if (--batchDepth == 0 && !pending.isEmpty()) {
+            List<ChangeEvent<T>> changes = new ArrayList<>(pending);
+            pending.clear();
+            deliver(Collections.unmodifiableList(changes));
+        }
+    }
+
+    private void deliver(List<ChangeEvent<T>> changes) {
+        // Observers may unsubscribe while the changes are delivered.
+        for (IChangeObserver<T> observer : new ArrayList<>(observers)) {
+            observer.onChanges(changes);
+        }
+    }
+}
@@ -5,14 +5,39 @@ import model.exceptions.TagNotFoundException;
 import model.notes.IDocumentable;
 import model.notes.Note;
 import model.notes.NoteBook;
-import model.search.ISearchable;
+import model.search.IMultiFieldSearchable;
+import model.search.SearchField;
 
 import java.util.*;
 
 /***
  * Class representing a contact with a number of attributes like name, address etc.
  */
-public class Contact implements ICacheVisitable, ISearchable<String>, IObservable, IDocumentable {
+public class Contact implements ICacheVisitable, IMultiFieldSearchable, IObservable, IChangeObservable<Contact>, IDocumentable {
+
+    /**
+     * The fields of a contact reported by its changes.
+     */
+    public enum Field {
+        NAME, PHONE_NUMBER, ADDRESS, TAGS, NOTES
+    }
+
+    /**
+     * The phone number of a contact, matched by the digits it starts with.
+     */
+    public static final SearchField PHONE_FIELD = new SearchField("phone", 2, SearchField.Matching.DIGITS);
+    /**
+     * The address of a contact, matched by the words it contains.
+     */
+    public static final SearchField ADDRESS_FIELD = new SearchField("address", 1, SearchField.Matching.TOKENS);
+    /**
+     * The names of the tags of a contact.
+     */
+    public static final SearchField TAG_FIELD = new SearchField("tag", 1.5, SearchField.Matching.KEYWORD);
+    /**
+     * The text of the notes of a contact. Lazily loaded notes are searchable without being loaded.
+     */
+    public static final SearchField NOTE_FIELD = new SearchField("note", 0.5, SearchField.Matching.TEXT);
 
     private String name;
     private String phoneNumber = "";
@@ -20,6 +45,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
     private List<ITag> tags;
     private NoteBook noteBook;
     private List<IObserver> observers = new ArrayList<>();
+    private final ChangeNotifier<Contact> changes = new ChangeNotifier<>();
     private final UUID directoryId;
 
     /**
@@ -60,7 +86,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     public void setAddress(String address) {
         this.address = address;
-        notifyObservers();
+        changed(Field.ADDRESS);
     }
 
 
@@ -71,7 +97,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     public void setName(String name) {
         this.name = name;
-        notifyObservers();
+        changed(Field.NAME);
     }
 
     /**
@@ -81,7 +107,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     void setPhoneNumber(String number) {
         this.phoneNumber = number;
-        notifyObservers();
+        changed(Field.PHONE_NUMBER);
     }
 
 
@@ -92,6 +118,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     void addTag(ITag tag) {
         tags.add(tag);
+        changed(Field.TAGS);
     }
 
     /**
@@ -101,6 +128,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     public void addAllTags(List<ITag> tags) {
         this.tags.addAll(tags);
+        changed(Field.TAGS);
     }
 
     /**
@@ -114,7 +142,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
             throw new TagNotFoundException(tag.getName());
         }
         tags.remove(tag);
-        notifyObservers();
+        changed(Field.TAGS);
     }
 
     /**
@@ -131,6 +159,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     public void addNote(String text) {
         noteBook.addNote(text);
+        changed(Field.NOTES);
     }
 
     /**
@@ -139,6 +168,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
 
     public void addNote() {
         noteBook.addNote();
+        changed(Field.NOTES);
     }
 
     /**
@@ -148,7 +178,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     public void removeNote(int index) {
         noteBook.removeNote(index);
-        notifyObservers();
+        changed(Field.NOTES);
     }
 
     /**
@@ -159,6 +189,7 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
      */
     public void editNote(int index, String text) {
         noteBook.editNote(index, text);
+        changed(Field.NOTES);
     }
 
     /**
@@ -204,6 +235,23 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
         }
     }
 
+    @Override
+    public void subscribeChanges(IChangeObserver<Contact> observer) {
+        changes.subscribe(observer);
+    }
+
+    @Override
+    public void unSubscribeChanges(IChangeObserver<Contact> observer) {
+        changes.unSubscribe(observer);
+    }
+
+    // Report a change of a field of the contact, to the change observers first so that indices of the contact are up to date
+    // when the other observers are notified.
+    private void changed(Field field) {
+        changes.fire(ChangeEvent.updated(this, field));
+        notifyObservers();
+    }
+
     /**
      * @return The contact's directoryId.
      */
@@ -217,6 +265,20 @@ public class Contact implements ICacheVisitable, ISearchable<String>, IObservabl
         return name.toLowerCase(Locale.getDefault());
     }
 
+    @Override
+    public Map<SearchField, List<String>> getSearchFields() {
+        Map<SearchField, List<String>> fields = new LinkedHashMap<>();
+        fields.put(PHONE_FIELD, Collections.singletonList(phoneNumber));
+        fields.put(ADDRESS_FIELD, Collections.singletonList(address));
+        List<String> tagNames = new ArrayList<>(tags.size());
+        for (ITag tag : tags) {
+            tagNames.add(tag.getName());
+        }
+        fields.put(TAG_FIELD, tagNames);
+        fields.put(NOTE_FIELD, noteBook.viewNotes());
+        return fields;
+    }
+
     /***
      * The contact cache class contains fields which should be saved/loaded to persistent storage.
      */
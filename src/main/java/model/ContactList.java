@@ -3,16 +3,29 @@ package model;
 import model.exceptions.NameNotAllowedException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /***
  * Wrapper for a list of contacts.
+ * The contacts are also indexed by their tags, which is kept up to date as the tags of the contacts change, so that
+ * the contacts of a tag are looked up without going through every contact.
+ * Change observers are told which contacts were added and removed, and which fields of the contacts in the list changed.
  */
-public class ContactList implements IObservable {
+public class ContactList implements IObservable, IChangeObservable<Contact> {
 
     private List<Contact> contactList = new ArrayList<>();
     private final List<IObserver> observers = new ArrayList<>();
+    // The change observers, told about the contacts added and removed and about the changes of the contacts in the list.
+    private final ChangeNotifier<Contact> changes = new ChangeNotifier<>();
+    // The events of the same user, which removed contacts are taken out of, null if there are none.
+    private EventList eventList;
+    // The index entries of the contacts by their directory ids.
+    private final Map<UUID, IndexEntry> entries = new HashMap<>();
+    // The contacts by their tags, in the order they were tagged.
+    private final TagPostings<Contact> contactsByTag = new TagPostings<>();
 
     /***
      * Creates a new contact list wrapper object.
@@ -27,6 +40,15 @@ public class ContactList implements IObservable {
      */
     ContactList(List<Contact> contacts) {
         this.contactList = contacts;
+        contacts.forEach(this::index);
+    }
+
+    /***
+     * Sets the events which contacts are taken out of when they are removed from the list.
+     * @param eventList the events of the same user
+     */
+    void setEventList(EventList eventList) {
+        this.eventList = eventList;
     }
 
     /***
@@ -37,8 +59,8 @@ public class ContactList implements IObservable {
         if (name.isEmpty()) {
             throw new NameNotAllowedException("Contacts must have a name");
         }
-        contactList.add(new Contact(name));
-        notifyObservers();
+        Contact contact = new Contact(name);
+        add(contact);
     }
 
     /***
@@ -46,8 +68,7 @@ public class ContactList implements IObservable {
      * @param contact the contact object
      */
     public void addContact(Contact contact) {
-        contactList.add(contact);
-        notifyObservers();
+        add(contact);
     }
 
     /***
@@ -65,19 +86,50 @@ public class ContactList implements IObservable {
         if (cache.tags == null) {
             cache.tags = new ArrayList<>();
         }
-        contactList.add(new Contact(cache));
-        notifyObservers();
+        Contact contact = new Contact(cache);
+        add(contact);
     }
 
     /***
-     * Removes a contact from the contactList
+     * Removes a contact from the contactList, and from every event it is a part of.
      * @param contact the contact to be removed
      */
     public void removeContact(Contact contact) {
-        contactList.remove(contact);
+        if (contactList.remove(contact)) {
+            if (!contactList.contains(contact)) {
+                unIndex(contact);
+                if (eventList != null) {
+                    eventList.removeContactFromEvents(contact);
+                }
+            }
+            changes.fire(ChangeEvent.removed(contact));
+        }
         notifyObservers();
     }
 
+    /***
+     * Makes a number of changes to the contacts, telling the change observers about all of them together once they
+     * have been made. Batches made while making the changes join this one.
+     * @param batch the changes to make
+     */
+    public void batchChanges(Runnable batch) {
+        changes.beginBatch();
+        try {
+            batch.run();
+        } finally {
+            changes.endBatch();
+        }
+    }
+
+    /***
+     * Returns the contacts tagged with the given tag, in the order they were tagged.
+     * @param tag the tag to look for
+     * @return the contacts tagged with the given tag, empty if none are found.
+     */
+    public List<Contact> getContactsOfTag(ITag tag) {
+        return new ArrayList<>(contactsByTag.get(tag));
+    }
+
     /***
      * Returns the contactList
      * @return the contact list
@@ -109,4 +161,88 @@ public class ContactList implements IObservable {
                 "contactList=" + contactList +
                 '}';
     }
+
+    @Override
+    public void subscribeChanges(IChangeObserver<Contact> observer) {
+        changes.subscribe(observer);
+    }
+
+    @Override
+    public void unSubscribeChanges(IChangeObserver<Contact> observer) {
+        changes.unSubscribe(observer);
+    }
+
+    /***
+     * Stops following the changes of the contacts in the list, for a list which is discarded while its contacts are
+     * kept, such as when they are handed to a new list.
+     */
+    public void release() {
+        entries.values().forEach(entry -> entry.contact.unSubscribeChanges(entry));
+        entries.clear();
+    }
+
+    private void add(Contact contact) {
+        contactList.add(contact);
+        index(contact);
+        changes.fire(ChangeEvent.added(contact));
+        notifyObservers();
+    }
+
+    // Index a contact by its tags, unless it is already indexed.
+    private void index(Contact contact) {
+        if (!entries.containsKey(contact.getDirectoryId())) {
+            IndexEntry entry = new IndexEntry(this, contact);
+            entries.put(contact.getDirectoryId(), entry);
+            contact.subscribeChanges(entry);
+            entry.tags.forEach(tag -> contactsByTag.add(tag, contact));
+        }
+    }
+
+    private void unIndex(Contact contact) {
+        IndexEntry entry = entries.remove(contact.getDirectoryId());
+        if (entry != null) {
+            contact.unSubscribeChanges(entry);
+            entry.tags.forEach(tag -> contactsByTag.remove(tag, contact));
+        }
+    }
+
+    // An indexed contact, which moves the contact in the index when the tags of the contact change, and passes the
+    // changes of the contact on to the change observers of the list.
+    private static class IndexEntry implements IChangeObserver<Contact> {
+        private final ContactList contactList;
+        private final Contact contact;
+        // The distinct tags the contact is indexed by.
+        private List<ITag> tags;
+
+        IndexEntry(ContactList contactList, Contact contact) {
+            this.contactList = contactList;
+            this.contact = contact;
+            this.tags = tagsOf(contact);
+        }
+
+        @Override
+        public void onChanges(List<ChangeEvent<Contact>> changes) {
+            for (ChangeEvent<Contact> change : changes) {
+                if (change.isUpdateOf(Contact.Field.TAGS)) {
+                    updateTags();
+                }
+                contactList.changes.fire(change);
+            }
+        }
+
+        private void updateTags() {
+            List<ITag> current = tagsOf(contact);
+            if (!current.equals(tags)) {
+                tags.stream().filter(tag -> !current.contains(tag)).forEach(tag -> contactList.contactsByTag.remove(tag, contact));
+                current.stream().filter(tag -> !tags.contains(tag)).forEach(tag -> contactList.contactsByTag.add(tag, contact));
+                tags = current;
+            }
+        }
+
+        private static List<ITag> tagsOf(Contact contact) {
+            List<ITag> tags = new ArrayList<>();
+            contact.getTags().stream().filter(tag -> !tags.contains(tag)).forEach(tags::add);
+            return tags;
+        }
+    }
 }
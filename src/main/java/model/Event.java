@@ -11,7 +11,14 @@ import java.util.*;
 /***
  * Represents an event occurring at a point in time, past or future, with a name/description and list of contacts/categories it is included in.
  */
-public class Event implements ICacheVisitable, ISearchable<String>, IObservable, IChronological {
+public class Event implements ICacheVisitable, ISearchable<String>, IObservable, IChangeObservable<Event>, IChronological {
+
+    /***
+     * The fields of an event reported by its changes.
+     */
+    public enum Field {
+        NAME, ADDRESS, DATE_TIME, DESCRIPTION, TAG, CONTACTS
+    }
 
     private String name;
     private String address;
@@ -21,6 +28,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
     private ITag tag;
     private List<Contact> contacts = new ArrayList<>();
     private List<IObserver> observers = new ArrayList<>();
+    private final ChangeNotifier<Event> changes = new ChangeNotifier<>();
     private final UUID directoryId;
 
     /***
@@ -37,7 +45,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
         this.address = address;
         this.dateTime = dateTime;
         this.description = description;
-        this.contacts = contacts;
+        this.contacts = new ArrayList<>(contacts);
         this.tag = tag;
         this.directoryId = UUID.randomUUID();
     }
@@ -85,7 +93,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void setName(String name) {
         this.name = name;
-        notifyObservers();
+        changed(Field.NAME);
     }
 
     /***
@@ -103,7 +111,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void setAddress(String address) {
         this.address = address;
-        notifyObservers();
+        changed(Field.ADDRESS);
     }
 
     /***
@@ -127,7 +135,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void setDateTime(LocalDateTime dateTime) {
         this.dateTime = dateTime;
-        notifyObservers();
+        changed(Field.DATE_TIME);
     }
 
     /***
@@ -144,7 +152,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void setDescription(String description) {
         this.description = description;
-        notifyObservers();
+        changed(Field.DESCRIPTION);
     }
 
     /***
@@ -153,7 +161,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void setTag(ITag tag) {
         this.tag = tag;
-        notifyObservers();
+        changed(Field.TAG);
     }
 
     /***
@@ -161,7 +169,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void removeTag() {
         tag = null;
-        notifyObservers();
+        changed(Field.TAG);
     }
 
     /***
@@ -180,7 +188,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
         if (!contacts.contains(contact)) {
             contacts.add(contact);
         }
-        notifyObservers();
+        changed(Field.CONTACTS);
     }
 
     /***
@@ -189,7 +197,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void setContacts(List<Contact> inputContactList) {
         this.contacts = new ArrayList<>(inputContactList);
-        notifyObservers();
+        changed(Field.CONTACTS);
     }
 
     /***
@@ -198,7 +206,7 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
      */
     public void removeContact(Contact contact) {
         contacts.remove(contact);
-        notifyObservers();
+        changed(Field.CONTACTS);
     }
 
     /***
@@ -278,4 +286,21 @@ public class Event implements ICacheVisitable, ISearchable<String>, IObservable,
             observer.onEvent();
         }
     }
+
+    @Override
+    public void subscribeChanges(IChangeObserver<Event> observer) {
+        changes.subscribe(observer);
+    }
+
+    @Override
+    public void unSubscribeChanges(IChangeObserver<Event> observer) {
+        changes.unSubscribe(observer);
+    }
+
+    // Report a change of a field of the event, to the change observers first so that indices of the event are up to date
+    // when the other observers are notified.
+    private void changed(Field field) {
+        changes.fire(ChangeEvent.updated(this, field));
+        notifyObservers();
+    }
 }
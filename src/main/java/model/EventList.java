@@ -2,20 +2,29 @@ package model;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.TemporalField;
 import java.time.temporal.WeekFields;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
-import java.util.Objects;
+import java.util.*;
 
 /***
- * Wrapper for a list of events
+ * Wrapper for a list of events.
+ * The events are also indexed by time, by their contacts and by their tags, which is kept up to date as the events
+ * change, so that the events of a period, a contact or a tag are looked up without going through every event.
+ * Change observers are told which events were added and removed, and which fields of the events in the list changed.
  */
-public class EventList implements IObservable {
+public class EventList implements IObservable, IChangeObservable<Event> {
 
     private List<Event> eventList = new ArrayList<>();
     private List<IObserver> observers = new ArrayList<>();
+    // The change observers, told about the events added and removed and about the changes of the events in the list.
+    private final ChangeNotifier<Event> changes = new ChangeNotifier<>();
+    // The events by time, events at the same time in the order they were indexed.
+    private final NavigableMap<LocalDateTime, List<IndexEntry>> eventsByTime = new TreeMap<>();
+    // The events without a time, which are not in the time index.
+    private final List<IndexEntry> untimedEvents = new ArrayList<>();
+    // The events by the directory ids of their contacts, in the order the contacts joined the events.
+    private final Map<UUID, List<Event>> eventsByContact = new HashMap<>();
+    // The events by their tags, in the order they were tagged.
+    private final TagPostings<Event> eventsByTag = new TagPostings<>();
 
     /***
      * Creates a new eventlist wrapper object
@@ -30,6 +39,7 @@ public class EventList implements IObservable {
      */
     EventList(List<Event> events) {
         this.eventList = events;
+        events.forEach(this::index);
     }
 
     /***
@@ -37,8 +47,7 @@ public class EventList implements IObservable {
      */
     public Event addEvent() {
         Event event = new Event();
-        eventList.add(event);
-        notifyObservers();
+        add(event);
         return event;
     }
 
@@ -52,63 +61,74 @@ public class EventList implements IObservable {
      * @param tag category
      */
     public void addEvent(String name, LocalDateTime dateTime, String address, String description, List<Contact> contacts, ITag tag) {
-        eventList.add(new Event(name, address, dateTime, description, contacts, tag));
-        notifyObservers();
+        Event event = new Event(name, address, dateTime, description, contacts, tag);
+        add(event);
     }
 
     /***
-     * Returns a list of events in the same week as the given localDate object.
+     * Returns a list of events in the same week as the given localDate object, ordered by time.
+     * Weeks start on the first day of the week of the default locale.
      * @param localDate the date object
      * @return a list of events
      */
     public List<Event> getEventsOfWeek(LocalDate localDate) {
-        TemporalField weekGetter = WeekFields.of(Locale.getDefault()).weekOfWeekBasedYear();
-        int week = localDate.get(weekGetter);
-
-        List<Event> eventsOfWeek = new ArrayList<>();
+        LocalDate firstDay = localDate.with(WeekFields.of(Locale.getDefault()).dayOfWeek(), 1);
+        return getEventsBetween(firstDay.atStartOfDay(), firstDay.plusWeeks(1).atStartOfDay());
+    }
 
-        for (Event event : this.eventList) {
-            if (event.getDateTime().get(weekGetter) == week) {
-                eventsOfWeek.add(event);
+    /***
+     * Returns a list of the events taking place in a period of time, ordered by time.
+     * @param from the start of the period, inclusive
+     * @param to the end of the period, exclusive
+     * @return a list of events
+     */
+    public List<Event> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+        List<Event> events = new ArrayList<>();
+        if (from.isBefore(to)) {
+            for (List<IndexEntry> entries : eventsByTime.subMap(from, true, to, false).values()) {
+                entries.forEach(entry -> events.add(entry.event));
             }
         }
-
-        return eventsOfWeek;
+        return events;
     }
 
     /***
-     * Gathers and returns all events that a given contact is a part of.
+     * Gathers and returns all events that a given contact is a part of, in the order the contact joined them.
      * @param contact the contact
      * @return a list of all the events the contact is a part of.
      */
     public List<Event> getContactsEvents(Contact contact) {
-        List<Event> res = new ArrayList<>();
+        return new ArrayList<>(eventsByContact.getOrDefault(contact.getDirectoryId(), Collections.emptyList()));
+    }
 
-        for (Event event : eventList) {
-            if (event.getContacts().contains(contact)) {
-                res.add(event);
+    /***
+     * Removes a contact from every event it is a part of.
+     * @param contact the contact to be removed
+     */
+    void removeContactFromEvents(Contact contact) {
+        batchChanges(() -> {
+            for (Event event : getContactsEvents(contact)) {
+                event.removeContact(contact);
             }
-        }
-
-        return res;
+        });
     }
 
     /***
-     * Gets the number of event tagged with the given tag.
+     * Gets the events tagged with the given tag, in the order they were tagged.
      * @param tag the tag to look for
-     * @return the number of events tagged with the given tag, 0 if none are found.
+     * @return the events tagged with the given tag, empty if none are found.
      */
     public List<Event> getEventsOfTag(ITag tag) {
-        List<Event> res = new ArrayList<>();
-        for (Event e : eventList) {
-            if (!Objects.isNull(e.getTag())) {
-                if (e.getTag().equals(tag)) {
-                    res.add(e);
-                }
-            }
-        }
+        return new ArrayList<>(eventsByTag.get(tag));
+    }
 
-        return res;
+    /***
+     * Gets the number of events tagged with the given tag.
+     * @param tag the tag to look for
+     * @return the number of events tagged with the given tag, 0 if none are found.
+     */
+    public int countEventsOfTag(ITag tag) {
+        return eventsByTag.get(tag).size();
     }
 
     /***
@@ -116,8 +136,7 @@ public class EventList implements IObservable {
      * @param event the event object
      */
     public void addEvent(Event event) {
-        eventList.add(event);
-        notifyObservers();
+        add(event);
     }
 
     /***
@@ -125,10 +144,38 @@ public class EventList implements IObservable {
      * @param event the event to be removed
      */
     public void removeEvent(Event event) {
-        eventList.remove(event);
+        if (eventList.remove(event)) {
+            if (!eventList.contains(event)) {
+                unIndex(event);
+            }
+            changes.fire(ChangeEvent.removed(event));
+        }
         notifyObservers();
     }
 
+    /***
+     * Makes a number of changes to the events, telling the change observers about all of them together once they have
+     * been made. Batches made while making the changes join this one.
+     * @param batch the changes to make
+     */
+    public void batchChanges(Runnable batch) {
+        changes.beginBatch();
+        try {
+            batch.run();
+        } finally {
+            changes.endBatch();
+        }
+    }
+
+    /***
+     * Returns whether an event is in the list, looking it up by its time.
+     * @param event the event
+     * @return true if the event is in the list
+     */
+    boolean contains(Event event) {
+        return findEntry(event) != null;
+    }
+
     /***
      * Returns a copy of the eventlist
      * @return the copy of the eventlist.
@@ -154,4 +201,182 @@ public class EventList implements IObservable {
         }
     }
 
+    @Override
+    public void subscribeChanges(IChangeObserver<Event> observer) {
+        changes.subscribe(observer);
+    }
+
+    @Override
+    public void unSubscribeChanges(IChangeObserver<Event> observer) {
+        changes.unSubscribe(observer);
+    }
+
+    /***
+     * Stops following the changes of the events in the list, for a list which is discarded while its events are kept,
+     * such as when they are handed to a new list.
+     */
+    public void release() {
+        eventsByTime.values().forEach(entries -> entries.forEach(entry -> entry.event.unSubscribeChanges(entry)));
+        untimedEvents.forEach(entry -> entry.event.unSubscribeChanges(entry));
+        eventsByTime.clear();
+        untimedEvents.clear();
+    }
+
+    private void add(Event event) {
+        eventList.add(event);
+        index(event);
+        changes.fire(ChangeEvent.added(event));
+        notifyObservers();
+    }
+
+    // Index an event by its time, contacts and tag, unless it is already indexed.
+    private void index(Event event) {
+        if (findEntry(event) == null) {
+            IndexEntry entry = new IndexEntry(this, event);
+            event.subscribeChanges(entry);
+            addToTimeIndex(entry);
+            entry.contactIds.forEach(id -> addToContactIndex(id, event));
+            if (entry.tag != null) {
+                eventsByTag.add(entry.tag, event);
+            }
+        }
+    }
+
+    private void unIndex(Event event) {
+        IndexEntry entry = findEntry(event);
+        if (entry == null) {
+            // The entry has yet to be told about a change of the time of the event.
+            entry = findEntry(event, untimedEvents);
+            for (Iterator<List<IndexEntry>> it = eventsByTime.values().iterator(); entry == null && it.hasNext(); ) {
+                entry = findEntry(event, it.next());
+            }
+        }
+        if (entry != null) {
+            event.unSubscribeChanges(entry);
+            removeFromTimeIndex(entry);
+            entry.contactIds.forEach(id -> removeFromContactIndex(id, event));
+            if (entry.tag != null) {
+                eventsByTag.remove(entry.tag, event);
+            }
+        }
+    }
+
+    // Find the entry of an event, which is indexed by the current time of the event.
+    private IndexEntry findEntry(Event event) {
+        return findEntry(event, event.getDateTime() == null ? untimedEvents : eventsByTime.get(event.getDateTime()));
+    }
+
+    private static IndexEntry findEntry(Event event, List<IndexEntry> entries) {
+        if (entries != null) {
+            for (IndexEntry entry : entries) {
+                if (entry.event == event) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void addToTimeIndex(IndexEntry entry) {
+        if (entry.time == null) {
+            untimedEvents.add(entry);
+        } else {
+            eventsByTime.computeIfAbsent(entry.time, t -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    private void removeFromTimeIndex(IndexEntry entry) {
+        if (entry.time == null) {
+            untimedEvents.remove(entry);
+        } else {
+            List<IndexEntry> entries = eventsByTime.get(entry.time);
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                eventsByTime.remove(entry.time);
+            }
+        }
+    }
+
+    private void addToContactIndex(UUID contactId, Event event) {
+        eventsByContact.computeIfAbsent(contactId, id -> new ArrayList<>(1)).add(event);
+    }
+
+    private void removeFromContactIndex(UUID contactId, Event event) {
+        List<Event> events = eventsByContact.get(contactId);
+        events.remove(event);
+        if (events.isEmpty()) {
+            eventsByContact.remove(contactId);
+        }
+    }
+
+    // An indexed event, which moves the event in the indices when the time, the contacts or the tag of the event change,
+    // and passes the changes of the event on to the change observers of the list.
+    private static class IndexEntry implements IChangeObserver<Event> {
+        private final EventList eventList;
+        private final Event event;
+        // The time the event is indexed by.
+        private LocalDateTime time;
+        // The directory ids of the contacts the event is indexed by.
+        private Set<UUID> contactIds;
+        // The tag the event is indexed by.
+        private ITag tag;
+
+        IndexEntry(EventList eventList, Event event) {
+            this.eventList = eventList;
+            this.event = event;
+            this.time = event.getDateTime();
+            this.contactIds = contactIdsOf(event);
+            this.tag = event.getTag();
+        }
+
+        @Override
+        public void onChanges(List<ChangeEvent<Event>> changes) {
+            for (ChangeEvent<Event> change : changes) {
+                if (change.isUpdateOf(Event.Field.DATE_TIME)) {
+                    updateTime();
+                } else if (change.isUpdateOf(Event.Field.CONTACTS)) {
+                    updateContacts();
+                } else if (change.isUpdateOf(Event.Field.TAG)) {
+                    updateTag();
+                }
+                eventList.changes.fire(change);
+            }
+        }
+
+        private void updateTime() {
+            if (!Objects.equals(time, event.getDateTime())) {
+                eventList.removeFromTimeIndex(this);
+                time = event.getDateTime();
+                eventList.addToTimeIndex(this);
+            }
+        }
+
+        private void updateContacts() {
+            Set<UUID> ids = contactIdsOf(event);
+            if (!ids.equals(contactIds)) {
+                contactIds.stream().filter(id -> !ids.contains(id)).forEach(id -> eventList.removeFromContactIndex(id, event));
+                ids.stream().filter(id -> !contactIds.contains(id)).forEach(id -> eventList.addToContactIndex(id, event));
+                contactIds = ids;
+            }
+        }
+
+        private void updateTag() {
+            if (tag != event.getTag()) {
+                if (tag != null) {
+                    eventList.eventsByTag.remove(tag, event);
+                }
+                tag = event.getTag();
+                if (tag != null) {
+                    eventList.eventsByTag.add(tag, event);
+                }
+            }
+        }
+
+        private static Set<UUID> contactIdsOf(Event event) {
+            Set<UUID> ids = new LinkedHashSet<>();
+            event.getContacts().forEach(contact -> ids.add(contact.getDirectoryId()));
+            return ids;
+        }
+    }
+
 }
@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * An object telling its observers what has changed about it, alongside the plain notifications of {@link IObservable}.
+ *
+ * @param <T> the type of the changed entities
+ */
+public interface IChangeObservable<T> {
+    /**
+     * Adds a change observer to an object
+     *
+     * @param observer the observer to add
+     */
+    void subscribeChanges(IChangeObserver<T> observer);
+
+    /**
+     * Removes a change observer from an object
+     *
+     * @param observer the observer to remove
+     */
+    void unSubscribeChanges(IChangeObserver<T> observer);
+}
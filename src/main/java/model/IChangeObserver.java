@@ -0,0 +1,13 @@
+package model;
+
+import java.util.List;
+
+public interface IChangeObserver<T> {
+    /**
+     * Called with the changes to an observed object, in the order they were made.
+     * Changes made in a batch are delivered together once the batch is complete.
+     *
+     * @param changes the changes, never empty
+     */
+    void onChanges(List<ChangeEvent<T>> changes);
+}
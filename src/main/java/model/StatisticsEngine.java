@@ -0,0 +1,244 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+/***
+ * Keeps statistics of a list of events up to date as the events change.
+ * The engine observes the changes of an event list, and keeps running counts of the events per tag, per month and per
+ * weekday, and of the events every contact is a part of. An added or removed event is added to or removed from the
+ * counts, and a change to an event only moves that event between the counts, so neither keeping nor reading the
+ * statistics goes through every event. Observers of the engine are notified once per batch of changes to the counts.
+ */
+public class StatisticsEngine implements IObservable {
+
+    private final EventList eventList;
+    private final List<IObserver> observers = new ArrayList<>();
+    private final EventListObserver eventListObserver = new EventListObserver(this);
+    // The events along with the contributions they have made to the counts.
+    private final Map<Event, EventStatistics> events = new IdentityHashMap<>();
+
+    private final Map<ITag, Integer> eventsPerTag = new HashMap<>();
+    private final NavigableMap<YearMonth, Integer> eventsPerMonth = new TreeMap<>();
+    private final Map<DayOfWeek, Integer> eventsPerWeekday = new EnumMap<>(DayOfWeek.class);
+    private final Map<UUID, Integer> interactionsPerContact = new HashMap<>();
+
+    /***
+     * Creates a statistics engine and starts keeping statistics of the given events.
+     * @param eventList the events to keep statistics of
+     */
+    public StatisticsEngine(EventList eventList) {
+        this.eventList = eventList;
+        eventList.getList().forEach(this::count);
+        eventList.subscribeChanges(eventListObserver);
+    }
+
+    /***
+     * Stops keeping statistics, so that the engine no longer holds on to the events.
+     */
+    public void dispose() {
+        eventList.unSubscribeChanges(eventListObserver);
+        events.clear();
+    }
+
+    /***
+     * Returns the number of events kept statistics of.
+     * @return the number of events
+     */
+    public int getEventCount() {
+        return events.size();
+    }
+
+    /***
+     * Returns the number of events tagged with the given tag.
+     * @param tag the tag
+     * @return the number of events, 0 if none are found
+     */
+    public int getEventCount(ITag tag) {
+        return eventsPerTag.getOrDefault(tag, 0);
+    }
+
+    /***
+     * Returns the number of events of every tag of a tag handler, including the tags without any events.
+     * @param tagHandler the tag handler holding the tags
+     * @return the number of events by tag
+     */
+    public Map<ITag, Integer> getEventDelegation(TagHandler tagHandler) {
+        Map<ITag, Integer> res = new HashMap<>();
+        for (ITag tag : tagHandler.getAllTags()) {
+            res.put(tag, getEventCount(tag));
+        }
+        return res;
+    }
+
+    /***
+     * Returns the number of events of every month with events, ordered by month.
+     * @return the number of events by month
+     */
+    public SortedMap<YearMonth, Integer> getEventsPerMonth() {
+        return Collections.unmodifiableSortedMap(eventsPerMonth);
+    }
+
+    /***
+     * Returns the number of events of every weekday with events, ordered from Monday.
+     * @return the number of events by weekday
+     */
+    public Map<DayOfWeek, Integer> getEventsPerWeekday() {
+        return Collections.unmodifiableMap(eventsPerWeekday);
+    }
+
+    /***
+     * Returns the number of events the given contact is a part of.
+     * @param contact the contact
+     * @return the number of events, 0 if none are found
+     */
+    public int getInteractionCount(Contact contact) {
+        return interactionsPerContact.getOrDefault(contact.getDirectoryId(), 0);
+    }
+
+    /***
+     * Returns the weekdays with the most events, ordered from Monday.
+     * @return the busiest weekdays, empty if there are no events with a time
+     */
+    public List<DayOfWeek> getBusiestWeekdays() {
+        int max = eventsPerWeekday.values().stream().max(Integer::compare).orElse(0);
+        List<DayOfWeek> res = new ArrayList<>();
+        eventsPerWeekday.forEach((day, count) -> {
+            if (count == max) {
+                res.add(day);
+            }
+        });
+        return res;
+    }
+
+    @Override
+    public void subscribe(IObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public void unSubscribe(IObserver observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public void notifyObservers() {
+        for (IObserver observer : observers) {
+            observer.onEvent();
+        }
+    }
+
+    // Add an event to the counts, unless it is already counted.
+    private boolean count(Event event) {
+        if (events.containsKey(event)) {
+            return false;
+        }
+        EventStatistics statistics = new EventStatistics(this, event);
+        events.put(event, statistics);
+        statistics.count(1);
+        return true;
+    }
+
+    // Remove an event from the counts once it is no longer in the list.
+    private boolean uncount(Event event) {
+        EventStatistics statistics = events.get(event);
+        if (statistics == null || eventList.contains(event)) {
+            return false;
+        }
+        events.remove(event);
+        statistics.count(-1);
+        return true;
+    }
+
+    private void onChanges(List<ChangeEvent<Event>> changes) {
+        boolean changed = false;
+        for (ChangeEvent<Event> change : changes) {
+            switch (change.getType()) {
+                case ADDED:
+                    changed |= count(change.getEntity());
+                    break;
+                case REMOVED:
+                    changed |= uncount(change.getEntity());
+                    break;
+                default:
+                    EventStatistics statistics = events.get(change.getEntity());
+                    changed |= statistics != null && statistics.update();
+            }
+        }
+        if (changed) {
+            notifyObservers();
+        }
+    }
+
+    private static <K> void add(Map<K, Integer> counts, K key, int delta) {
+        if (key != null) {
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    // Observes the changes of the event list of an engine.
+    private static class EventListObserver implements IChangeObserver<Event> {
+        private final StatisticsEngine engine;
+
+        EventListObserver(StatisticsEngine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public void onChanges(List<ChangeEvent<Event>> changes) {
+            engine.onChanges(changes);
+        }
+    }
+
+    // The contribution of an event to the counts, which is moved between the counts when the event changes.
+    private static class EventStatistics {
+        private final StatisticsEngine engine;
+        private final Event event;
+        private ITag tag;
+        private LocalDateTime time;
+        private Set<UUID> contactIds;
+
+        EventStatistics(StatisticsEngine engine, Event event) {
+            this.engine = engine;
+            this.event = event;
+            read();
+        }
+
+        // Move the event between the counts if it has changed, and return whether it has.
+        boolean update() {
+            Set<UUID> ids = contactIdsOf(event);
+            if (tag != event.getTag() || !Objects.equals(time, event.getDateTime()) || !ids.equals(contactIds)) {
+                count(-1);
+                read();
+                count(1);
+                return true;
+            }
+            return false;
+        }
+
+        private void read() {
+            tag = event.getTag();
+            time = event.getDateTime();
+            contactIds = contactIdsOf(event);
+        }
+
+        // Add the event to the counts, or remove it from them with a sign of -1.
+        void count(int sign) {
+            add(engine.eventsPerTag, tag, sign);
+            if (time != null) {
+                add(engine.eventsPerMonth, YearMonth.from(time), sign);
+                add(engine.eventsPerWeekday, time.getDayOfWeek(), sign);
+            }
+            contactIds.forEach(id -> add(engine.interactionsPerContact, id, sign));
+        }
+
+        private static Set<UUID> contactIdsOf(Event event) {
+            Set<UUID> ids = new HashSet<>();
+            event.getContacts().forEach(contact -> ids.add(contact.getDirectoryId()));
+            return ids;
+        }
+    }
+
+}
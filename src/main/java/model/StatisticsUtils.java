@@ -21,7 +21,7 @@ public final class StatisticsUtils {
     public static Map<ITag, Integer> getEventDelegation(EventList eventList, TagHandler tagHandler) {
         HashMap<ITag, Integer> res = new HashMap<>();
         for (ITag tag : tagHandler.getAllTags()) {
-            res.put(tag, eventList.getEventsOfTag(tag).size());
+            res.put(tag, eventList.countEventsOfTag(tag));
         }
         return res;
     }
@@ -4,6 +4,13 @@ import java.util.Optional;
 
 public class Tag implements ITag, ICacheVisitable {
 
+    /**
+     * The fields of a tag reported by the changes of its tag handler.
+     */
+    public enum Field {
+        NAME, COLOR
+    }
+
     private String name;
 
     private String color;
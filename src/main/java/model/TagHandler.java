@@ -9,10 +9,13 @@ import java.util.*;
 /***
  * Handler class for a collection of tags.
  * Wraps logic for creating, editing and removing tags.
+ * Change observers are told which tags were created, and which fields of the tags changed.
  */
-public class TagHandler implements ICacheVisitable {
+public class TagHandler implements ICacheVisitable, IChangeObservable<ITag> {
 
     private final Map<String, Tag> stringTagHashMap;
+    // The change observers, told about the created tags and about the renamed and recoloured ones.
+    private final ChangeNotifier<ITag> changes = new ChangeNotifier<>();
 
     /**
      * Creates a new TagHandler
@@ -43,6 +46,7 @@ public class TagHandler implements ICacheVisitable {
         checkNameLegality(name);
         tag = new Tag(name, color);
         stringTagHashMap.put(name, tag);
+        changes.fire(ChangeEvent.added(tag));
         return tag;
     }
 
@@ -102,7 +106,7 @@ public class TagHandler implements ICacheVisitable {
      *
      * @param newName the new name
      */
-    void rename(ITag iTag, String newName) throws NameNotAvailableException, TagNotFoundException {
+    public void rename(ITag iTag, String newName) throws NameNotAvailableException, TagNotFoundException {
         if (stringTagHashMap.get(newName) != null) {
             throw new NameNotAvailableException(newName);
         }
@@ -113,6 +117,7 @@ public class TagHandler implements ICacheVisitable {
         stringTagHashMap.remove(tag.getName());
         tag.setName(newName);
         stringTagHashMap.put(newName, tag);
+        changes.fire(ChangeEvent.updated(tag, Tag.Field.NAME));
     }
 
 
@@ -123,13 +128,14 @@ public class TagHandler implements ICacheVisitable {
      * @param color The new color as HEX-code
      * @return If the change succeeded
      */
-    boolean setColor(ITag iTag, String color) throws TagNotFoundException {
+    public boolean setColor(ITag iTag, String color) throws TagNotFoundException {
         Tag tag = stringTagHashMap.get(iTag.getName());
         if (tag == null) {
             throw new TagNotFoundException(iTag.getName());
         }
         if (isValidColor(color)) {
             tag.setColor(color);
+            changes.fire(ChangeEvent.updated(tag, Tag.Field.COLOR));
             return true;
         }
         return false;
@@ -158,6 +164,16 @@ public class TagHandler implements ICacheVisitable {
         return true;
     }
 
+    @Override
+    public void subscribeChanges(IChangeObserver<ITag> observer) {
+        changes.subscribe(observer);
+    }
+
+    @Override
+    public void unSubscribeChanges(IChangeObserver<ITag> observer) {
+        changes.unSubscribe(observer);
+    }
+
     public TagHandler(TagHandlerCache cache) {
         this.stringTagHashMap = new HashMap<>(cache.stringTagHashMap);
     }
@@ -0,0 +1,51 @@
+package model;
+
+import java.util.*;
+
+/***
+ * The postings of a set of tags, mapping every tag to the objects carrying it.
+ * Tags are looked up by identity, so that a posting follows its tag when the tag is renamed, and tags of different
+ * tag handlers never share a posting even if they have the same name. Looking up a tag, including one without a
+ * posting, costs a single hash lookup.
+ * @param <T> the type of the objects carrying the tags
+ */
+class TagPostings<T> {
+
+    // The objects carrying each tag, in the order they were added.
+    private final Map<ITag, List<T>> postings = new IdentityHashMap<>();
+
+    /***
+     * Adds an object to the posting of a tag, after the objects already carrying it.
+     * @param tag the tag
+     * @param item the object carrying the tag
+     */
+    void add(ITag tag, T item) {
+        postings.computeIfAbsent(tag, t -> new ArrayList<>(1)).add(item);
+    }
+
+    /***
+     * Removes an object from the posting of a tag.
+     * @param tag the tag
+     * @param item the object no longer carrying the tag
+     */
+    void remove(ITag tag, T item) {
+        List<T> items = postings.get(tag);
+        if (items != null) {
+            items.remove(item);
+            if (items.isEmpty()) {
+                postings.remove(tag);
+            }
+        }
+    }
+
+    /***
+     * Returns the objects carrying a tag, in the order they were added.
+     * @param tag the tag
+     * @return an unmodifiable view of the objects, empty if there are none
+     */
+    List<T> get(ITag tag) {
+        List<T> items = postings.get(tag);
+        return items == null ? Collections.emptyList() : Collections.unmodifiableList(items);
+    }
+
+}
@@ -21,6 +21,7 @@ public class User implements ICacheVisitable {
      */
     public User(String name) {
         this.name = name;
+        this.contactList.setEventList(eventList);
     }
 
     /***
@@ -92,6 +93,7 @@ public class User implements ICacheVisitable {
     public User(UserCache cache) {
         this.eventList = new EventList(cache.events);
         this.contactList = new ContactList(cache.contacts);
+        this.contactList.setEventList(eventList);
         this.tagHandler = cache.tagHandler;
         this.name = cache.name;
         this.uuid = cache.uuid;
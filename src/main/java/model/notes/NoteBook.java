@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Represents a list of {@link Note} objects with restricted operations.
@@ -17,8 +18,10 @@ import java.util.Optional;
  */
 public class NoteBook implements ICacheVisitable, IDocumentable {
 
-    // Elements represented as a list of note objects
-    private final List<Note> elements;
+    // Elements represented as a list of note objects, null until loaded if the elements are loaded lazily
+    private List<Note> elements;
+    // Loads the elements on first access, null once loaded
+    private Supplier<List<Note>> elementsLoader;
 
     /**
      * Default constructor containing an empty list.
@@ -34,7 +37,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @param oldNoteBook the notes to be copied
      */
     public NoteBook(NoteBook oldNoteBook) {
-        this.elements = new ArrayList<>(oldNoteBook.elements);
+        this.elements = new ArrayList<>(oldNoteBook.notes());
         elements.sort(Note::compareTo);
     }
 
@@ -53,7 +56,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * New note objects will always be newer than the object last added to the list.
      */
     public void addNote() {
-        elements.add(new Note());
+        notes().add(new Note());
     }
 
     /**
@@ -63,7 +66,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @param text the String of text to be contained in the note.
      */
     public void addNote(String text) {
-        elements.add(new Note(text));
+        notes().add(new Note(text));
     }
 
     /**
@@ -72,7 +75,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @param index the index of the note to be removed.
      */
     public void removeNote(int index) {
-        elements.remove(index);
+        notes().remove(index);
     }
 
     /**
@@ -81,7 +84,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @return the number of elements
      */
     public int sizeOfNotes() {
-        return elements.size();
+        return notes().size();
     }
 
     /**
@@ -91,7 +94,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @return the text of the viewed note
      */
     public String viewNote(int index) {
-        return elements.get(index).viewNote();
+        return notes().get(index).viewNote();
     }
 
     /**
@@ -101,7 +104,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @return a note
      */
     public Note getNote(int index) {
-        return new Note(elements.get(index));
+        return new Note(notes().get(index));
     }
 
     /**
@@ -110,7 +113,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @return the last added note
      */
     public Note getLastAddedNote() {
-        return new Note(elements.get(elements.size() - 1));
+        return new Note(notes().get(notes().size() - 1));
     }
 
     /**
@@ -121,8 +124,8 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @param text  the new text
      */
     public void editNote(int index, String text) {
-        Note note = elements.get(index).withText(text);
-        elements.set(index, note);
+        Note note = notes().get(index).withText(text);
+        notes().set(index, note);
     }
 
     /**
@@ -131,11 +134,47 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
      * @return the list of notes
      */
     public List<Note> getSortedList() {
-        List<Note> list = new ArrayList<>(elements);
+        List<Note> list = new ArrayList<>(notes());
         list.sort(Note::compareTo);
         return list;
     }
 
+    /**
+     * Gives the text of every note. Lazily loaded notes are read without being loaded, so that the texts can be looked
+     * at, such as by a search index, without keeping the notes in memory.
+     *
+     * @return the texts of the notes in the order of the list
+     */
+    public synchronized List<String> viewNotes() {
+        List<Note> notes = elementsLoader != null ? elementsLoader.get() : elements;
+        List<String> texts = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            texts.add(note.viewNote());
+        }
+        return texts;
+    }
+
+    /**
+     * Tells whether the notes have been loaded. Lazily loaded notes are loaded on first access.
+     *
+     * @return true if the notes are loaded
+     */
+    public synchronized boolean isLoaded() {
+        return elementsLoader == null;
+    }
+
+    /**
+     * Returns the list of elements, loading it first if the elements are loaded lazily.
+     *
+     * @return the list of elements
+     */
+    private synchronized List<Note> notes() {
+        if (elementsLoader != null) {
+            elements = new ArrayList<>(elementsLoader.get());
+            elementsLoader = null;
+        }
+        return elements;
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -146,25 +185,36 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
             return false;
         }
         NoteBook noteBook = (NoteBook) o;
-        return elements.equals(noteBook.elements);
+        return notes().equals(noteBook.notes());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(elements);
+        return Objects.hash(notes());
     }
 
     public NoteBook(NotesCache cache) {
-        this.elements = new ArrayList<>(cache.elements);
+        if (cache.elementsLoader != null) {
+            this.elementsLoader = cache.elementsLoader;
+        } else {
+            this.elements = new ArrayList<>(cache.elements);
+        }
     }
 
     public static class NotesCache {
         public List<Note> elements;
+        // Loads the elements on first access in place of elements, if set
+        public Supplier<List<Note>> elementsLoader;
     }
 
-    private NotesCache getCache() {
+    // Lazily loaded elements are left unloaded, the cache carrying their loader in place of the elements.
+    private synchronized NotesCache getCache() {
         NotesCache cache = new NotesCache();
-        cache.elements = new ArrayList<>(this.elements);
+        if (elementsLoader != null) {
+            cache.elementsLoader = elementsLoader;
+        } else {
+            cache.elements = new ArrayList<>(elements);
+        }
         return cache;
     }
 
@@ -176,7 +226,7 @@ public class NoteBook implements ICacheVisitable, IDocumentable {
     @Override
     public String toString() {
         return "Notes{" +
-                "elements=" + elements +
+                "elements=" + notes() +
                 '}';
     }
 }
@@ -0,0 +1,244 @@
+package model.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A search engine organizing the search identities of its content in a Burkhard-Keller tree.
+ * <p>
+ * Every node holds a search identity, and every child is keyed by its distance to the parent. By the triangle
+ * inequality, only children keyed within {@code tol} of the query's distance to the parent can contain results, so
+ * whole subtrees are skipped during a search.
+ * </p>
+ * <p>
+ * The optimal string alignment distance used by {@link SearchEngine} does not satisfy the triangle inequality.
+ * The tree is therefore organized by the unrestricted {@link LevenshteinUtils#damerauDistance} which never exceeds
+ * it, and the nodes found within the tolerance are verified using {@link LevenshteinUtils#distance}. The results are
+ * identical to those of a {@link SearchEngine} over the same content.
+ * </p>
+ * <p>
+ * Content can be added and removed without rebuilding the tree. Removed identities are kept as routing nodes until
+ * they make up half of the tree, at which point the tree is rebuilt.
+ * </p>
+ *
+ * @param <T> the type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ * @see <a href="https://en.wikipedia.org/wiki/BK-tree">The BK-tree Wikipedia article</a>
+ */
+public class BKTreeSearchEngine<T extends ISearchable<String>> implements ISearchIndex<T> {
+
+    private Node<T> root;
+    // The identity each contained object was indexed by
+    private final Map<T, String> indexed = new HashMap<>();
+    // The insertion order of each contained object
+    private final Map<T, Integer> order = new HashMap<>();
+    private int nextOrder;
+    private int nodes;
+    private int emptyNodes;
+
+    /**
+     * Constructs a search engine containing the given content.
+     *
+     * @param searchBase the content to base the search upon
+     */
+    public BKTreeSearchEngine(List<T> searchBase) {
+        for (T elem : searchBase) {
+            add(elem);
+        }
+    }
+
+    @Override
+    public boolean add(T elem) {
+        if (indexed.containsKey(elem)) {
+            return false;
+        }
+        insert(elem, nextOrder++);
+        return true;
+    }
+
+    /**
+     * Inserts an object into the tree using its current search identity.
+     *
+     * @param elem     the object to insert
+     * @param position the position of the object in the search base
+     */
+    private void insert(T elem, int position) {
+        String identity = elem.getSearchIdentity().toLowerCase(Locale.getDefault());
+        indexed.put(elem, identity);
+        order.put(elem, position);
+
+        boolean created = false;
+        if (root == null) {
+            root = new Node<>(identity);
+            nodes++;
+            created = true;
+        }
+        Node<T> node = root;
+        int distance = LevenshteinUtils.damerauDistance(identity, node.identity);
+        while (distance != 0) {
+            Node<T> child = node.children.get(distance);
+            if (child == null) {
+                child = new Node<>(identity);
+                node.children.put(distance, child);
+                nodes++;
+                created = true;
+            }
+            node = child;
+            distance = LevenshteinUtils.damerauDistance(identity, node.identity);
+        }
+        if (!created && node.elements.isEmpty()) {
+            // a routing node left behind by a removal regains content
+            emptyNodes--;
+        }
+        node.elements.add(elem);
+    }
+
+    @Override
+    public boolean remove(T elem) {
+        if (!detach(elem)) {
+            return false;
+        }
+        if (indexed.isEmpty()) {
+            clear();
+        } else if (emptyNodes * 2 > nodes) {
+            rebuild();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean update(T elem) {
+        Integer position = order.get(elem);
+        if (position == null || !detach(elem)) {
+            return false;
+        }
+        insert(elem, position);
+        if (emptyNodes * 2 > nodes) {
+            rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * Removes an object from the node of the identity it was inserted with, leaving the node as a routing node.
+     *
+     * @param elem the object to remove
+     * @return true if the object was removed, false if it was not contained
+     */
+    private boolean detach(T elem) {
+        String identity = indexed.remove(elem);
+        if (identity == null) {
+            return false;
+        }
+        order.remove(elem);
+
+        Node<T> node = root;
+        int distance = LevenshteinUtils.damerauDistance(identity, node.identity);
+        while (distance != 0) {
+            node = node.children.get(distance);
+            distance = LevenshteinUtils.damerauDistance(identity, node.identity);
+        }
+        node.elements.remove(elem);
+        if (node.elements.isEmpty()) {
+            emptyNodes++;
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return indexed.size();
+    }
+
+    /**
+     * Rebuilds the tree from the contained objects, dropping every routing node without content.
+     */
+    private void rebuild() {
+        List<T> content = getSearchBase();
+        clear();
+        for (T elem : content) {
+            add(elem);
+        }
+    }
+
+    private void clear() {
+        root = null;
+        indexed.clear();
+        order.clear();
+        nextOrder = 0;
+        nodes = 0;
+        emptyNodes = 0;
+    }
+
+    /**
+     * Returns a scored result for every object considered relevant to the query, sorted by relevance.
+     * Only subtrees whose distance range overlaps the tolerance are visited.
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a result
+     * @return a sorted list of scored results considered relevant to the query
+     */
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol) {
+        List<SearchResult<T>> results = new ArrayList<>();
+        if (root == null) {
+            return results;
+        }
+        String lowerQuery = query.toLowerCase(Locale.getDefault());
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Interruptions.check();
+            Node<T> node = stack.pop();
+            int distance = LevenshteinUtils.damerauDistance(lowerQuery, node.identity);
+            if (distance <= tol && !node.elements.isEmpty()) {
+                int alignmentDistance = LevenshteinUtils.distance(lowerQuery, node.identity, tol);
+                if (alignmentDistance <= tol) {
+                    for (T elem : node.elements) {
+                        results.add(new SearchResult<>(elem, alignmentDistance, order.get(elem)));
+                    }
+                }
+            }
+            for (Map.Entry<Integer, Node<T>> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= tol) {
+                    stack.push(child.getValue());
+                }
+            }
+        }
+        Collections.sort(results);
+        return results;
+    }
+
+    /**
+     * Returns the contained objects in the order they were added.
+     *
+     * @return a list of the contained objects
+     */
+    @Override
+    public List<T> getSearchBase() {
+        List<T> content = new ArrayList<>(order.keySet());
+        content.sort((t1, t2) -> Integer.compare(order.get(t1), order.get(t2)));
+        return content;
+    }
+
+    /**
+     * A node of the tree containing every object with the node's search identity.
+     *
+     * @param <T> the type of the contained objects
+     */
+    private static class Node<T> {
+        final String identity;
+        final List<T> elements = new ArrayList<>(1);
+        final Map<Integer, Node<T>> children = new HashMap<>();
+
+        Node(String identity) {
+            this.identity = identity;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package model.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A searchable object exposing several weighted fields besides its search identity.
+ * Every field can hold several values, such as every tag or note of a contact.
+ *
+ * @author Simon Johnsson
+ */
+public interface IMultiFieldSearchable extends ISearchable<String> {
+
+    /**
+     * Gives the current values of every searchable field. Fields without values may be left out.
+     *
+     * @return the values of each field
+     */
+    Map<SearchField, List<String>> getSearchFields();
+}
@@ -0,0 +1,22 @@
+package model.search;
+
+import java.util.List;
+
+/**
+ * A tool for completing typed prefixes to the objects whose search identities start with them.
+ *
+ * @param <T> the type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ */
+public interface IPrefixSearchEngine<T extends ISearchable<String>> {
+
+    /**
+     * Returns the most relevant objects with a search identity, or a word in it, starting with the given prefix.
+     * The comparison is case-insensitive.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of objects to return
+     * @return a list of at most {@code limit} objects, most relevant first
+     */
+    List<T> complete(String prefix, int limit);
+}
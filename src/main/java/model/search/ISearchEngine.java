@@ -0,0 +1,106 @@
+package model.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tool for searching a collection of a searchable type using string inputs.
+ * Relevancy is determined using the {@link LevenshteinUtils} distance method, and implementations are free to decide
+ * how candidates are found as long as every object within the tolerance is returned.
+ * Searches give up by throwing a {@link java.util.concurrent.CancellationException} once the thread running them is
+ * interrupted, so that a superseded search does not run to its end.
+ *
+ * @param <T> the type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ */
+public interface ISearchEngine<T extends ISearchable<String>> {
+
+    /**
+     * Returns a scored result for every object considered relevant to the query, sorted by relevance.
+     * The comparison is case-insensitive.
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a result
+     * @return a sorted list of scored results considered relevant to the query
+     */
+    List<SearchResult<T>> searchResults(String query, int tol);
+
+    /**
+     * Returns a list containing every object considered relevant to the query, sorted by relevance.
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a result
+     * @return a list containing results considered relevant to the query
+     */
+    default List<T> search(String query, int tol) {
+        List<SearchResult<T>> scored = searchResults(query, tol);
+        List<T> results = new ArrayList<>(scored.size());
+        for (SearchResult<T> result : scored) {
+            results.add(result.getElement());
+        }
+        return results;
+    }
+
+    /**
+     * Returns the {@code limit} most relevant objects considered relevant to the query, sorted by relevance.
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a result
+     * @param limit the maximum number of results
+     * @return a list containing at most {@code limit} results considered relevant to the query
+     */
+    default List<T> search(String query, int tol, int limit) {
+        List<SearchResult<T>> scored = searchResults(query, tol, limit, null);
+        List<T> results = new ArrayList<>(scored.size());
+        for (SearchResult<T> result : scored) {
+            results.add(result.getElement());
+        }
+        return results;
+    }
+
+    /**
+     * Returns a scored result for the {@code limit} most relevant objects ranked after the given result, sorted by
+     * relevance. Giving the last result of a page returns the following page.
+     * <p>
+     * The default implementation sorts every result before picking the page. Implementations are encouraged to keep
+     * only the best {@code limit} results while searching.
+     * </p>
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a result
+     * @param limit the maximum number of results
+     * @param after the result to continue after, or null to start from the most relevant result
+     * @return a sorted list of at most {@code limit} scored results considered relevant to the query
+     */
+    default List<SearchResult<T>> searchResults(String query, int tol, int limit, SearchResult<T> after) {
+        List<SearchResult<T>> page = new ArrayList<>();
+        for (SearchResult<T> result : searchResults(query, tol)) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (after == null || result.compareTo(after) > 0) {
+                page.add(result);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns a cursor paging through the results of the query, most relevant first.
+     *
+     * @param query    the string to compare the search base to
+     * @param tol      the maximum tolerated edit distance between the query and a result
+     * @param pageSize the number of results of every page
+     * @return a cursor positioned before the first page
+     */
+    default SearchCursor<T> cursor(String query, int tol, int pageSize) {
+        return new SearchCursor<>(this, query, tol, pageSize);
+    }
+
+    /**
+     * Returns the searched content.
+     *
+     * @return a copied list of the search base
+     */
+    List<T> getSearchBase();
+}
@@ -0,0 +1,43 @@
+package model.search;
+
+/**
+ * A search engine whose content can be changed without rebuilding it.
+ *
+ * @param <T> the type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ */
+public interface ISearchIndex<T extends ISearchable<String>> extends ISearchEngine<T> {
+
+    /**
+     * Adds an object to the index using its current search identity.
+     * Objects already contained are ignored.
+     *
+     * @param elem the object to add
+     * @return true if the object was added, false if it was already contained
+     */
+    boolean add(T elem);
+
+    /**
+     * Removes an object from the index. Objects are found by the search identity they were indexed with,
+     * which makes it possible to remove objects whose identity has changed since.
+     *
+     * @param elem the object to remove
+     * @return true if the object was removed, false if it was not contained
+     */
+    boolean remove(T elem);
+
+    /**
+     * Re-indexes an object whose search identity has changed. The object keeps its position in the search base.
+     *
+     * @param elem the object to re-index
+     * @return true if the object was re-indexed, false if it was not contained
+     */
+    boolean update(T elem);
+
+    /**
+     * Returns the number of objects contained in the index.
+     *
+     * @return the number of contained objects
+     */
+    int size();
+}
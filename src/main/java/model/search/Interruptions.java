@@ -0,0 +1,37 @@
+package model.search;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Lets long running searches give up once the thread they run for is interrupted, such as when a newer query
+ * supersedes them.
+ *
+ * @author Simon Johnsson
+ */
+final class Interruptions {
+
+    private Interruptions() {
+    }
+
+    /**
+     * Gives up the search of the current thread if the thread has been interrupted.
+     *
+     * @throws CancellationException if the current thread has been interrupted
+     */
+    static void check() {
+        check(Thread.currentThread());
+    }
+
+    /**
+     * Gives up a search run for the given thread if the thread has been interrupted. The interrupt status of the
+     * thread is left set.
+     *
+     * @param thread the thread the search is run for
+     * @throws CancellationException if the thread has been interrupted
+     */
+    static void check(Thread thread) {
+        if (thread.isInterrupted()) {
+            throw new CancellationException("Search was interrupted");
+        }
+    }
+}
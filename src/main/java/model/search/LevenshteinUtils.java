@@ -28,33 +28,161 @@ final class LevenshteinUtils {
      * @return the edit distance between the two sequences
      */
     public static int distance(CharSequence a, CharSequence b) {
-        //matrix containing operations
-        int[][] d = new int[a.length() + 1][b.length() + 1];
+        return distance(a, b, Math.max(a.length(), b.length()));
+    }
+
+    /**
+     * Gives the <b>Optimal string alignment distance</b> for two sequences of characters if it does not exceed
+     * the given maximum.
+     * <p>
+     * Only the diagonal band of width {@code 2 * max + 1} is evaluated, since cells outside of it are guaranteed
+     * to exceed the maximum. Three rolling rows are used instead of a full matrix, and the calculation is abandoned
+     * as soon as every cell of a row exceeds the maximum.
+     * </p>
+     *
+     * @param a   the source sequence
+     * @param b   the target sequence
+     * @param max the largest distance of interest
+     * @return the edit distance between the two sequences, or {@code max + 1} if it exceeds {@code max}
+     */
+    public static int distance(CharSequence a, CharSequence b, int max) {
+        // Let the shorter sequence define the row length
+        if (a.length() < b.length()) {
+            CharSequence tmp = a;
+            a = b;
+            b = tmp;
+        }
+        int n = a.length();
+        int m = b.length();
+        if (max < 0 || n - m > max) {
+            return max + 1;
+        }
+        // The distance never exceeds the length of the longer sequence, and a larger maximum would overflow the band.
+        max = Math.min(max, n);
+        int exceeded = max + 1;
 
+        // rows i - 2, i - 1 and i of the operation matrix
+        int[] transposed = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
 
-        for (int i = 0; i <= a.length(); i++) {
-            d[i][0] = i;
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : exceeded;
         }
-        for (int j = 0; j <= b.length(); j++) {
-            d[0][j] = j;
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            int rowMin = exceeded;
+
+            current[0] = i <= max ? i : exceeded;
+            if (from > 1) {
+                current[from - 1] = exceeded;
+            } else {
+                rowMin = current[0];
+            }
+
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(previous[j] + 1, //deletion
+                        Math.min(current[j - 1] + 1, //insertion
+                                previous[j - 1] + cost)); // substitution
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, transposed[j - 2] + 1); // transposition
+                }
+                d = Math.min(d, exceeded);
+                current[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (to < m) {
+                current[to + 1] = exceeded;
+            }
+            if (rowMin > max) {
+                return exceeded;
+            }
+
+            int[] tmp = transposed;
+            transposed = previous;
+            previous = current;
+            current = tmp;
         }
+        return previous[m];
+    }
 
-        for (int i = 1; i <= a.length(); i++) {
-            int cost;
-            for (int j = 1; j <= b.length(); j++) {
+    /**
+     * Gives the <b>unrestricted Damerau-Levenshtein distance</b> for two sequences of characters, in which
+     * substrings may be edited after being transposed.
+     * <p>
+     * Unlike the optimal string alignment distance this distance satisfies the triangle inequality, which makes it
+     * usable for metric indexes. It never exceeds the optimal string alignment distance of the same sequences.
+     * </p>
+     *
+     * @param a the source sequence
+     * @param b the target sequence
+     * @return the edit distance between the two sequences
+     * @see <a href="https://en.wikipedia.org/wiki/Damerau%E2%80%93Levenshtein_distance#Distance_with_adjacent_transpositions">
+     * Distance with adjacent transpositions</a>
+     */
+    public static int damerauDistance(CharSequence a, CharSequence b) {
+        int n = a.length();
+        int m = b.length();
+        int infinity = n + m;
+        // the last row each character of the source was seen in, in order of first appearance
+        char[] seen = new char[n];
+        int[] lastRow = new int[n];
+        int seenCount = 0;
+        //matrix containing operations, offset by one to fit the infinity border
+        int[][] d = new int[n + 2][m + 2];
+
+        d[0][0] = infinity;
+        for (int i = 0; i <= n; i++) {
+            d[i + 1][0] = infinity;
+            d[i + 1][1] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[0][j + 1] = infinity;
+            d[1][j + 1] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            // the last column in this row where the characters matched
+            int lastMatchColumn = 0;
+            for (int j = 1; j <= m; j++) {
+                int k = lastRowOf(b.charAt(j - 1), seen, lastRow, seenCount);
+                int l = lastMatchColumn;
+                int cost = 1;
                 if (a.charAt(i - 1) == b.charAt(j - 1)) {
                     cost = 0;
-                } else {
-                    cost = 1;
-                }
-                d[i][j] = Math.min(d[i - 1][j] + 1, //deletion
-                        Math.min(d[i][j - 1] + 1, //insertion
-                                d[i - 1][j - 1] + cost));// substitution
-                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
-                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1); // transposition
+                    lastMatchColumn = j;
                 }
+                d[i + 1][j + 1] = Math.min(d[i][j] + cost, // substitution
+                        Math.min(d[i + 1][j] + 1, // insertion
+                                Math.min(d[i][j + 1] + 1, // deletion
+                                        d[k][l] + (i - k - 1) + 1 + (j - l - 1)))); // transposition
+            }
+            int index = indexOf(a.charAt(i - 1), seen, seenCount);
+            if (index < 0) {
+                index = seenCount++;
+                seen[index] = a.charAt(i - 1);
+            }
+            lastRow[index] = i;
+        }
+        return d[n + 1][m + 1];
+    }
+
+    // Gives the last row the character was seen in, or 0 if it has not been seen.
+    private static int lastRowOf(char c, char[] seen, int[] lastRow, int seenCount) {
+        int index = indexOf(c, seen, seenCount);
+        return index < 0 ? 0 : lastRow[index];
+    }
+
+    // Gives the index of the character among the seen characters, or -1 if it has not been seen.
+    private static int indexOf(char c, char[] seen, int seenCount) {
+        for (int i = 0; i < seenCount; i++) {
+            if (seen[i] == c) {
+                return i;
             }
         }
-        return d[a.length()][b.length()];
+        return -1;
     }
 }
@@ -0,0 +1,398 @@
+package model.search;
+
+import model.ChangeEvent;
+import model.IChangeObservable;
+import model.IChangeObserver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A search engine over an observable collection which keeps its {@link ISearchIndex} up to date with the collection
+ * instead of being rebuilt.
+ * <p>
+ * The changes of the collection are observed. Added and removed objects are added to and removed from the index, and
+ * an object reported as changed is re-indexed on its own if its search identity changed, or any of its fields if it
+ * is an {@link IMultiFieldSearchable}. The other objects are left as they are.
+ * </p>
+ * <p>
+ * Changes are picked up on the thread changing the collection, which publishes an immutable copy of the search
+ * identity and fields of every changed object into a map of pending changes and goes on without waiting for any
+ * search. The map holds the latest copy of each changed object, so it grows with the number of changed objects rather
+ * than the number of changes while nobody searches. The index only holds {@link Indexed} copies, and is only touched by
+ * the searching threads, which take the pending changes and apply them before searching. Changing the collection
+ * thereby never waits for a running search, and a search never reads an object while it is being changed.
+ * </p>
+ * <p>
+ * Added objects are appended to the collection and a removed object is its first occurrence, so the content is tracked
+ * from the changes alone: every change costs the time to update the changed object, not the time to read the
+ * collection. An object may be contained more than once, and is only removed from the index when its last occurrence
+ * is.
+ * </p>
+ * <p>
+ * A {@link PrefixTrie} can be kept up to date alongside the index, allowing the content to be completed as it is typed.
+ * </p>
+ *
+ * @param <T> the observable type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ */
+public class LiveSearchIndex<T extends ISearchable<String>> implements ISearchEngine<T>, IPrefixSearchEngine<T> {
+
+    private final IChangeObservable<T> source;
+    private final IChangeObserver<T> sourceObserver = this::onChanges;
+    // The values and positions of each contained object, only accessed on the thread changing the source
+    private final Map<T, Published> published = new HashMap<>();
+
+    // Guards the pending changes and the search base, which are shared by the thread changing the source and the
+    // searching threads and only held long enough to update or take them
+    private final Object changeLock = new Object();
+    // The values of every object changed since the previous search, the removed ones mapped to REMOVED
+    private Map<T, Values> pending = new LinkedHashMap<>();
+    // The contained objects by the position they were added at, so that they are in the order of the source
+    private final TreeMap<Long, T> searchBase = new TreeMap<>();
+    // The position of the next added object
+    private long nextPosition;
+
+    // Guards the index, the completions and the indexed copies, which only the searching threads access
+    private final Object searchLock = new Object();
+    private final ISearchIndex<Indexed<T>> index;
+    // The completions of the content, null if completion is not supported
+    private final PrefixTrie<Indexed<T>> completions;
+    // The indexed copy of each contained object
+    private final Map<T, Indexed<T>> indexed = new HashMap<>();
+
+    /**
+     * Constructs a search engine over the content of the given source, indexed by an index of the given factory.
+     *
+     * @param source       the collection to observe the changes of
+     * @param content      gives the current content of the source
+     * @param indexFactory creates the index of the copies of the initial content
+     */
+    public LiveSearchIndex(IChangeObservable<T> source, Supplier<List<T>> content,
+                           Function<List<Indexed<T>>, ISearchIndex<Indexed<T>>> indexFactory) {
+        this(source, content, indexFactory, null);
+    }
+
+    /**
+     * Constructs a search engine over the content of the given source, indexed by an index of the given factory and
+     * completed by a trie of the given factory.
+     *
+     * @param source            the collection to observe the changes of
+     * @param content           gives the current content of the source
+     * @param indexFactory      creates the index of the copies of the initial content
+     * @param completionFactory creates the trie completing the copies of the initial content, or null if completion
+     *                          is not supported
+     */
+    public LiveSearchIndex(IChangeObservable<T> source, Supplier<List<T>> content,
+                           Function<List<Indexed<T>>, ISearchIndex<Indexed<T>>> indexFactory,
+                           Function<List<Indexed<T>>, PrefixTrie<Indexed<T>>> completionFactory) {
+        this.source = source;
+        List<T> initial = content.get();
+        List<Indexed<T>> copies = new ArrayList<>(initial.size());
+        for (T elem : initial) {
+            Published entry = published.get(elem);
+            if (entry == null) {
+                entry = new Published(Values.of(elem));
+                published.put(elem, entry);
+                Indexed<T> copy = new Indexed<>(elem, entry.values);
+                indexed.put(elem, copy);
+                copies.add(copy);
+            }
+            entry.positions.add(nextPosition);
+            searchBase.put(nextPosition++, elem);
+        }
+        this.index = indexFactory.apply(copies);
+        this.completions = completionFactory == null ? null : completionFactory.apply(copies);
+        source.subscribeChanges(sourceObserver);
+    }
+
+    /**
+     * Publishes the objects added to and removed from the source, and the changed objects.
+     *
+     * @param changes the changes of the source
+     */
+    private void onChanges(List<ChangeEvent<T>> changes) {
+        for (ChangeEvent<T> change : changes) {
+            switch (change.getType()) {
+                case ADDED:
+                    onElementAdded(change.getEntity());
+                    break;
+                case REMOVED:
+                    onElementRemoved(change.getEntity());
+                    break;
+                default:
+                    onElementChanged(change.getEntity());
+            }
+        }
+    }
+
+    /**
+     * Adds the given object at the end of the search base, and publishes it unless it was already contained.
+     *
+     * @param elem the added object
+     */
+    private void onElementAdded(T elem) {
+        Published entry = published.get(elem);
+        boolean contained = entry != null;
+        if (!contained) {
+            entry = new Published(Values.of(elem));
+            published.put(elem, entry);
+        }
+        synchronized (changeLock) {
+            entry.positions.add(nextPosition);
+            searchBase.put(nextPosition++, elem);
+            if (!contained) {
+                pending.put(elem, entry.values);
+            }
+        }
+    }
+
+    /**
+     * Removes the first occurrence of the given object from the search base, as the source does, and publishes its
+     * removal once it is no longer contained at all.
+     *
+     * @param elem the removed object
+     */
+    private void onElementRemoved(T elem) {
+        Published entry = published.get(elem);
+        if (entry == null) {
+            return;
+        }
+        synchronized (changeLock) {
+            searchBase.remove(entry.positions.poll());
+            if (entry.positions.isEmpty()) {
+                published.remove(elem);
+                pending.put(elem, Values.REMOVED);
+            }
+        }
+    }
+
+    /**
+     * Publishes the given object if its search identity or fields have changed, reading the values of that object
+     * alone.
+     *
+     * @param elem the changed object
+     */
+    private void onElementChanged(T elem) {
+        Published entry = published.get(elem);
+        if (entry == null) {
+            return;
+        }
+        Values values = Values.of(elem);
+        if (!values.equals(entry.values)) {
+            entry.values = values;
+            synchronized (changeLock) {
+                pending.put(elem, values);
+            }
+        }
+    }
+
+    /**
+     * Applies every change published since the previous search to the index. Must hold the search lock.
+     */
+    private void catchUp() {
+        Map<T, Values> changes;
+        synchronized (changeLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = pending;
+            pending = new LinkedHashMap<>();
+        }
+        for (Map.Entry<T, Values> change : changes.entrySet()) {
+            apply(change.getKey(), change.getValue());
+        }
+    }
+
+    private void apply(T elem, Values values) {
+        Indexed<T> copy = indexed.get(elem);
+        if (values == Values.REMOVED) {
+            if (copy != null) {
+                indexed.remove(elem);
+                index.remove(copy);
+                if (completions != null) {
+                    completions.remove(copy);
+                }
+            }
+        } else if (copy == null) {
+            copy = new Indexed<>(elem, values);
+            indexed.put(elem, copy);
+            index.add(copy);
+            if (completions != null) {
+                completions.add(copy);
+            }
+        } else {
+            copy.values = values;
+            index.update(copy);
+            if (completions != null) {
+                completions.update(copy);
+            }
+        }
+    }
+
+    /**
+     * Stops observing the source. The index keeps the content it had when closed.
+     */
+    public void close() {
+        source.unSubscribeChanges(sourceObserver);
+    }
+
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol) {
+        synchronized (searchLock) {
+            catchUp();
+            return elementsOf(index.searchResults(query, tol));
+        }
+    }
+
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol, int limit, SearchResult<T> after) {
+        // Results are ranked by their score, distance and order alone, so the copy of the element is not needed.
+        SearchResult<Indexed<T>> indexedAfter = after == null ? null
+                : new SearchResult<>(null, after.getDistance(), after.getScore(), after.getOrder());
+        synchronized (searchLock) {
+            catchUp();
+            return elementsOf(index.searchResults(query, tol, limit, indexedAfter));
+        }
+    }
+
+    /**
+     * Returns the most relevant objects with a search identity, or a word in it, starting with the given prefix.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of objects to return
+     * @return a list of at most {@code limit} objects, most relevant first
+     * @throws IllegalStateException if the engine was constructed without a completion trie
+     */
+    @Override
+    public List<T> complete(String prefix, int limit) {
+        if (completions == null) {
+            throw new IllegalStateException("Search index does not support completion");
+        }
+        synchronized (searchLock) {
+            catchUp();
+            List<T> results = new ArrayList<>();
+            for (Indexed<T> copy : completions.complete(prefix, limit)) {
+                results.add(copy.element);
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Returns the contained objects in the order of the source, without waiting for a running search.
+     *
+     * @return a copied list of the contained objects
+     */
+    @Override
+    public List<T> getSearchBase() {
+        synchronized (changeLock) {
+            return new ArrayList<>(searchBase.values());
+        }
+    }
+
+    private static <T> List<SearchResult<T>> elementsOf(List<SearchResult<Indexed<T>>> results) {
+        List<SearchResult<T>> elements = new ArrayList<>(results.size());
+        for (SearchResult<Indexed<T>> result : results) {
+            elements.add(new SearchResult<>(result.getElement().element, result.getDistance(), result.getScore(),
+                    result.getOrder()));
+        }
+        return elements;
+    }
+
+    /**
+     * The indexed copy of a contained object, holding the search identity and fields the object was last published
+     * with. Copies are only read and updated by the searching threads.
+     *
+     * @param <T> the type of the copied object
+     */
+    public static final class Indexed<T> implements IMultiFieldSearchable {
+        private final T element;
+        private Values values;
+
+        private Indexed(T element, Values values) {
+            this.element = element;
+            this.values = values;
+        }
+
+        /**
+         * Returns the copied object.
+         *
+         * @return the object
+         */
+        public T getElement() {
+            return element;
+        }
+
+        @Override
+        public String getSearchIdentity() {
+            return values.identity;
+        }
+
+        @Override
+        public Map<SearchField, List<String>> getSearchFields() {
+            return values.fields;
+        }
+    }
+
+    // The values a contained object was last published with, and the positions it is contained at in the search base,
+    // oldest first.
+    private static final class Published {
+        private Values values;
+        private final ArrayDeque<Long> positions = new ArrayDeque<>();
+
+        private Published(Values values) {
+            this.values = values;
+        }
+    }
+
+    // The search identity and fields of an object at the time it was published.
+    private static final class Values {
+        // Marks an object which was removed.
+        private static final Values REMOVED = new Values(null, Collections.emptyMap());
+
+        private final String identity;
+        private final Map<SearchField, List<String>> fields;
+
+        private Values(String identity, Map<SearchField, List<String>> fields) {
+            this.identity = identity;
+            this.fields = fields;
+        }
+
+        static Values of(ISearchable<String> elem) {
+            Map<SearchField, List<String>> fields = new HashMap<>();
+            if (elem instanceof IMultiFieldSearchable) {
+                for (Map.Entry<SearchField, List<String>> field : ((IMultiFieldSearchable) elem).getSearchFields().entrySet()) {
+                    fields.put(field.getKey(), Collections.unmodifiableList(new ArrayList<>(field.getValue())));
+                }
+            }
+            return new Values(elem.getSearchIdentity(), Collections.unmodifiableMap(fields));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Values)) {
+                return false;
+            }
+            Values other = (Values) o;
+            return Objects.equals(identity, other.identity) && fields.equals(other.fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identity, fields);
+        }
+    }
+}
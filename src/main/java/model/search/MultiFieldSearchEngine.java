@@ -0,0 +1,429 @@
+package model.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * A search engine ranking its content by the combined score of the search identity and every
+ * {@link SearchField} of the objects.
+ * <p>
+ * The search identity is matched within the tolerance using an {@link NGramSearchEngine}, scoring the field weight
+ * of the identity for an exact match and less the further the identity is from the query. Every other field is kept
+ * in an index of its own, mapping the keys of the field values to the objects containing them. A field scores its
+ * weight times the share of query keys it matches, and the score of an object is the sum over every field.
+ * Objects matched by at least one field are results.
+ * </p>
+ * <p>
+ * Removed objects are only marked as removed in the field indexes, which are compacted once the removed objects
+ * outnumber the contained ones.
+ * </p>
+ *
+ * @param <T> the type to search through which must implement IMultiFieldSearchable
+ * @author Simon Johnsson
+ */
+public class MultiFieldSearchEngine<T extends IMultiFieldSearchable> implements ISearchIndex<T> {
+
+    private static final double DEFAULT_IDENTITY_WEIGHT = 2;
+    // The fewest digits a query needs to be matched to digit fields
+    private static final int MIN_DIGITS = 3;
+
+    private final double identityWeight;
+    private final NGramSearchEngine<T> identityIndex;
+    // The indexed objects positioned by id, null if removed
+    private final List<T> elements = new ArrayList<>();
+    // The position in the search base of each object, positioned by id
+    private final List<Integer> orders = new ArrayList<>();
+    // The id of each contained object
+    private final Map<T, Integer> ids = new HashMap<>();
+    // The index of each field found in the content
+    private final Map<SearchField, FieldIndex> fields = new LinkedHashMap<>();
+    private int nextOrder;
+
+    /**
+     * Constructs a search engine containing the given content, weighting the search identity as 2.
+     *
+     * @param searchBase the content to base the search upon
+     */
+    public MultiFieldSearchEngine(List<T> searchBase) {
+        this(searchBase, DEFAULT_IDENTITY_WEIGHT);
+    }
+
+    /**
+     * Constructs a search engine containing the given content, weighting the search identity as given.
+     *
+     * @param searchBase     the content to base the search upon
+     * @param identityWeight the score of a result whose search identity equals the query
+     */
+    public MultiFieldSearchEngine(List<T> searchBase, double identityWeight) {
+        if (identityWeight <= 0) {
+            throw new IllegalArgumentException("Field weights must be positive");
+        }
+        this.identityWeight = identityWeight;
+        this.identityIndex = new NGramSearchEngine<>(new ArrayList<>());
+        for (T elem : searchBase) {
+            add(elem);
+        }
+    }
+
+    @Override
+    public boolean add(T elem) {
+        if (ids.containsKey(elem)) {
+            return false;
+        }
+        index(elem, nextOrder++);
+        identityIndex.add(elem);
+        return true;
+    }
+
+    @Override
+    public boolean remove(T elem) {
+        Integer id = ids.remove(elem);
+        if (id == null) {
+            return false;
+        }
+        discard(id);
+        identityIndex.remove(elem);
+        return true;
+    }
+
+    /**
+     * Re-indexes an object whose search identity or fields have changed. The object keeps its position in the search
+     * base.
+     *
+     * @param elem the object to re-index
+     * @return true if the object was re-indexed, false if it was not contained
+     */
+    @Override
+    public boolean update(T elem) {
+        // The object is taken out before discarding its old id, so that a compaction does not index it as well.
+        Integer id = ids.remove(elem);
+        if (id == null) {
+            return false;
+        }
+        int position = orders.get(id);
+        discard(id);
+        index(elem, position);
+        identityIndex.update(elem);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Marks the object with the given id as removed, and compacts the field indexes if removed objects outnumber the
+     * contained ones.
+     *
+     * @param id the id of the removed object
+     */
+    private void discard(int id) {
+        elements.set(id, null);
+        if (elements.size() - ids.size() > ids.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rebuilds the field indexes from the contained objects, dropping every removed id.
+     */
+    private void compact() {
+        List<T> content = getSearchBase();
+        List<Integer> positions = new ArrayList<>(content.size());
+        for (T elem : content) {
+            positions.add(orders.get(ids.get(elem)));
+        }
+        elements.clear();
+        orders.clear();
+        ids.clear();
+        fields.clear();
+        for (int i = 0; i < content.size(); i++) {
+            index(content.get(i), positions.get(i));
+        }
+    }
+
+    /**
+     * Adds the fields of the given object to the field indexes, giving it the next id.
+     *
+     * @param elem     the object to index
+     * @param position the position of the object in the search base
+     */
+    private void index(T elem, int position) {
+        int id = elements.size();
+        elements.add(elem);
+        orders.add(position);
+        ids.put(elem, id);
+        for (Map.Entry<SearchField, List<String>> field : elem.getSearchFields().entrySet()) {
+            Set<String> keys = new LinkedHashSet<>();
+            for (String value : field.getValue()) {
+                keys.addAll(keysOf(field.getKey().getMatching(), value));
+            }
+            if (keys.isEmpty()) {
+                continue;
+            }
+            FieldIndex fieldIndex = fields.computeIfAbsent(field.getKey(), FieldIndex::new);
+            for (String key : keys) {
+                fieldIndex.postings.computeIfAbsent(key, k -> new Postings()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Returns a scored result for every object matched by its search identity or any of its fields, sorted by
+     * combined score.
+     * <p>
+     * The distance of a result is the distance of its search identity to the query, or {@code tol + 1} if the
+     * identity did not match.
+     * </p>
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a search identity
+     * @return a sorted list of scored results considered relevant to the query
+     */
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol) {
+        List<SearchResult<T>> results = new ArrayList<>();
+        score(query, tol, results::add);
+        Collections.sort(results);
+        return results;
+    }
+
+    /**
+     * Returns a scored result for the {@code limit} most relevant objects ranked after the given result, sorted by
+     * combined score.
+     * <p>
+     * Only the best {@code limit} results are kept while scoring, in a heap with the worst of them on top, so a page
+     * costs O(m log k) over the m matched objects instead of sorting every match.
+     * </p>
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a search identity
+     * @param limit the maximum number of results
+     * @param after the result to continue after, or null to start from the most relevant result
+     * @return a sorted list of at most {@code limit} scored results considered relevant to the query
+     */
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol, int limit, SearchResult<T> after) {
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<SearchResult<T>> worstFirst = new PriorityQueue<>(Collections.reverseOrder());
+        score(query, tol, result -> {
+            if (after != null && result.compareTo(after) <= 0) {
+                return;
+            }
+            if (worstFirst.size() < limit) {
+                worstFirst.add(result);
+            } else if (result.compareTo(worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(result);
+            }
+        });
+        List<SearchResult<T>> page = new ArrayList<>(worstFirst);
+        Collections.sort(page);
+        return page;
+    }
+
+    /**
+     * Scores every object matched by its search identity or any of its fields, passing a result for each to the
+     * given consumer in no particular order.
+     *
+     * @param query   the string to compare the search base to
+     * @param tol     the maximum tolerated edit distance between the query and a search identity
+     * @param results receives the result of every matched object
+     */
+    private void score(String query, int tol, Consumer<SearchResult<T>> results) {
+        int count = elements.size();
+        double[] scores = new double[count];
+        int[] distances = new int[count];
+        boolean[] found = new boolean[count];
+        List<Integer> foundIds = new ArrayList<>();
+
+        for (SearchResult<T> result : identityIndex.searchResults(query, tol)) {
+            int id = ids.get(result.getElement());
+            found[id] = true;
+            foundIds.add(id);
+            distances[id] = result.getDistance();
+            scores[id] += identityWeight * (tol + 1 - result.getDistance()) / (tol + 1);
+        }
+
+        int[] matches = new int[count];
+        int[] lastKey = new int[count];
+        int keyNumber = 0;
+        for (FieldIndex fieldIndex : fields.values()) {
+            SearchField field = fieldIndex.field;
+            List<String> keys = queryKeysOf(field.getMatching(), query);
+            if (keys.isEmpty()) {
+                continue;
+            }
+            List<Integer> matched = new ArrayList<>();
+            for (String key : keys) {
+                keyNumber++;
+                for (Postings postings : fieldIndex.lookup(key)) {
+                    Interruptions.check();
+                    for (int i = 0; i < postings.size; i++) {
+                        int id = postings.ids[i];
+                        if (elements.get(id) == null || lastKey[id] == keyNumber) {
+                            continue;
+                        }
+                        lastKey[id] = keyNumber;
+                        if (matches[id] == 0) {
+                            matched.add(id);
+                        }
+                        matches[id]++;
+                    }
+                }
+            }
+            for (int id : matched) {
+                if (!found[id]) {
+                    found[id] = true;
+                    foundIds.add(id);
+                    distances[id] = tol + 1;
+                }
+                scores[id] += field.getWeight() * matches[id] / keys.size();
+                matches[id] = 0;
+            }
+        }
+
+        for (int id : foundIds) {
+            results.accept(new SearchResult<>(elements.get(id), distances[id], scores[id], orders.get(id)));
+        }
+    }
+
+    /**
+     * Returns the contained objects in the order of the search base.
+     *
+     * @return a list of the contained objects
+     */
+    @Override
+    public List<T> getSearchBase() {
+        List<T> content = new ArrayList<>(ids.keySet());
+        content.sort((t1, t2) -> Integer.compare(orders.get(ids.get(t1)), orders.get(ids.get(t2))));
+        return content;
+    }
+
+    /**
+     * Splits a field value into the keys it is indexed by.
+     *
+     * @param matching the matching of the field
+     * @param value    the value to split
+     * @return the keys of the value
+     */
+    private static Collection<String> keysOf(SearchField.Matching matching, String value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        switch (matching) {
+            case DIGITS:
+                String digits = digitsOf(value);
+                return digits.isEmpty() ? Collections.emptyList() : Collections.singletonList(digits);
+            case KEYWORD:
+                String keyword = value.trim().toLowerCase(Locale.getDefault());
+                return keyword.isEmpty() ? Collections.emptyList() : Collections.singletonList(keyword);
+            default:
+                return tokensOf(value);
+        }
+    }
+
+    /**
+     * Splits a query into the keys it is matched to a field by.
+     *
+     * @param matching the matching of the field
+     * @param query    the query to split
+     * @return the distinct keys of the query, empty if the query cannot match the field
+     */
+    private static List<String> queryKeysOf(SearchField.Matching matching, String query) {
+        if (matching == SearchField.Matching.DIGITS) {
+            for (int i = 0; i < query.length(); i++) {
+                if (Character.isLetter(query.charAt(i))) {
+                    return Collections.emptyList();
+                }
+            }
+            String digits = digitsOf(query);
+            return digits.length() < MIN_DIGITS ? Collections.emptyList() : Collections.singletonList(digits);
+        }
+        return new ArrayList<>(new LinkedHashSet<>(keysOf(matching, query)));
+    }
+
+    private static String digitsOf(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isDigit(value.charAt(i))) {
+                digits.append(value.charAt(i));
+            }
+        }
+        return digits.toString();
+    }
+
+    private static List<String> tokensOf(String value) {
+        List<String> tokens = new ArrayList<>();
+        String lower = value.toLowerCase(Locale.getDefault());
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * The keys of the values of a field, each mapped to the ids of the objects containing it.
+     */
+    private static class FieldIndex {
+        final SearchField field;
+        final TreeMap<String, Postings> postings = new TreeMap<>();
+
+        FieldIndex(SearchField field) {
+            this.field = field;
+        }
+
+        /**
+         * Returns the postings of every key matched by the given query key. Digits and tokens are matched by their
+         * prefixes, while keywords and text are matched exactly.
+         *
+         * @param key the query key
+         * @return the postings of the matched keys
+         */
+        Collection<Postings> lookup(String key) {
+            SearchField.Matching matching = field.getMatching();
+            if (matching == SearchField.Matching.DIGITS || matching == SearchField.Matching.TOKENS) {
+                return postings.subMap(key, true, key + Character.MAX_VALUE, false).values();
+            }
+            Postings exact = postings.get(key);
+            return exact == null ? Collections.emptyList() : Collections.singletonList(exact);
+        }
+    }
+
+    /**
+     * The ids of the objects containing a key.
+     */
+    private static class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
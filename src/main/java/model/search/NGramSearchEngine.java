@@ -0,0 +1,291 @@
+package model.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A search engine keeping an inverted index of the n-grams contained in the search identities of its content.
+ * <p>
+ * Identities are padded with {@code n - 1} boundary characters on both sides and split into overlapping n-grams.
+ * A single edit operation can change at most {@code n} of those n-grams, and a transposition at most {@code n + 1}.
+ * Two sequences within {@code tol} edits of each other therefore share at least
+ * {@code |query| + n - 1 - tol * (n + 1)} n-grams (the q-gram count lemma), so only objects sharing that many
+ * n-grams with the query, and differing at most {@code tol} in length, are compared using {@link LevenshteinUtils}.
+ * </p>
+ * <p>
+ * When the tolerance is large compared to the query the lemma cannot exclude anything, and the engine falls back to
+ * comparing every object passing the length filter.
+ * </p>
+ * <p>
+ * Removed objects are only marked as removed in the posting lists, which are compacted once the removed objects
+ * outnumber the contained ones.
+ * </p>
+ *
+ * @param <T> the type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ */
+public class NGramSearchEngine<T extends ISearchable<String>> implements ISearchIndex<T> {
+
+    private static final int DEFAULT_GRAM_LENGTH = 2;
+    private static final char START_PADDING = '\u0002';
+    private static final char END_PADDING = '\u0003';
+
+    private final int gramLength;
+    // The indexed objects positioned by id, null if removed
+    private final List<T> elements = new ArrayList<>();
+    // The lower case search identities, positioned by id
+    private final List<String> identities = new ArrayList<>();
+    // The position in the search base of each object, positioned by id
+    private final List<Integer> orders = new ArrayList<>();
+    // The id of each contained object
+    private final Map<T, Integer> ids = new HashMap<>();
+    // The ids of the objects containing each n-gram
+    private final Map<String, Postings> index = new HashMap<>();
+    private int nextOrder;
+
+    /**
+     * Constructs a search engine indexing the given content using bigrams.
+     *
+     * @param searchBase the content to base the search upon
+     */
+    public NGramSearchEngine(List<T> searchBase) {
+        this(searchBase, DEFAULT_GRAM_LENGTH);
+    }
+
+    /**
+     * Constructs a search engine indexing the given content using n-grams of the given length.
+     * Shorter n-grams exclude candidates at higher tolerances, while longer n-grams give shorter posting lists.
+     *
+     * @param searchBase the content to base the search upon
+     * @param gramLength the length of the indexed n-grams
+     */
+    public NGramSearchEngine(List<T> searchBase, int gramLength) {
+        if (gramLength < 1) {
+            throw new IllegalArgumentException("N-grams must contain at least one character");
+        }
+        this.gramLength = gramLength;
+        for (T elem : searchBase) {
+            add(elem);
+        }
+    }
+
+    @Override
+    public boolean add(T elem) {
+        if (ids.containsKey(elem)) {
+            return false;
+        }
+        index(elem, nextOrder++);
+        return true;
+    }
+
+    @Override
+    public boolean remove(T elem) {
+        Integer id = ids.remove(elem);
+        if (id == null) {
+            return false;
+        }
+        discard(id);
+        return true;
+    }
+
+    @Override
+    public boolean update(T elem) {
+        // The object is taken out before discarding its old id, so that a compaction does not index it as well.
+        Integer id = ids.remove(elem);
+        if (id == null) {
+            return false;
+        }
+        int position = orders.get(id);
+        discard(id);
+        index(elem, position);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Marks the object with the given id as removed, and compacts the index if removed objects outnumber the
+     * contained ones.
+     *
+     * @param id the id of the removed object
+     */
+    private void discard(int id) {
+        elements.set(id, null);
+        identities.set(id, null);
+        if (elements.size() - ids.size() > ids.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the contained objects, dropping every removed id.
+     */
+    private void compact() {
+        List<T> content = getSearchBase();
+        List<Integer> positions = new ArrayList<>(content.size());
+        for (T elem : content) {
+            positions.add(orders.get(ids.get(elem)));
+        }
+        elements.clear();
+        identities.clear();
+        orders.clear();
+        ids.clear();
+        index.clear();
+        for (int i = 0; i < content.size(); i++) {
+            index(content.get(i), positions.get(i));
+        }
+    }
+
+    /**
+     * Adds the given object to the index, giving it the next id.
+     *
+     * @param elem     the object to index
+     * @param position the position of the object in the search base
+     */
+    private void index(T elem, int position) {
+        int id = elements.size();
+        String identity = elem.getSearchIdentity().toLowerCase(Locale.getDefault());
+        elements.add(elem);
+        identities.add(identity);
+        orders.add(position);
+        ids.put(elem, id);
+        for (Map.Entry<String, Integer> gram : grams(identity).entrySet()) {
+            index.computeIfAbsent(gram.getKey(), g -> new Postings()).add(id, gram.getValue());
+        }
+    }
+
+    /**
+     * Splits the padded sequence into n-grams and counts the occurrences of each.
+     *
+     * @param sequence the sequence to split
+     * @return the number of occurrences of each n-gram
+     */
+    private Map<String, Integer> grams(String sequence) {
+        StringBuilder padded = new StringBuilder(sequence.length() + 2 * (gramLength - 1));
+        for (int i = 1; i < gramLength; i++) {
+            padded.append(START_PADDING);
+        }
+        padded.append(sequence);
+        for (int i = 1; i < gramLength; i++) {
+            padded.append(END_PADDING);
+        }
+
+        Map<String, Integer> grams = new HashMap<>();
+        for (int i = 0; i + gramLength <= padded.length(); i++) {
+            grams.merge(padded.substring(i, i + gramLength), 1, Integer::sum);
+        }
+        return grams;
+    }
+
+    /**
+     * Returns a scored result for every object considered relevant to the query, sorted by relevance.
+     * <p>
+     * Candidates are gathered from the n-gram index and verified using the bounded {@link LevenshteinUtils}
+     * distance, giving the same results as a {@link SearchEngine} over the same content.
+     * </p>
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the maximum tolerated edit distance between the query and a result
+     * @return a sorted list of scored results considered relevant to the query
+     */
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol) {
+        String lowerQuery = query.toLowerCase(Locale.getDefault());
+        int minCommon = lowerQuery.length() + gramLength - 1 - tol * (gramLength + 1);
+        List<SearchResult<T>> results = new ArrayList<>();
+
+        if (minCommon <= 0) {
+            for (int id = 0; id < elements.size(); id++) {
+                Interruptions.check();
+                verify(id, lowerQuery, tol, results);
+            }
+        } else {
+            int[] common = new int[elements.size()];
+            List<Integer> candidates = new ArrayList<>();
+            for (Map.Entry<String, Integer> gram : grams(lowerQuery).entrySet()) {
+                Postings postings = index.get(gram.getKey());
+                if (postings == null) {
+                    continue;
+                }
+                Interruptions.check();
+                for (int i = 0; i < postings.size; i++) {
+                    int id = postings.ids[i];
+                    if (elements.get(id) == null) {
+                        continue;
+                    }
+                    if (common[id] == 0) {
+                        candidates.add(id);
+                    }
+                    common[id] += Math.min(gram.getValue(), postings.counts[i]);
+                }
+            }
+            for (int id : candidates) {
+                Interruptions.check();
+                if (common[id] >= minCommon) {
+                    verify(id, lowerQuery, tol, results);
+                }
+            }
+        }
+
+        Collections.sort(results);
+        return results;
+    }
+
+    /**
+     * Adds the object with the given id to the results if it is within the tolerance of the query.
+     *
+     * @param id      the id of the candidate
+     * @param query   the lower case query
+     * @param tol     the maximum tolerated edit distance
+     * @param results the results to add to
+     */
+    private void verify(int id, String query, int tol, List<SearchResult<T>> results) {
+        String identity = identities.get(id);
+        if (identity == null || Math.abs(identity.length() - query.length()) > tol) {
+            return;
+        }
+        int distance = LevenshteinUtils.distance(query, identity, tol);
+        if (distance <= tol) {
+            results.add(new SearchResult<>(elements.get(id), distance, orders.get(id)));
+        }
+    }
+
+    /**
+     * Returns the contained objects in the order of the search base.
+     *
+     * @return a list of the contained objects
+     */
+    @Override
+    public List<T> getSearchBase() {
+        List<T> content = new ArrayList<>(ids.keySet());
+        content.sort((t1, t2) -> Integer.compare(orders.get(ids.get(t1)), orders.get(ids.get(t2))));
+        return content;
+    }
+
+    /**
+     * The ids of the objects containing an n-gram, along with the number of occurrences in each object.
+     */
+    private static class Postings {
+        int[] ids = new int[2];
+        int[] counts = new int[2];
+        int size;
+
+        void add(int id, int count) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            ids[size] = id;
+            counts[size] = count;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package model.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compact radix trie completing prefixes of search identities.
+ * <p>
+ * Every object is indexed under its whole search identity and under every word boundary within it, so that a prefix
+ * matches both the start of the identity and the start of any later word. Every node caches the most relevant
+ * objects of its subtree, which makes a completion a walk down the prefix followed by a read of the cache.
+ * </p>
+ * <p>
+ * Objects matching at the start of their identity are considered more relevant than those matching a later word.
+ * Shorter identities are considered more relevant than longer ones, and remaining ties keep the order the objects were
+ * added in.
+ * </p>
+ *
+ * @param <T> the type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ */
+public class PrefixTrie<T extends ISearchable<String>> implements IPrefixSearchEngine<T> {
+
+    private static final int DEFAULT_CACHE_SIZE = 20;
+
+    private final int cacheSize;
+    private final Node<T> root = new Node<>("");
+    // The keys each contained object was indexed with
+    private final Map<T, List<String>> keys = new HashMap<>();
+    // The insertion order of each contained object
+    private final Map<T, Integer> order = new HashMap<>();
+    private int nextOrder;
+
+    private final Comparator<Entry<T>> relevance = Comparator.<Entry<T>>comparingInt(e -> e.leading ? 0 : 1)
+            .thenComparingInt(e -> e.length)
+            .thenComparingInt(e -> e.order);
+
+    /**
+     * Constructs a trie containing the given content, caching the 20 most relevant objects of every prefix.
+     *
+     * @param searchBase the content to complete prefixes to
+     */
+    public PrefixTrie(List<T> searchBase) {
+        this(searchBase, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a trie containing the given content, caching the given number of objects for every prefix.
+     *
+     * @param searchBase the content to complete prefixes to
+     * @param cacheSize  the maximum number of objects a completion can return
+     */
+    public PrefixTrie(List<T> searchBase, int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Completions must be able to contain at least one result");
+        }
+        this.cacheSize = cacheSize;
+        for (T elem : searchBase) {
+            add(elem);
+        }
+    }
+
+    /**
+     * Adds an object to the trie using its current search identity.
+     * Objects already contained are ignored.
+     *
+     * @param elem the object to add
+     * @return true if the object was added, false if it was already contained
+     */
+    public boolean add(T elem) {
+        if (keys.containsKey(elem)) {
+            return false;
+        }
+        insert(elem, nextOrder++);
+        return true;
+    }
+
+    /**
+     * Removes an object from the trie, found by the search identity it was added with.
+     *
+     * @param elem the object to remove
+     * @return true if the object was removed, false if it was not contained
+     */
+    public boolean remove(T elem) {
+        List<String> elemKeys = keys.remove(elem);
+        if (elemKeys == null) {
+            return false;
+        }
+        order.remove(elem);
+        for (String key : elemKeys) {
+            delete(elem, key);
+        }
+        return true;
+    }
+
+    /**
+     * Re-indexes an object whose search identity has changed. The object keeps its insertion order.
+     *
+     * @param elem the object to re-index
+     * @return true if the object was re-indexed, false if it was not contained
+     */
+    public boolean update(T elem) {
+        Integer position = order.get(elem);
+        if (position == null) {
+            return false;
+        }
+        remove(elem);
+        insert(elem, position);
+        return true;
+    }
+
+    /**
+     * Returns the number of objects contained in the trie.
+     *
+     * @return the number of contained objects
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the most relevant objects with a search identity, or a word in it, starting with the given prefix.
+     * At most as many objects as the trie caches per prefix are returned.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of objects to return
+     * @return a list of at most {@code limit} objects, most relevant first
+     */
+    @Override
+    public List<T> complete(String prefix, int limit) {
+        String key = prefix.toLowerCase(Locale.getDefault());
+        Node<T> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node<T> child = node.children.get(key.charAt(i));
+            if (child == null) {
+                return new ArrayList<>();
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (i + common == key.length()) {
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return new ArrayList<>();
+            }
+            node = child;
+            i += common;
+        }
+
+        List<T> results = new ArrayList<>();
+        for (Entry<T> entry : cacheOf(node)) {
+            if (results.size() == limit) {
+                break;
+            }
+            results.add(entry.element);
+        }
+        return results;
+    }
+
+    /**
+     * Indexes the object under its identity and every word boundary in it.
+     *
+     * @param elem     the object to index
+     * @param position the insertion order of the object
+     */
+    private void insert(T elem, int position) {
+        String identity = elem.getSearchIdentity().toLowerCase(Locale.getDefault());
+        List<String> elemKeys = new ArrayList<>();
+        for (int start = 0; start < identity.length(); start++) {
+            boolean wordStart = !Character.isWhitespace(identity.charAt(start))
+                    && (start == 0 || Character.isWhitespace(identity.charAt(start - 1)));
+            if (wordStart) {
+                String key = identity.substring(start);
+                elemKeys.add(key);
+                insert(key, new Entry<>(elem, start == 0, identity.length(), position));
+            }
+        }
+        keys.put(elem, elemKeys);
+        order.put(elem, position);
+    }
+
+    /**
+     * Inserts an entry under the given key, splitting edges where needed, and offers it to the caches on the way.
+     *
+     * @param key   the key to insert the entry under
+     * @param entry the entry to insert
+     */
+    private void insert(String key, Entry<T> entry) {
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            path.add(node);
+            Node<T> child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node<>(key.substring(i));
+                node.children.put(child.label.charAt(0), child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // split the edge at the end of the common prefix
+                Node<T> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                middle.cache = child.cache == null ? null : new ArrayList<>(child.cache);
+                node.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        path.add(node);
+        node.terminals.add(entry);
+        for (Node<T> visited : path) {
+            if (visited.cache != null) {
+                offer(visited.cache, entry);
+            }
+        }
+    }
+
+    /**
+     * Deletes the entries of the given object under the given key, and invalidates the caches on the way.
+     * Nodes left without entries or children are pruned.
+     *
+     * @param elem the object whose entries to delete
+     * @param key  the key the entries were inserted under
+     */
+    private void delete(T elem, String key) {
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            path.add(node);
+            node = node.children.get(key.charAt(i));
+            i += node.label.length();
+        }
+        path.add(node);
+        node.terminals.removeIf(e -> e.element == elem);
+        for (Node<T> visited : path) {
+            if (visited.cache != null && visited.cache.stream().anyMatch(e -> e.element == elem)) {
+                visited.cache = null;
+            }
+        }
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node<T> child = path.get(depth);
+            if (!child.terminals.isEmpty() || !child.children.isEmpty()) {
+                break;
+            }
+            path.get(depth - 1).children.remove(child.label.charAt(0));
+        }
+    }
+
+    /**
+     * Returns the cache of the node, recomputing it from its entries and the caches of its children if invalidated.
+     *
+     * @param node the node to get the cache of
+     * @return the most relevant entries of the subtree, with at most one entry per object
+     */
+    private List<Entry<T>> cacheOf(Node<T> node) {
+        if (node.cache == null) {
+            List<Entry<T>> candidates = new ArrayList<>(node.terminals);
+            for (Node<T> child : node.children.values()) {
+                Interruptions.check();
+                candidates.addAll(cacheOf(child));
+            }
+            candidates.sort(relevance);
+            List<Entry<T>> cache = new ArrayList<>(cacheSize);
+            Set<T> contained = new HashSet<>();
+            for (Entry<T> candidate : candidates) {
+                if (cache.size() == cacheSize) {
+                    break;
+                }
+                if (contained.add(candidate.element)) {
+                    cache.add(candidate);
+                }
+            }
+            node.cache = cache;
+        }
+        return node.cache;
+    }
+
+    /**
+     * Offers an entry to a cache, keeping the cache sorted, bounded and free of duplicate objects.
+     *
+     * @param cache the cache to offer the entry to
+     * @param entry the offered entry
+     */
+    private void offer(List<Entry<T>> cache, Entry<T> entry) {
+        for (int i = 0; i < cache.size(); i++) {
+            if (cache.get(i).element == entry.element) {
+                if (relevance.compare(cache.get(i), entry) <= 0) {
+                    return;
+                }
+                cache.remove(i);
+                break;
+            }
+        }
+        int position = 0;
+        while (position < cache.size() && relevance.compare(cache.get(position), entry) <= 0) {
+            position++;
+        }
+        if (position < cacheSize) {
+            cache.add(position, entry);
+            if (cache.size() > cacheSize) {
+                cache.remove(cache.size() - 1);
+            }
+        }
+    }
+
+    // Gives the length of the common prefix of the label and the key from the given offset.
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * An indexed object along with the properties deciding its relevance.
+     *
+     * @param <T> the type of the indexed object
+     */
+    private static class Entry<T> {
+        final T element;
+        final boolean leading;
+        final int length;
+        final int order;
+
+        Entry(T element, boolean leading, int length, int order) {
+            this.element = element;
+            this.leading = leading;
+            this.length = length;
+            this.order = order;
+        }
+    }
+
+    /**
+     * A node of the trie, reached by the label of its incoming edge.
+     *
+     * @param <T> the type of the indexed objects
+     */
+    private static class Node<T> {
+        String label;
+        final Map<Character, Node<T>> children = new HashMap<>();
+        final List<Entry<T>> terminals = new ArrayList<>(1);
+        // The most relevant entries of the subtree, null if invalidated or not yet computed
+        List<Entry<T>> cache;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+}
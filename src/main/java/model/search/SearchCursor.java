@@ -0,0 +1,73 @@
+package model.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pages through the results of a query, most relevant first.
+ * <p>
+ * Every page continues after the last result of the previous one rather than skipping a number of results, so each
+ * page only keeps {@code pageSize} results while searching. A cursor is not safe for use by several threads at once.
+ * </p>
+ *
+ * @param <T> the type to search through which must implement ISearchable of type String
+ * @author Simon Johnsson
+ */
+public class SearchCursor<T extends ISearchable<String>> {
+
+    private final ISearchEngine<T> searchEngine;
+    private final String query;
+    private final int tol;
+    private final int pageSize;
+    // The last result of the previous page, null before the first page
+    private SearchResult<T> last;
+    private boolean exhausted;
+
+    /**
+     * Constructs a cursor positioned before the first page of the results of the query.
+     *
+     * @param searchEngine the engine performing the searches
+     * @param query        the string to compare the search base to
+     * @param tol          the maximum tolerated edit distance between the query and a result
+     * @param pageSize     the number of results of every page
+     */
+    public SearchCursor(ISearchEngine<T> searchEngine, String query, int tol, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Pages must contain at least one result");
+        }
+        this.searchEngine = searchEngine;
+        this.query = query;
+        this.tol = tol;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Returns the next page of results, and moves the cursor past it.
+     *
+     * @return a sorted list of at most {@code pageSize} results, empty if every result has been returned
+     */
+    public List<SearchResult<T>> nextPage() {
+        if (exhausted) {
+            return new ArrayList<>();
+        }
+        List<SearchResult<T>> page = searchEngine.searchResults(query, tol, pageSize + 1, last);
+        if (page.size() > pageSize) {
+            page = new ArrayList<>(page.subList(0, pageSize));
+        } else {
+            exhausted = true;
+        }
+        if (!page.isEmpty()) {
+            last = page.get(page.size() - 1);
+        }
+        return page;
+    }
+
+    /**
+     * Returns whether more results may follow.
+     *
+     * @return false if every result has been returned
+     */
+    public boolean hasNextPage() {
+        return !exhausted;
+    }
+}
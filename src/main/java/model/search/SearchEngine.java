@@ -1,8 +1,13 @@
 package model.search;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * A tool for searching a given list of a searchable type using string inputs.
@@ -11,24 +16,44 @@ import java.util.Locale;
  * <b>NOTE:</b> Accuracy is dependant on the difference in length between the intended queries
  * and the search identities of the given searchable objects.
  * </p>
+ * <p>
+ * Search bases of at least the parallel threshold are split into chunks which are scanned in parallel on the common
+ * {@link ForkJoinPool}. Smaller search bases are scanned sequentially, as splitting them costs more than it saves.
+ * </p>
  *
  * @param <T> the type to search through which must implement ISearchable of type String
  * @author Simon Johnsson
  */
-public class SearchEngine<T extends ISearchable<String>> {
+public class SearchEngine<T extends ISearchable<String>> implements ISearchEngine<T> {
 
     /**
      * The collection this search engine iterates through.
      */
     private final List<T> searchBase;
 
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+    private static final int MIN_CHUNK_SIZE = 1024;
+    // The smallest search base scanned in parallel
+    private final int parallelThreshold;
+
     /**
      * Returns a search engine based on the given content and the given tolerance.
      *
      * @param searchBase the content to base the search upon
      */
     public SearchEngine(List<T> searchBase) {
+        this(searchBase, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Returns a search engine based on the given content, scanning it in parallel from the given size.
+     *
+     * @param searchBase        the content to base the search upon
+     * @param parallelThreshold the smallest search base to scan in parallel
+     */
+    public SearchEngine(List<T> searchBase, int parallelThreshold) {
         this.searchBase = searchBase;
+        this.parallelThreshold = parallelThreshold;
     }
 
     /**
@@ -36,27 +61,103 @@ public class SearchEngine<T extends ISearchable<String>> {
      * <p>
      * Relevancy is measured by comparing the {@link LevenshteinUtils} distance to the {@code tol} integer,
      * where the integer is the maximum tolerated distance between the query and the target search base.
+     * Distance calculations are bounded by the tolerance and abandoned as soon as it is exceeded.
      * </p>
      * The comparison is case-insensitive and will perform calculations based on lower case versions of the inputs.
      * <p>
-     * Results are sorted based on relevance using the {@link LevenshteinComparator}.
+     * Results are sorted based on relevance, see {@link #searchResults(String, int)}.
      *
      * @param query the string to compare the search base to
      * @param tol   the tolerance of the output results
      * @return a list containing results considered relevant to the query
      */
-    //TODO Increase relevancy complexity
+    @Override
     public List<T> search(String query, int tol) {
-        List<T> results = new ArrayList<>();
-        for (T elem : searchBase) {
-            if (tol >= LevenshteinUtils.distance(query.toLowerCase(Locale.getDefault()), elem.getSearchIdentity()
-                    .toLowerCase(Locale.getDefault()))) {
-                results.add(elem);
+        return ISearchEngine.super.search(query, tol);
+    }
+
+    /**
+     * Iterates through the search base and returns a scored result for every object considered relevant to the
+     * query.
+     * <p>
+     * The distance of every object is calculated once while filtering, and the results are sorted on that
+     * distance, with the position in the search base as secondary key. The results are the same whether the search
+     * base is scanned sequentially or in parallel.
+     * </p>
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the tolerance of the output results
+     * @return a sorted list of scored results considered relevant to the query
+     */
+    //TODO Increase relevancy complexity
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol) {
+        return searchResults(query, tol, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Iterates through the search base and returns a scored result for the {@code limit} most relevant objects
+     * ranked after the given result.
+     * <p>
+     * Only the best {@code limit} results are kept while scanning, in a heap with the worst of them on top. Once the
+     * heap is full, later objects are only selected if closer than the worst kept result, which lowers the bound of
+     * the distance calculations as the scan proceeds. A scan is thereby O(n log k) in time and O(k) in memory.
+     * </p>
+     *
+     * @param query the string to compare the search base to
+     * @param tol   the tolerance of the output results
+     * @param limit the maximum number of results
+     * @param after the result to continue after, or null to start from the most relevant result
+     * @return a sorted list of at most {@code limit} scored results considered relevant to the query
+     */
+    @Override
+    public List<SearchResult<T>> searchResults(String query, int tol, int limit, SearchResult<T> after) {
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
+        String lowerQuery = query.toLowerCase(Locale.getDefault());
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        Selection<T> selection;
+        if (searchBase.size() < parallelThreshold || parallelism < 2) {
+            selection = scan(searchBase, 0, lowerQuery, new Selection<>(tol, limit, after), Thread.currentThread());
+        } else {
+            List<T> content = searchBase instanceof RandomAccess ? searchBase : new ArrayList<>(searchBase);
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, content.size() / (parallelism * 4));
+            selection = ForkJoinPool.commonPool().invoke(new ScanTask<>(content, 0, content.size(), chunkSize,
+                    lowerQuery, tol, limit, after, Thread.currentThread()));
+        }
+        return selection.sorted();
+    }
+
+    /**
+     * Compares every given object to the query, offering the relevant ones to the selection along with their
+     * position in the search base. The scan gives up once the thread it is run for is interrupted.
+     *
+     * @param content    the objects to compare
+     * @param firstOrder the position in the search base of the first object
+     * @param query      the lower case query
+     * @param selection  the selection of results
+     * @param caller     the thread the search is run for
+     * @return the given selection
+     * @throws java.util.concurrent.CancellationException if the caller is interrupted during the scan
+     */
+    private static <T extends ISearchable<String>> Selection<T> scan(List<T> content, int firstOrder, String query,
+                                                                     Selection<T> selection, Thread caller) {
+        int order = firstOrder;
+        for (T elem : content) {
+            Interruptions.check(caller);
+            int bound = selection.bound();
+            if (bound < 0) {
+                break;
+            }
+            int distance = LevenshteinUtils.distance(query, elem.getSearchIdentity()
+                    .toLowerCase(Locale.getDefault()), bound);
+            if (distance <= bound) {
+                selection.offer(new SearchResult<>(elem, distance, order));
             }
+            order++;
         }
-        LevenshteinComparator<T> comparator = new LevenshteinComparator<>(query);
-        results.sort(comparator);
-        return results;
+        return selection;
     }
 
     /**
@@ -64,9 +165,117 @@ public class SearchEngine<T extends ISearchable<String>> {
      *
      * @return a copied list of the search base
      */
+    @Override
     public List<T> getSearchBase() {
         return new ArrayList<>(searchBase);
     }
 
+    /**
+     * The results selected during a scan. Unlimited selections keep every result, while limited ones keep the best
+     * results in a heap with the worst of them on top.
+     *
+     * @param <T> the type to search through
+     */
+    private static class Selection<T extends ISearchable<String>> {
+        private final int tol;
+        private final int limit;
+        private final SearchResult<T> after;
+        private final List<SearchResult<T>> results = new ArrayList<>();
+        private final PriorityQueue<SearchResult<T>> worstFirst = new PriorityQueue<>(Collections.reverseOrder());
+
+        Selection(int tol, int limit, SearchResult<T> after) {
+            this.tol = tol;
+            this.limit = limit;
+            this.after = after;
+        }
 
+        private boolean isLimited() {
+            return limit != Integer.MAX_VALUE;
+        }
+
+        /**
+         * Returns the greatest distance an object later in the scanned range can be selected with.
+         *
+         * @return the greatest selectable distance, negative if no later object can be selected
+         */
+        int bound() {
+            if (!isLimited() || worstFirst.size() < limit) {
+                return tol;
+            }
+            return Math.min(tol, worstFirst.peek().getDistance() - 1);
+        }
+
+        void offer(SearchResult<T> result) {
+            if (after != null && result.compareTo(after) <= 0) {
+                return;
+            }
+            if (!isLimited()) {
+                results.add(result);
+                return;
+            }
+            worstFirst.add(result);
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+
+        Selection<T> merge(Selection<T> other) {
+            other.results.forEach(this::offer);
+            other.worstFirst.forEach(this::offer);
+            return this;
+        }
+
+        List<SearchResult<T>> sorted() {
+            List<SearchResult<T>> sorted = isLimited() ? new ArrayList<>(worstFirst) : results;
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Scans a range of the search base by splitting it in halves until the ranges are small enough to scan directly.
+     * Every range selects its own results, which are merged pairwise.
+     *
+     * @param <T> the type to search through
+     */
+    private static class ScanTask<T extends ISearchable<String>> extends RecursiveTask<Selection<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> content;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final String query;
+        private final int tol;
+        private final int limit;
+        private final SearchResult<T> after;
+        // The thread the search is run for, whose interruption cancels the scan
+        private final Thread caller;
+
+        ScanTask(List<T> content, int from, int to, int chunkSize, String query, int tol, int limit,
+                 SearchResult<T> after, Thread caller) {
+            this.content = content;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.query = query;
+            this.tol = tol;
+            this.limit = limit;
+            this.after = after;
+            this.caller = caller;
+        }
+
+        @Override
+        protected Selection<T> compute() {
+            if (to - from <= chunkSize) {
+                return scan(content.subList(from, to), from, query, new Selection<>(tol, limit, after), caller);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<T> left = new ScanTask<>(content, from, middle, chunkSize, query, tol, limit, after, caller);
+            ScanTask<T> right = new ScanTask<>(content, middle, to, chunkSize, query, tol, limit, after, caller);
+            left.fork();
+            Selection<T> selection = right.compute();
+            return left.join().merge(selection);
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package model.search;
+
+/**
+ * A weighted field of a {@link IMultiFieldSearchable} object, such as a phone number or an address.
+ * <p>
+ * The matching of a field decides how its values are split into indexed keys, and how queries are compared to them.
+ * Fields are compared by identity, and are meant to be declared as constants by the searchable type.
+ * </p>
+ *
+ * @author Simon Johnsson
+ */
+public final class SearchField {
+
+    /**
+     * The ways values of a field can be matched by a query.
+     */
+    public enum Matching {
+        /**
+         * The digits of a value are matched by queries of only digits and separators starting them.
+         */
+        DIGITS,
+        /**
+         * Every word of a value is matched by query words starting it.
+         */
+        TOKENS,
+        /**
+         * A whole value is matched by a query equal to it.
+         */
+        KEYWORD,
+        /**
+         * Every word of a value is matched by query words equal to it.
+         */
+        TEXT
+    }
+
+    private final String name;
+    private final double weight;
+    private final Matching matching;
+
+    /**
+     * Constructs a field of the given name, weight and matching.
+     *
+     * @param name     the name of the field
+     * @param weight   the score of a result matching every key of a query in this field
+     * @param matching the way values of the field are matched
+     */
+    public SearchField(String name, double weight, Matching matching) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Field weights must be positive");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.matching = matching;
+    }
+
+    /**
+     * Returns the name of the field.
+     *
+     * @return the name of the field
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the score of a result matching every key of a query in this field.
+     *
+     * @return the weight of the field
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the way values of the field are matched.
+     *
+     * @return the matching of the field
+     */
+    public Matching getMatching() {
+        return matching;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchField{" +
+                "name='" + name + '\'' +
+                ", weight=" + weight +
+                ", matching=" + matching +
+                '}';
+    }
+}
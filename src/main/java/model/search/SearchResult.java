@@ -0,0 +1,105 @@
+package model.search;
+
+/**
+ * A scored hit of a search operation, pairing a searchable element with its {@link LevenshteinUtils} distance
+ * to the query it was found by.
+ * <p>
+ * Results found by several fields, see {@link MultiFieldSearchEngine}, also carry a combined score. Results are
+ * ordered by score, highest first, then by distance, closest first. Results equal in both keep the order of the
+ * search base they were found in. Results found by the search identity alone all have a score of 0.
+ * </p>
+ *
+ * @param <T> the type of the found element
+ * @author Simon Johnsson
+ */
+public final class SearchResult<T> implements Comparable<SearchResult<T>> {
+
+    private final T element;
+    private final int distance;
+    private final double score;
+    private final int order;
+
+    /**
+     * Constructs a search result of the given element and distance.
+     *
+     * @param element  the found element
+     * @param distance the edit distance between the query and the element's search identity
+     * @param order    the position of the element in its search base, used as secondary sort key
+     */
+    SearchResult(T element, int distance, int order) {
+        this(element, distance, 0, order);
+    }
+
+    /**
+     * Constructs a search result of the given element, distance and combined score.
+     *
+     * @param element  the found element
+     * @param distance the edit distance between the query and the element's search identity
+     * @param score    the combined score of every field the element was found by
+     * @param order    the position of the element in its search base, used as last sort key
+     */
+    SearchResult(T element, int distance, double score, int order) {
+        this.element = element;
+        this.distance = distance;
+        this.score = score;
+        this.order = order;
+    }
+
+    /**
+     * Returns the found element.
+     *
+     * @return the element
+     */
+    public T getElement() {
+        return element;
+    }
+
+    /**
+     * Returns the edit distance between the query and the search identity of the element.
+     *
+     * @return the edit distance
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the combined score of every field the element was found by, 0 if it was found by its search identity
+     * alone.
+     *
+     * @return the combined score
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the position of the element in the search base it was found in.
+     *
+     * @return the position of the element
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public int compareTo(SearchResult<T> other) {
+        int cmp = Double.compare(other.score, score);
+        if (cmp == 0) {
+            cmp = Integer.compare(distance, other.distance);
+        }
+        if (cmp == 0) {
+            cmp = Integer.compare(order, other.order);
+        }
+        return cmp;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "element=" + element +
+                ", distance=" + distance +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -8,7 +8,19 @@
  * <header>
  * <h1>Search Engine:</h1>
  * <p>{@link model.search.ISearchable} describes a searchable type.</p>
- * <p>{@link model.search.SearchEngine} performs string-based searches.</p>
+ * <p>{@link model.search.ISearchEngine} describes a string-based search engine.</p>
+ * <p>{@link model.search.SearchEngine} performs string-based searches by scanning its search base.</p>
+ * <p>{@link model.search.NGramSearchEngine} performs string-based searches using an n-gram index.</p>
+ * <p>{@link model.search.BKTreeSearchEngine} performs string-based searches using a metric tree.</p>
+ * <p>{@link model.search.MultiFieldSearchEngine} performs weighted searches over several fields of its content.</p>
+ * <p>{@link model.search.IMultiFieldSearchable} describes a searchable type exposing several fields.</p>
+ * <p>{@link model.search.SearchField} describes a weighted field and how it is matched.</p>
+ * <p>{@link model.search.ISearchIndex} describes a search engine whose content can change.</p>
+ * <p>{@link model.search.LiveSearchIndex} keeps a search index up to date with an observable collection.</p>
+ * <p>{@link model.search.IPrefixSearchEngine} describes a tool completing typed prefixes.</p>
+ * <p>{@link model.search.PrefixTrie} completes typed prefixes using a radix trie.</p>
+ * <p>{@link model.search.SearchResult} pairs a found object with its distance to the query.</p>
+ * <p>{@link model.search.LatencyHistogram} records the latencies of searches.</p>
  * <p>{@link model.search.LevenshteinUtils} measures the edit distance between two character sequences.</p>
  * </header>
  *
@@ -0,0 +1,127 @@
+package benchmarks;
+
+import database.IDatabaseLoader;
+import database.IDatabaseSaver;
+import database.binary.BinaryDatabaseLoader;
+import database.binary.BinaryDatabaseSaver;
+import database.json.JSONDatabaseLoader;
+import database.json.JSONDatabaseSaver;
+import model.Contact;
+import model.ITag;
+import model.User;
+import model.exceptions.NameNotAllowedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading and saving a user in the JSON and the binary database formats at growing numbers of contacts,
+ * each contact having a few notes and tags and taking part in an event.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=benchmarks.DatabaseFormatBenchmark
+ * -Dexec.classpathScope=test}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DatabaseFormatBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int contacts;
+
+    private final Random random = new Random(42);
+    private final IDatabaseLoader jsonLoader = new JSONDatabaseLoader();
+    private final IDatabaseSaver jsonSaver = new JSONDatabaseSaver();
+    private final IDatabaseLoader binaryLoader = new BinaryDatabaseLoader();
+    private final IDatabaseSaver binarySaver = new BinaryDatabaseSaver();
+    private User user;
+    private Path directory;
+    private Path jsonFile;
+    private Path binaryFile;
+
+    @Setup
+    public void createUser() throws NameNotAllowedException, IOException {
+        user = new User("Benchmark");
+        List<ITag> tags = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tags.add(user.getTagHandler().createTag("tag" + i));
+        }
+        for (int i = 0; i < contacts; i++) {
+            user.getContacts().addContact(Names.random(random));
+        }
+        for (Contact contact : user.getContacts().getList()) {
+            contact.setAddress("Kungsportsavenyen " + random.nextInt(100));
+            contact.addAllTags(Arrays.asList(tags.get(random.nextInt(tags.size())), tags.get(random.nextInt(tags.size()))));
+            for (int i = 0; i < 3; i++) {
+                contact.addNote("Met at " + Names.random(random) + "'s place");
+            }
+            user.getEvents().addEvent(Names.random(random), LocalDateTime.of(2021, 1, 1, 12, 0).plusHours(random.nextInt(10000)),
+                    "Mars", "An event", Arrays.asList(contact), tags.get(random.nextInt(tags.size())));
+        }
+
+        directory = Files.createTempDirectory("prm-benchmark");
+        jsonFile = directory.resolve("json");
+        binaryFile = directory.resolve("binary");
+        jsonSaver.save(user, jsonFile);
+        binarySaver.save(user, binaryFile);
+        System.out.println("JSON file: " + Files.size(jsonFile) + " bytes, binary file: " + Files.size(binaryFile)
+                + " bytes");
+    }
+
+    @TearDown
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Object loadJson() throws IOException {
+        return jsonLoader.load(jsonFile);
+    }
+
+    @Benchmark
+    public Object loadBinary() throws IOException {
+        return binaryLoader.load(binaryFile);
+    }
+
+    @Benchmark
+    public void saveJson() throws IOException {
+        jsonSaver.save(user, jsonFile);
+    }
+
+    @Benchmark
+    public void saveBinary() throws IOException {
+        binarySaver.save(user, binaryFile);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DatabaseFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
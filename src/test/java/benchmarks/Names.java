@@ -0,0 +1,33 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates pronounceable names of realistic length for search benchmarks.
+ */
+final class Names {
+
+    private static final String[] SYLLABLES = {"an", "be", "da", "el", "fi", "ga", "ha", "is", "jo", "ka", "li",
+            "ma", "ne", "ol", "pe", "ra", "si", "to", "ul", "ve", "sson", "berg", "lund", "ström"};
+
+    private Names() {
+    }
+
+    /**
+     * Returns a random first and last name.
+     *
+     * @param random the source of randomness
+     * @return a lower case name
+     */
+    static String random(Random random) {
+        return word(random, 2 + random.nextInt(2)) + " " + word(random, 2 + random.nextInt(3));
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import mocks.MockStringSearchable;
+import model.search.SearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sequential and the parallel {@link SearchEngine} scan at growing search bases, locating the search
+ * base size from which scanning in parallel pays off.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=benchmarks.ParallelScanBenchmark
+ * -Dexec.classpathScope=test}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelScanBenchmark {
+
+    @Param({"500", "1000", "2000", "4000", "8000", "16000", "200000"})
+    private int size;
+
+    @Param({"2"})
+    private int tolerance;
+
+    private final Random random = new Random(42);
+    private SearchEngine<MockStringSearchable> sequential;
+    private SearchEngine<MockStringSearchable> parallel;
+    private final String[] queries = new String[64];
+    private int nextQuery;
+
+    @Setup
+    public void createEngines() {
+        List<MockStringSearchable> base = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            base.add(new MockStringSearchable(Names.random(random)));
+        }
+        sequential = new SearchEngine<>(base, Integer.MAX_VALUE);
+        parallel = new SearchEngine<>(base, 0);
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = Names.random(random);
+        }
+    }
+
+    @Benchmark
+    public Object sequentialScan() {
+        return sequential.searchResults(queries[nextQuery++ & (queries.length - 1)], tolerance);
+    }
+
+    @Benchmark
+    public Object parallelScan() {
+        return parallel.searchResults(queries[nextQuery++ & (queries.length - 1)], tolerance);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelScanBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import mocks.MockStringSearchable;
+import model.search.BKTreeSearchEngine;
+import model.search.ISearchEngine;
+import model.search.SearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the linear {@link SearchEngine} scan to the {@link BKTreeSearchEngine} at growing search bases.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=benchmarks.SearchEngineBenchmark
+ * -Dexec.classpathScope=test}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchEngineBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"1", "2"})
+    private int tolerance;
+
+    private final Random random = new Random(42);
+    private SearchEngine<MockStringSearchable> scan;
+    private BKTreeSearchEngine<MockStringSearchable> tree;
+    private final String[] queries = new String[64];
+    private int nextQuery;
+
+    @Setup
+    public void createEngines() {
+        List<MockStringSearchable> base = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            base.add(new MockStringSearchable(Names.random(random)));
+        }
+        scan = new SearchEngine<>(base);
+        tree = new BKTreeSearchEngine<>(base);
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = Names.random(random);
+        }
+    }
+
+    @Benchmark
+    public Object linearScan() {
+        return search(scan);
+    }
+
+    @Benchmark
+    public Object bkTree() {
+        return search(tree);
+    }
+
+    private Object search(ISearchEngine<MockStringSearchable> engine) {
+        String query = queries[nextQuery++ & (queries.length - 1)];
+        return engine.searchResults(query, tolerance);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SearchEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
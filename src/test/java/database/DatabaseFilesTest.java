@@ -0,0 +1,73 @@
+package database;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DatabaseFilesTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("prm");
+        file = directory.resolve("user");
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    private static void write(Path file, String contents) throws IOException {
+        DatabaseFiles.writeAtomically(file, channel -> channel.write(ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void writeAtomically() throws IOException {
+        write(file, "first");
+        write(file, "second");
+        assertEquals("second", read(file));
+        assertEquals(1, countFiles(directory));
+    }
+
+    @Test
+    public void failedWriteKeepsOldFile() throws IOException {
+        write(file, "old");
+        try {
+            DatabaseFiles.writeAtomically(file, channel -> {
+                channel.write(ByteBuffer.wrap("half of the new".getBytes(StandardCharsets.UTF_8)));
+                throw new IOException("Disk full");
+            });
+            fail();
+        } catch (IOException e) {
+            assertEquals("Disk full", e.getMessage());
+        }
+        assertEquals("old", read(file));
+        assertEquals(1, countFiles(directory));
+    }
+
+}
@@ -1,15 +1,20 @@
 package database;
 
+import database.json.JSONDatabaseLoader;
 import model.Contact;
 import model.ITag;
 import model.User;
 import model.exceptions.NameNotAllowedException;
+import model.exceptions.NameNotAvailableException;
+import model.exceptions.TagNotFoundException;
 import org.junit.After;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -52,7 +57,8 @@ public class DatabaseTest {
 
         db.save(user2);
         db.save(user);
-        assertThat(user).usingRecursiveComparison().isEqualTo(db.load(user.getId()));
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(db.load(user.getId()));
 
         assertThat(db.getUsers().stream().map(id -> {
             try {
@@ -64,4 +70,108 @@ public class DatabaseTest {
         })).contains("Pelle", "Dawg");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void journalReplay() throws NameNotAllowedException, NameNotAvailableException, TagNotFoundException,
+            IOException {
+        user.getContacts().addContact("McLovin");
+        user.getContacts().addContact("Bruh");
+        db.record(user);
+
+        Contact contact = user.getContacts().getList().get(0);
+        Contact bruh = user.getContacts().getList().get(1);
+        ITag friendTag = user.getTagHandler().createTag("friend");
+        contact.setAddress("Kungsportsavenyen 32");
+        contact.addNote("Hahah this guy amirite");
+        contact.addAllTags(Arrays.asList(friendTag));
+        user.getEvents().addEvent("Feeeeest", LocalDateTime.of(2077, 10, 13, 10, 10),
+                "Mars", "Cool event on mars",
+                Arrays.asList(contact, bruh), friendTag);
+        user.getContacts().removeContact(bruh);
+        contact.setName("McLovin2");
+        user.getTagHandler().rename(friendTag, "bestie");
+        user.getTagHandler().setColor(friendTag, "ff8800");
+        db.stopRecording(user);
+
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(db.load(user.getId()));
+    }
+
+    @Test
+    public void autosave() throws NameNotAllowedException, IOException, InterruptedException {
+        user.getContacts().addContact("McLovin");
+        db.save(user);
+        AutosaveScheduler autosave = new AutosaveScheduler(db, Runnable::run, 100, TimeUnit.MILLISECONDS);
+        autosave.start(user);
+
+        Contact contact = user.getContacts().getList().get(0);
+        contact.setAddress("Kungsportsavenyen 32");
+        contact.addNote("Hahah this guy amirite");
+        user.getContacts().addContact("Bruh");
+        for (int i = 0; i < 300 && autosave.getMetrics().getSaveCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        autosave.stop();
+
+        assertThat(autosave.getMetrics().getSaveCount()).isEqualTo(1);
+        assertThat(autosave.getMetrics().getEditCount()).isEqualTo(3);
+        assertThat(autosave.getMetrics().getCoalescedEditCount()).isEqualTo(2);
+        assertThat(autosave.getMetrics().getLastBytesWritten()).isPositive();
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(db.load(user.getId()));
+    }
+
+    @Test
+    public void autosaveFollowsListChanges() throws NameNotAllowedException, IOException {
+        user.getContacts().addContact("McLovin");
+        Contact mcLovin = user.getContacts().getList().get(0);
+        db.save(user);
+        AutosaveScheduler autosave = new AutosaveScheduler(db, Runnable::run, 1, TimeUnit.HOURS);
+        autosave.start(user);
+
+        user.getContacts().addContact("Bruh");
+        user.getContacts().getList().get(1).setAddress("Kungsportsavenyen 32");
+        user.getContacts().removeContact(mcLovin);
+        // A removed contact is no longer part of the user.
+        mcLovin.setAddress("Kungsportsavenyen 32");
+        autosave.stop();
+
+        assertThat(autosave.getMetrics().getEditCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void autosaveTagChanges() throws NameNotAllowedException, NameNotAvailableException,
+            TagNotFoundException, IOException, InterruptedException {
+        ITag friendTag = user.getTagHandler().createTag("friend");
+        db.save(user);
+        AutosaveScheduler autosave = new AutosaveScheduler(db, Runnable::run, 100, TimeUnit.MILLISECONDS);
+        autosave.start(user);
+
+        user.getTagHandler().rename(friendTag, "bestie");
+        user.getTagHandler().setColor(friendTag, "ff8800");
+        user.getTagHandler().createTag("bizniz");
+        for (int i = 0; i < 300 && autosave.getMetrics().getSaveCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        autosave.stop();
+
+        assertThat(autosave.getMetrics().getSaveCount()).isEqualTo(1);
+        assertThat(autosave.getMetrics().getEditCount()).isEqualTo(3);
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(db.load(user.getId()));
+    }
+
+    @Test
+    public void openQueriesSavesJournal() throws NameNotAllowedException, IOException {
+        user.getContacts().addContact("McLovin");
+        db.record(user);
+        user.getContacts().getList().get(0).setAddress("Kungsportsavenyen 32");
+        db.stopRecording(user);
+
+        // Users are saved in the JSON format here, which has no indices to query.
+        assertThat(db.openQueries(user.getId()).isPresent()).isFalse();
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new JSONDatabaseLoader().load(
+                Paths.get(System.getProperty("user.home"), ".prm", "users", user.getId().toString())));
+    }
+
+}
@@ -0,0 +1,58 @@
+package database;
+
+import model.Contact;
+import model.ITag;
+import model.User;
+import model.exceptions.NameNotAllowedException;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+/**
+ * Users to save and load in the database tests.
+ */
+public final class TestUsers {
+
+    /**
+     * Matches the tag indices of the contact and event lists, to be ignored when comparing users field by field. The
+     * indices are keyed by the identity of the tags, so they never match between a user and a loaded copy of it.
+     */
+    public static final String TAG_INDICES = ".*ByTag";
+
+    private TestUsers() {
+    }
+
+    /**
+     * Creates a user with tagged contacts, notes and events, whose text is not all ASCII.
+     * @param contactCount The number of contacts, which is also the number of events.
+     * @return The user.
+     */
+    public static User sample(int contactCount) throws NameNotAllowedException {
+        User user = new User("Pelle Svanslös");
+        ITag friend = user.getTagHandler().createTag("vän", "#ff0000");
+        ITag work = user.getTagHandler().createTag("仕事");
+        for (int i = 0; i < contactCount; i++) {
+            user.getContacts().addContact("Kontakt " + i + " Åström");
+            Contact contact = user.getContacts().getList().get(i);
+            contact.setAddress("Götgatan " + i + ", Göteborg");
+            contact.addAllTags(Collections.singletonList(i % 2 == 0 ? friend : work));
+            contact.addNote("Träffades på konferensen 😀 " + i);
+            if (i % 3 == 0) {
+                contact.addNote("Tycker om smörgåstårta");
+            }
+            user.getEvents().addEvent("Fika " + i, LocalDateTime.of(2021, 3, 1 + i % 28, 9, i % 60),
+                    "Café Årsta", "Kanelbullar & kaffe", Collections.singletonList(contact), i % 2 == 0 ? work : null);
+        }
+        return user;
+    }
+
+    /**
+     * Loads the lazily loaded notes of every contact of a user, so that the user can be compared field by field.
+     * @param user The user.
+     * @return The given user.
+     */
+    public static User withLoadedNotes(User user) {
+        user.getContacts().getList().forEach(Contact::sizeOfNotes);
+        return user;
+    }
+}
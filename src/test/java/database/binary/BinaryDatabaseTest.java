@@ -0,0 +1,176 @@
+package database.binary;
+
+import database.DatabaseCaches;
+import database.TestUsers;
+import database.block.BlockFormat;
+import database.json.JSONDatabaseSaver;
+import model.Contact;
+import model.User;
+import model.exceptions.NameNotAllowedException;
+import model.notes.Note;
+import model.notes.NoteBook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryDatabaseTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("prm");
+        file = directory.resolve("user");
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void saveLoad() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new BinaryDatabaseSaver().save(user, file);
+
+        assertThat(BinaryFormat.isBinary(file)).isTrue();
+        User loaded = TestUsers.withLoadedNotes(new BinaryDatabaseLoader().load(file));
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(loaded);
+    }
+
+    @Test
+    public void saveLoadCompressed() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new BinaryDatabaseSaver(true).save(user, file);
+
+        assertThat(BlockFormat.isCompressed(file)).isTrue();
+        User loaded = TestUsers.withLoadedNotes(new BinaryDatabaseLoader().load(file));
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(loaded);
+    }
+
+    @Test
+    public void notesDecodedOnAccess() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new BinaryDatabaseSaver().save(user, file);
+
+        User loaded = new BinaryDatabaseLoader().load(file);
+        Contact contact = loaded.getContacts().getList().get(3);
+        assertThat(hasDecodedNotes(contact)).isFalse();
+        assertThat(contact.viewNote(1)).isEqualTo("Tycker om smörgåstårta");
+        assertThat(hasDecodedNotes(contact)).isTrue();
+        assertThat(hasDecodedNotes(loaded.getContacts().getList().get(4))).isFalse();
+    }
+
+    @Test
+    public void notesSearchableWithoutDecoding() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new BinaryDatabaseSaver().save(user, file);
+
+        User loaded = new BinaryDatabaseLoader().load(file);
+        Contact contact = loaded.getContacts().getList().get(3);
+        assertThat(contact.getSearchFields().get(Contact.NOTE_FIELD))
+                .isEqualTo(Arrays.asList("Träffades på konferensen 😀 3", "Tycker om smörgåstårta"));
+        assertThat(hasDecodedNotes(contact)).isFalse();
+    }
+
+    @Test
+    public void notesDecodedAfterFileIsGone() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new BinaryDatabaseSaver().save(user, file);
+        User loaded = new BinaryDatabaseLoader().load(file);
+
+        // Notes which have not been decoded are saved as they were loaded, and copied without being decoded.
+        new BinaryDatabaseSaver().save(loaded, file);
+        User copy = DatabaseCaches.copyOf(loaded);
+        loaded.getContacts().getList().forEach(contact -> assertThat(hasDecodedNotes(contact)).isFalse());
+        copy.getContacts().getList().forEach(contact -> assertThat(hasDecodedNotes(contact)).isFalse());
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(TestUsers.withLoadedNotes(new BinaryDatabaseLoader().load(file)));
+
+        Files.delete(file);
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(TestUsers.withLoadedNotes(loaded));
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(TestUsers.withLoadedNotes(copy));
+    }
+
+    @Test
+    public void loadVersion1() throws IOException {
+        UUID userId = UUID.randomUUID();
+        UUID contactId = UUID.randomUUID();
+        LocalDateTime created = LocalDateTime.of(2021, 3, 1, 9, 30);
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            BinaryOutput out = new BinaryOutput(stream);
+            out.writeInt(BinaryFormat.MAGIC);
+            out.writeByte(BinaryFormat.UNBLOCKED_NOTES_VERSION);
+            out.writeVarInt(4);
+            out.writeString("Pelle");
+            out.writeString("Anna");
+            out.writeString("0701234567");
+            out.writeString("Götgatan 1");
+            out.writeVarInt(1);
+            out.writeUuid(userId);
+            out.writeVarInt(0);
+            // A contact with its notes in place, without the length of a notes block.
+            out.writeVarInt(1);
+            out.writeVarInt(2);
+            out.writeVarInt(3);
+            out.writeVarInt(4);
+            out.writeUuid(contactId);
+            out.writeVarInt(0);
+            out.writeVarInt(1);
+            out.writeString("Träffades på konferensen");
+            out.writeTime(created);
+            out.writeVarInt(1);
+            out.writeVarInt(0);
+            out.writeVarInt(0);
+            out.flush();
+        }
+
+        User loaded = new BinaryDatabaseLoader().load(file);
+        assertThat(loaded.getName()).isEqualTo("Pelle");
+        assertThat(loaded.getId()).isEqualTo(userId);
+        assertThat(loaded.getContacts().getList()).hasSize(1);
+        Contact contact = loaded.getContacts().getList().get(0);
+        assertThat(contact.getName()).isEqualTo("Anna");
+        assertThat(contact.getAddress()).isEqualTo("Götgatan 1");
+        assertThat(contact.getDirectoryId()).isEqualTo(contactId);
+        assertThat(hasDecodedNotes(contact)).isTrue();
+        assertThat(contact.viewNote(0)).isEqualTo("Träffades på konferensen");
+        assertThat(DatabaseCaches.cacheOf(contact.getNote(0), Note.NoteCache.class).pointOfCreation).isEqualTo(created);
+        assertThat(loaded.getEvents().getList()).isEmpty();
+    }
+
+    @Test
+    public void loadJsonFile() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new JSONDatabaseSaver().save(user, file);
+
+        assertThat(BinaryFormat.isBinary(file)).isFalse();
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new BinaryDatabaseLoader().load(file));
+    }
+
+    // Notes are only searchable once they have been decoded.
+    private static boolean hasDecodedNotes(Contact contact) {
+        NoteBook noteBook = DatabaseCaches.cacheOf(contact, Contact.ContactCache.class).noteBook;
+        return DatabaseCaches.cacheOf(noteBook, NoteBook.NotesCache.class).elementsLoader == null;
+    }
+
+}
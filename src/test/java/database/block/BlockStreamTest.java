@@ -0,0 +1,123 @@
+package database.block;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockStreamTest {
+
+    // Three and a half blocks of text, which compresses well.
+    private static byte[] contents() {
+        Random random = new Random(7);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < BlockFormat.BLOCK_SIZE * 7 / 2) {
+            builder.append("{\"text\":\"note ").append(random.nextInt(1000)).append("\"},");
+        }
+        return builder.toString().getBytes();
+    }
+
+    private static byte[] compress(byte[] contents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BlockOutputStream out = new BlockOutputStream(bytes)) {
+            out.write(contents, 0, 1000);
+            out.write(contents[1000]);
+            out.write(contents, 1001, contents.length - 1001);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] container) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = new BlockInputStream(new ByteArrayInputStream(container))) {
+            byte[] buffer = new byte[5000];
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                bytes.write(buffer, 0, count);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        byte[] contents = contents();
+        byte[] container = compress(contents);
+        assertTrue(container.length < contents.length / 2);
+        assertArrayEquals(contents, decompress(container));
+    }
+
+    @Test
+    public void emptyTest() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BlockOutputStream(bytes).close();
+        assertEquals(9, bytes.size());
+        assertArrayEquals(new byte[0], decompress(bytes.toByteArray()));
+    }
+
+    @Test
+    public void corruptBlockTest() throws IOException {
+        byte[] container = compress(contents());
+        // Flip a byte of the second block, which follows the header and the first block.
+        int firstBlockLength = 5 + 12 + readInt(container, 5 + 4);
+        container[firstBlockLength + 12 + 20] ^= 0x5A;
+        try {
+            decompress(container);
+            fail("expected a corrupt block");
+        } catch (CorruptBlockException e) {
+            assertEquals(1, e.getBlockIndex());
+        }
+    }
+
+    @Test
+    public void corruptHeaderTest() throws IOException {
+        byte[] contents = contents();
+        // The lengths of the second block follow the header and the first block.
+        int secondBlock = 5 + 12 + readInt(compress(contents), 5 + 4);
+        for (int[] lengths : new int[][]{{Integer.MAX_VALUE, 100}, {BlockFormat.BLOCK_SIZE + 1, 100},
+                {BlockFormat.BLOCK_SIZE, Integer.MAX_VALUE}, {100, BlockFormat.maxCompressedLength(100) + 1}}) {
+            byte[] container = compress(contents);
+            writeInt(container, secondBlock, lengths[0]);
+            writeInt(container, secondBlock + 4, lengths[1]);
+            try {
+                decompress(container);
+                fail("expected a corrupt block");
+            } catch (CorruptBlockException e) {
+                assertEquals(1, e.getBlockIndex());
+            }
+        }
+    }
+
+    @Test
+    public void truncatedTest() throws IOException {
+        byte[] container = compress(contents());
+        try {
+            decompress(Arrays.copyOf(container, container.length - 4));
+            fail("expected a corrupt block");
+        } catch (CorruptBlockException e) {
+            assertEquals(4, e.getBlockIndex());
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8
+                | bytes[offset + 3] & 0xFF;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+}
@@ -0,0 +1,130 @@
+package database.json;
+
+import database.DatabaseCaches;
+import database.TestUsers;
+import model.Contact;
+import model.ITag;
+import model.User;
+import model.exceptions.NameNotAllowedException;
+import model.exceptions.NameNotAvailableException;
+import model.exceptions.TagNotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JSONDatabaseJournalTest {
+    private final JSONDatabaseJournal journal = new JSONDatabaseJournal();
+    private final User user = new User("Pelle");
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("prm");
+        file = directory.resolve("journal");
+    }
+
+    @After
+    public void after() throws IOException {
+        journal.stop(user);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void recordsChangedFieldOnly() throws IOException, NameNotAllowedException {
+        user.getContacts().addContact("McLovin");
+        Contact contact = user.getContacts().getList().get(0);
+        contact.addNote("Hahah this guy amirite");
+        journal.record(user, file);
+
+        contact.setAddress("Kungsportsavenyen 32");
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0).contains("Kungsportsavenyen 32")).isTrue();
+        assertThat(lines.get(0).contains("McLovin")).isFalse();
+        assertThat(lines.get(0).contains("amirite")).isFalse();
+    }
+
+    @Test
+    public void replayTagChanges() throws IOException, NameNotAllowedException, NameNotAvailableException,
+            TagNotFoundException {
+        user.getContacts().addContact("McLovin");
+        User saved = DatabaseCaches.copyOf(user);
+        journal.record(user, file);
+
+        ITag friendTag = user.getTagHandler().createTag("friend");
+        user.getContacts().getList().get(0).addAllTags(Collections.singletonList(friendTag));
+        user.getTagHandler().rename(friendTag, "bestie");
+        user.getTagHandler().setColor(friendTag, "ff8800");
+        journal.stop(user);
+
+        assertThat(journal.replay(saved, file)).usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES).isEqualTo(user);
+    }
+
+    @Test
+    public void clearKeepsLatestChanges() throws IOException, NameNotAllowedException {
+        user.getContacts().addContact("McLovin");
+        Contact contact = user.getContacts().getList().get(0);
+        journal.record(user, file);
+
+        contact.setAddress("Kungsportsavenyen 32");
+        User saved = DatabaseCaches.copyOf(user);
+        contact.addNote("Hahah this guy amirite");
+        contact.setName("McLovin2");
+        journal.clear(user, file, 2);
+
+        assertThat(journal.getEntryCount(user)).isEqualTo(2);
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSize(2);
+        journal.stop(user);
+        assertThat(journal.replay(saved, file)).usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES).isEqualTo(user);
+    }
+
+    @Test
+    public void replayKeepsUnchangedContacts() throws IOException, NameNotAllowedException {
+        user.getContacts().addContact("McLovin");
+        User saved = DatabaseCaches.copyOf(user);
+        journal.record(user, file);
+        user.getContacts().addContact("Bruh");
+        journal.stop(user);
+
+        assertThat(journal.replay(saved, file)).usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES).isEqualTo(user);
+    }
+
+    @Test
+    public void continueAfterPartialLine() throws IOException, NameNotAllowedException {
+        user.getContacts().addContact("McLovin");
+        User saved = DatabaseCaches.copyOf(user);
+        journal.record(user, file);
+        user.getContacts().addContact("Bruh");
+        journal.stop(user);
+        // A crash while appending leaves the last change half written.
+        Files.write(file, "{\"operation\":\"PUT_CON".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        journal.record(user, file);
+        user.getContacts().addContact("Dawg");
+        user.getContacts().addContact("Pelle");
+        journal.stop(user);
+
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSize(3);
+        assertThat(journal.replay(saved, file)).usingRecursiveComparison()
+                .ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES).isEqualTo(user);
+    }
+}
@@ -0,0 +1,120 @@
+package database.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import database.TestUsers;
+import database.block.BlockFormat;
+import model.Contact;
+import model.User;
+import model.exceptions.NameNotAllowedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JSONDatabaseTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("prm");
+        file = directory.resolve("user");
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void saveLoadUtf8() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new JSONDatabaseSaver().save(user, file);
+
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertThat(json.contains("Svanslös")).isTrue();
+        assertThat(json.contains("仕事")).isTrue();
+        assertThat(json.contains("😀")).isTrue();
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new JSONDatabaseLoader().load(file));
+    }
+
+    @Test
+    public void loadLegacyCharset() throws NameNotAllowedException, IOException {
+        User user = new User("Åsa");
+        user.getContacts().addContact("Örjan");
+        Contact contact = user.getContacts().getList().get(0);
+        contact.setAddress("Vägen 1, Göteborg");
+        contact.addAllTags(Collections.singletonList(user.getTagHandler().createTag("Släkt")));
+        new JSONDatabaseSaver().save(user, file);
+        // Files written by earlier versions are in the platform charset, such as windows-1252.
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, json.getBytes(JSONCharsets.LEGACY));
+
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new JSONDatabaseLoader().load(file));
+    }
+
+    @Test
+    public void saveLoadCompressed() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new JSONDatabaseSaver(true).save(user, file);
+
+        assertThat(BlockFormat.isCompressed(file)).isTrue();
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new JSONDatabaseLoader().load(file));
+    }
+
+    @Test
+    public void loadOldFieldOrder() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new JSONDatabaseSaver().save(user, file);
+        moveTagsLast(file);
+
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new JSONDatabaseLoader().load(file));
+    }
+
+    @Test
+    public void loadManyBatches() throws NameNotAllowedException, IOException {
+        // More contacts and events than fit in two batches, decoded in the order of the file.
+        User user = TestUsers.sample(2500);
+        new JSONDatabaseSaver().save(user, file);
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new JSONDatabaseLoader().load(file));
+
+        moveTagsLast(file);
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new JSONDatabaseLoader().load(file));
+    }
+
+    // Rewrite a file the way older versions wrote it, with the tags after every contact and event.
+    private static void moveTagsLast(Path file) throws IOException {
+        JsonObject record;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            record = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+        JsonElement tags = record.remove("tags");
+        record.add("tags", tags);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            new Gson().toJson(record, writer);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package database.json;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JSONDatabaseTrackerTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("prm");
+        file = directory.resolve("tracker");
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void addRemoveUsers() throws IOException {
+        JSONDatabaseTracker tracker = new JSONDatabaseTracker();
+        UUID anna = UUID.randomUUID();
+        UUID bertil = UUID.randomUUID();
+        assertThat(tracker.getUsers(file)).isEmpty();
+
+        tracker.addUser(anna, "Anna", file);
+        tracker.addUser(bertil, "Bertil", file);
+        tracker.addUser(anna, "Anna Åström", file);
+        assertThat(tracker.getUsers(file)).hasSize(2);
+        assertThat(tracker.getUsername(anna, file)).isEqualTo("Anna Åström");
+
+        assertThat(tracker.removeUser(bertil, file)).isTrue();
+        assertThat(tracker.removeUser(bertil, file)).isFalse();
+        assertThat(tracker.getUsers(file)).containsExactly(anna);
+        assertThat(new JSONDatabaseTracker().getUsername(anna, file)).isEqualTo("Anna Åström");
+    }
+
+    @Test
+    public void readsFileChangedByAnotherTracker() throws IOException {
+        JSONDatabaseTracker tracker = new JSONDatabaseTracker();
+        JSONDatabaseTracker other = new JSONDatabaseTracker();
+        UUID anna = UUID.randomUUID();
+        UUID bertil = UUID.randomUUID();
+        tracker.addUser(anna, "Anna", file);
+        assertThat(other.getUsers(file)).containsExactly(anna);
+
+        other.addUser(bertil, "Bertil", file);
+        assertThat(tracker.getUsers(file)).hasSize(2);
+        assertThat(tracker.getUsername(bertil, file)).isEqualTo("Bertil");
+
+        Files.delete(file);
+        assertThat(tracker.getUsers(file)).isEmpty();
+    }
+
+    @Test
+    public void readsLegacyCharset() throws IOException {
+        UUID anna = UUID.randomUUID();
+        new JSONDatabaseTracker().addUser(anna, "Anna Åström", file);
+        // Tracker files written by earlier versions are in the platform charset, such as windows-1252.
+        String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, json.getBytes(JSONCharsets.LEGACY));
+
+        assertThat(new JSONDatabaseTracker().getUsername(anna, file)).isEqualTo("Anna Åström");
+    }
+
+}
@@ -0,0 +1,120 @@
+package database.sql;
+
+import database.IDatabaseQueries;
+import database.TestUsers;
+import database.json.JSONDatabaseSaver;
+import model.Contact;
+import model.Event;
+import model.ITag;
+import model.User;
+import model.exceptions.NameNotAllowedException;
+import model.exceptions.TagNotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SQLDatabaseTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("prm");
+        file = directory.resolve("user");
+    }
+
+    @After
+    public void after() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void saveLoad() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new SQLDatabaseSaver().save(user, file);
+
+        assertThat(SQLSchema.isSQLite(file)).isTrue();
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new SQLDatabaseLoader().load(file));
+    }
+
+    @Test
+    public void saveReplacesFile() throws NameNotAllowedException, IOException {
+        new SQLDatabaseSaver().save(TestUsers.sample(20), file);
+        User user = TestUsers.sample(5);
+        new SQLDatabaseSaver().save(user, file);
+
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new SQLDatabaseLoader().load(file));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    public void convertJsonFile() throws NameNotAllowedException, IOException {
+        User user = TestUsers.sample(20);
+        new JSONDatabaseSaver().save(user, file);
+        assertThat(SQLSchema.isSQLite(file)).isFalse();
+
+        User loaded = new SQLDatabaseLoader().load(file);
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(loaded);
+        new SQLDatabaseSaver().save(loaded, file);
+        assertThat(SQLSchema.isSQLite(file)).isTrue();
+        assertThat(user).usingRecursiveComparison().ignoringFieldsMatchingRegexes(TestUsers.TAG_INDICES)
+                .isEqualTo(new SQLDatabaseLoader().load(file));
+    }
+
+    @Test
+    public void queryEvents() throws NameNotAllowedException, TagNotFoundException, IOException {
+        User user = TestUsers.sample(20);
+        new SQLDatabaseSaver().save(user, file);
+        Contact contact = user.getContacts().getList().get(4);
+        ITag work = user.getTagHandler().getTag("仕事");
+        LocalDateTime from = LocalDateTime.of(2021, 3, 3, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2021, 3, 6, 0, 0);
+
+        Optional<IDatabaseQueries> opened = new SQLDatabaseLoader().openQueries(file);
+        assertThat(opened.isPresent()).isTrue();
+        try (IDatabaseQueries queries = opened.get()) {
+            assertThat(queries.getContactsEvents(contact.getDirectoryId())).isEqualTo(
+                    eventIds(user, event -> event.getContacts().contains(contact)));
+            assertThat(queries.getEventsOfTag("仕事")).isEqualTo(
+                    eventIds(user, event -> event.getTag() == work));
+            assertThat(queries.getEventsBetween(from, to)).isEqualTo(eventIds(user,
+                    event -> !event.getDateTime().isBefore(from) && event.getDateTime().isBefore(to)));
+        }
+    }
+
+    @Test
+    public void noQueriesOfJsonFile() throws NameNotAllowedException, IOException {
+        new JSONDatabaseSaver().save(TestUsers.sample(5), file);
+
+        assertThat(new SQLDatabaseLoader().openQueries(file).isPresent()).isFalse();
+    }
+
+    // The directory ids of the events of a user matching a filter, ordered by time as the queries are.
+    private static List<UUID> eventIds(User user, Predicate<Event> filter) {
+        return user.getEvents().getList().stream().filter(filter)
+                .sorted(Comparator.comparing(Event::getDateTime))
+                .map(Event::getDirectoryId).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,86 @@
+package model;
+
+import mocks.MockStringSearchable;
+import model.search.BKTreeSearchEngine;
+import model.search.SearchEngine;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BKTreeSearchEngineTest {
+
+    private final Random random = new Random(7);
+    private List<MockStringSearchable> base;
+
+    @Before
+    public void instantiateList() {
+        base = new ArrayList<>();
+    }
+
+    @Test
+    public void transpositionTest() {
+        MockStringSearchable s1 = new MockStringSearchable("ca");
+        MockStringSearchable s2 = new MockStringSearchable("abc");
+        base.add(s1);
+        base.add(s2);
+        BKTreeSearchEngine<MockStringSearchable> searchEngine = new BKTreeSearchEngine<>(base);
+        List<MockStringSearchable> results = searchEngine.search("ac", 1);
+        assertEquals(2, results.size());
+        assertTrue(searchEngine.search("ca", 2).contains(s1));
+        assertFalse(searchEngine.search("ca", 2).contains(s2));
+    }
+
+    @Test
+    public void sameResultsAsScanTest() {
+        for (int i = 0; i < 2000; i++) {
+            base.add(new MockStringSearchable(randomName()));
+        }
+        SearchEngine<MockStringSearchable> scan = new SearchEngine<>(base);
+        BKTreeSearchEngine<MockStringSearchable> tree = new BKTreeSearchEngine<>(base);
+        assertEquals(base, tree.getSearchBase());
+        for (int i = 0; i < 50; i++) {
+            String query = randomName();
+            for (int tol = 0; tol <= 3; tol++) {
+                assertEquals(scan.search(query, tol), tree.search(query, tol));
+            }
+        }
+    }
+
+    @Test
+    public void addAndRemoveTest() {
+        BKTreeSearchEngine<MockStringSearchable> tree = new BKTreeSearchEngine<>(base);
+        for (int i = 0; i < 1000; i++) {
+            MockStringSearchable elem = new MockStringSearchable(randomName());
+            base.add(elem);
+            assertTrue(tree.add(elem));
+            assertFalse(tree.add(elem));
+        }
+        for (int i = 0; i < 700; i++) {
+            MockStringSearchable elem = base.remove(random.nextInt(base.size()));
+            assertTrue(tree.remove(elem));
+            assertFalse(tree.remove(elem));
+        }
+        assertEquals(base.size(), tree.size());
+        SearchEngine<MockStringSearchable> scan = new SearchEngine<>(base);
+        for (int i = 0; i < 50; i++) {
+            String query = randomName();
+            assertEquals(scan.search(query, 2), tree.search(query, 2));
+        }
+    }
+
+    private String randomName() {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            name.append("aeklnst".charAt(random.nextInt(7)));
+        }
+        return name.toString();
+    }
+}
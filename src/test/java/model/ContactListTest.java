@@ -5,6 +5,10 @@ import model.exceptions.NameNotAllowedException;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import static org.junit.Assert.*;
@@ -86,4 +90,61 @@ public class ContactListTest {
             fail();
         }
     }
+
+    @Test
+    public void contactsOfTagTest() throws Exception {
+        User user = new User("Pelle");
+        ContactList contactList = user.getContacts();
+        TagHandler tagHandler = user.getTagHandler();
+        ITag work = tagHandler.createTag("work");
+        ITag golf = tagHandler.createTag("golf");
+        Contact kalle = new Contact("Kalle");
+        Contact anna = new Contact("Anna");
+        kalle.addTag(work);
+        contactList.addContact(kalle);
+        contactList.addContact(anna);
+
+        anna.addAllTags(Arrays.asList(work, golf));
+        assertEquals(Arrays.asList(kalle, anna), contactList.getContactsOfTag(work));
+        assertEquals(Collections.singletonList(anna), contactList.getContactsOfTag(golf));
+
+        tagHandler.rename(work, "office");
+        kalle.removeTag(work);
+        assertEquals(Collections.singletonList(anna), contactList.getContactsOfTag(work));
+
+        contactList.removeContact(anna);
+        assertEquals(Collections.emptyList(), contactList.getContactsOfTag(work));
+        assertEquals(Collections.emptyList(), contactList.getContactsOfTag(golf));
+    }
+
+    @Test
+    public void contactsOfSameNamedTagsTest() throws Exception {
+        ITag work = new TagHandler().createTag("work");
+        ITag otherWork = new TagHandler().createTag("work");
+        Contact kalle = new Contact("Kalle");
+        Contact anna = new Contact("Anna");
+        kalle.addTag(work);
+        anna.addTag(otherWork);
+        contactList.addContact(kalle);
+        contactList.addContact(anna);
+
+        assertEquals(Collections.singletonList(kalle), contactList.getContactsOfTag(work));
+        assertEquals(Collections.singletonList(anna), contactList.getContactsOfTag(otherWork));
+    }
+
+    @Test
+    public void changesTest() {
+        List<ChangeEvent<Contact>> changes = new ArrayList<>();
+        contactList.subscribeChanges(changes::addAll);
+        Contact contact = new Contact("test");
+        contactList.addContact(contact);
+        contact.setAddress("Kungsportsavenyen 32");
+        contactList.removeContact(contact);
+        contactList.removeContact(contact);
+
+        assertEquals(3, changes.size());
+        assertEquals(ChangeEvent.Type.ADDED, changes.get(0).getType());
+        assertTrue(changes.get(1).isUpdateOf(Contact.Field.ADDRESS));
+        assertEquals(ChangeEvent.Type.REMOVED, changes.get(2).getType());
+    }
 }
@@ -4,7 +4,12 @@ import mocks.MockObserver;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import static org.junit.Assert.assertEquals;
@@ -50,4 +55,156 @@ public class EventListTest {
         eventList.removeEvent(event);
         assertEquals(2, mockObserver.getEventCount());
     }
+
+    @Test
+    public void eventsBetweenTest() {
+        Event late = new Event("late", LocalDateTime.of(2021, 3, 10, 18, 0));
+        Event early = new Event("early", LocalDateTime.of(2021, 3, 10, 9, 0));
+        Event outside = new Event("outside", LocalDateTime.of(2021, 3, 11, 0, 0));
+        Event before = new Event("before", LocalDateTime.of(2021, 3, 9, 23, 59));
+        Arrays.asList(late, early, outside, before).forEach(eventList::addEvent);
+
+        assertEquals(Arrays.asList(early, late),
+                eventList.getEventsBetween(LocalDateTime.of(2021, 3, 10, 0, 0), LocalDateTime.of(2021, 3, 11, 0, 0)));
+        assertEquals(Collections.emptyList(),
+                eventList.getEventsBetween(LocalDateTime.of(2021, 3, 11, 0, 0), LocalDateTime.of(2021, 3, 10, 0, 0)));
+    }
+
+    @Test
+    public void eventsOfWeekIgnoresOtherYearsTest() {
+        LocalDate date = LocalDate.of(2021, 3, 10);
+        Event thisYear = new Event("this year", date.atTime(12, 0));
+        Event lastYear = new Event("last year", date.minusWeeks(52).atTime(12, 0));
+        eventList.addEvent(thisYear);
+        eventList.addEvent(lastYear);
+
+        assertEquals(Collections.singletonList(thisYear), eventList.getEventsOfWeek(date));
+    }
+
+    @Test
+    public void indexFollowsDateTimeTest() {
+        LocalDateTime time = LocalDateTime.of(2021, 3, 10, 12, 0);
+        Event event = new Event("moved", time);
+        eventList.addEvent(event);
+        event.setDateTime(time.plusYears(1));
+
+        assertEquals(Collections.emptyList(), eventList.getEventsBetween(time, time.plusDays(1)));
+        assertEquals(Collections.singletonList(event), eventList.getEventsBetween(time.plusYears(1), time.plusYears(1).plusDays(1)));
+
+        eventList.removeEvent(event);
+        assertEquals(Collections.emptyList(), eventList.getEventsBetween(time.plusYears(1), time.plusYears(1).plusDays(1)));
+    }
+
+    @Test
+    public void contactIndexTest() {
+        Contact contact = new Contact("contact");
+        Contact other = new Contact("other");
+        Event first = new Event("first", LocalDateTime.now());
+        Event second = new Event("second", LocalDateTime.now());
+        eventList.addEvent(first);
+        eventList.addEvent(second);
+
+        second.addContact(contact);
+        first.addContact(contact);
+        assertEquals(Arrays.asList(second, first), eventList.getContactsEvents(contact));
+
+        first.removeContact(contact);
+        second.setContacts(Collections.singletonList(other));
+        assertEquals(Collections.emptyList(), eventList.getContactsEvents(contact));
+        assertEquals(Collections.singletonList(second), eventList.getContactsEvents(other));
+
+        eventList.removeEvent(second);
+        assertEquals(Collections.emptyList(), eventList.getContactsEvents(other));
+    }
+
+    @Test
+    public void removedContactLeavesEventsTest() {
+        User user = new User("user");
+        Contact contact = new Contact("contact");
+        user.getContacts().addContact(contact);
+        Event event = new Event("event", LocalDateTime.now());
+        user.getEvents().addEvent(event);
+        event.addContact(contact);
+
+        user.getContacts().removeContact(contact);
+        assertEquals(Collections.emptyList(), event.getContacts());
+        assertEquals(Collections.emptyList(), user.getEvents().getContactsEvents(contact));
+    }
+
+    @Test
+    public void removedContactLeavesEventOfFixedListTest() {
+        User user = new User("user");
+        Contact contact = new Contact("contact");
+        user.getContacts().addContact(contact);
+        user.getEvents().addEvent("event", LocalDateTime.now(), "", "", Arrays.asList(contact), null);
+
+        user.getContacts().removeContact(contact);
+        assertEquals(Collections.emptyList(), user.getEvents().getList().get(0).getContacts());
+    }
+
+    @Test
+    public void eventsOfTagTest() throws Exception {
+        User user = new User("Pelle");
+        EventList eventList = user.getEvents();
+        TagHandler tagHandler = user.getTagHandler();
+        ITag party = tagHandler.createTag("party");
+        ITag work = tagHandler.createTag("work");
+        Event first = new Event("first", LocalDateTime.now());
+        Event second = new Event("second", LocalDateTime.now());
+        first.setTag(party);
+        eventList.addEvent(first);
+        eventList.addEvent(second);
+
+        second.setTag(party);
+        assertEquals(Arrays.asList(first, second), eventList.getEventsOfTag(party));
+
+        first.setTag(work);
+        tagHandler.rename(party, "celebration");
+        assertEquals(Collections.singletonList(second), eventList.getEventsOfTag(party));
+        assertEquals(1, eventList.countEventsOfTag(work));
+        assertEquals(0, eventList.countEventsOfTag(new TagHandler().createTag("celebration")));
+
+        second.removeTag();
+        eventList.removeEvent(first);
+        assertEquals(0, eventList.countEventsOfTag(party));
+        assertEquals(0, eventList.countEventsOfTag(work));
+    }
+
+    @Test
+    public void changesTest() {
+        List<List<ChangeEvent<Event>>> deliveries = new ArrayList<>();
+        eventList.subscribeChanges(deliveries::add);
+        Event event = new Event("event", LocalDateTime.now());
+        eventList.addEvent(event);
+        event.setName("renamed");
+        eventList.removeEvent(event);
+        event.setName("ignored");
+
+        assertEquals(3, deliveries.size());
+        assertEquals(ChangeEvent.Type.ADDED, deliveries.get(0).get(0).getType());
+        assertEquals(ChangeEvent.Type.UPDATED, deliveries.get(1).get(0).getType());
+        assertEquals(Event.Field.NAME, deliveries.get(1).get(0).getField());
+        assertEquals(ChangeEvent.Type.REMOVED, deliveries.get(2).get(0).getType());
+        assertEquals(event, deliveries.get(2).get(0).getEntity());
+    }
+
+    @Test
+    public void batchedChangesTest() {
+        User user = new User("user");
+        Contact contact = new Contact("contact");
+        user.getContacts().addContact(contact);
+        for (int i = 0; i < 3; i++) {
+            user.getEvents().addEvent().addContact(contact);
+        }
+        List<List<ChangeEvent<Event>>> deliveries = new ArrayList<>();
+        user.getEvents().subscribeChanges(deliveries::add);
+
+        user.getContacts().removeContact(contact);
+        assertEquals(1, deliveries.size());
+        assertEquals(3, deliveries.get(0).size());
+        deliveries.get(0).forEach(change -> assertEquals(Event.Field.CONTACTS, change.getField()));
+
+        user.getEvents().batchChanges(() -> user.getEvents().batchChanges(() -> user.getEvents().addEvent()));
+        assertEquals(2, deliveries.size());
+    }
 }
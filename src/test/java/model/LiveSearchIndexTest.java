@@ -0,0 +1,140 @@
+package model;
+
+import model.exceptions.NameNotAllowedException;
+import model.notes.Note;
+import model.notes.NoteBook;
+import model.search.BKTreeSearchEngine;
+import model.search.LiveSearchIndex;
+import model.search.MultiFieldSearchEngine;
+import model.search.NGramSearchEngine;
+import model.search.PrefixTrie;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LiveSearchIndexTest {
+
+    private ContactList contacts;
+
+    @Before
+    public void before() throws NameNotAllowedException {
+        contacts = new ContactList();
+        contacts.addContact("Pelle");
+        contacts.addContact("Kalle");
+    }
+
+    @Test
+    public void addAndRemoveTest() throws NameNotAllowedException {
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, NGramSearchEngine::new);
+        assertEquals(1, index.search("pelle", 0).size());
+        contacts.addContact("Pelle");
+        assertEquals(2, index.search("pelle", 0).size());
+        Contact kalle = index.search("kalle", 0).get(0);
+        contacts.removeContact(kalle);
+        assertTrue(index.search("kalle", 0).isEmpty());
+        assertEquals(contacts.getList(), index.getSearchBase());
+    }
+
+    @Test
+    public void containedTwiceTest() throws NameNotAllowedException {
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, NGramSearchEngine::new);
+        Contact pelle = contacts.getList().get(0);
+        contacts.addContact(pelle);
+        contacts.addContact("Per");
+        contacts.removeContact(pelle);
+        assertEquals(Collections.singletonList(pelle), index.search("pelle", 0));
+        assertEquals(contacts.getList(), index.getSearchBase());
+
+        pelle.setName("Kerstin");
+        contacts.removeContact(pelle);
+        contacts.addContact(pelle);
+        assertEquals(Collections.singletonList(pelle), index.search("kerstin", 0));
+        contacts.removeContact(pelle);
+        assertTrue(index.search("kerstin", 0).isEmpty());
+        assertEquals(contacts.getList(), index.getSearchBase());
+    }
+
+    @Test
+    public void renameTest() {
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, BKTreeSearchEngine::new);
+        Contact pelle = index.search("pelle", 0).get(0);
+        pelle.setName("Kerstin");
+        assertTrue(index.search("pelle", 0).isEmpty());
+        List<Contact> results = index.search("kerstin", 0);
+        assertEquals(1, results.size());
+        assertEquals(pelle, results.get(0));
+        assertEquals(contacts.getList(), index.getSearchBase());
+    }
+
+    @Test
+    public void completionTest() throws NameNotAllowedException {
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, NGramSearchEngine::new,
+                PrefixTrie::new);
+        assertEquals(1, index.complete("pe", 10).size());
+        contacts.addContact("Per");
+        assertEquals("Per", index.complete("pe", 10).get(0).getName());
+        index.complete("pel", 10).get(0).setName("Kerstin");
+        assertEquals(1, index.complete("pe", 10).size());
+        assertEquals(2, index.complete("k", 10).size());
+    }
+
+    @Test
+    public void searchAfterInterruptedSearchTest() {
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, NGramSearchEngine::new);
+        contacts.getList().get(0).setName("Kerstin");
+        Thread.currentThread().interrupt();
+        try {
+            index.search("kerstin", 0);
+            fail();
+        } catch (CancellationException e) {
+            Thread.interrupted();
+        }
+        assertEquals(1, index.search("kerstin", 0).size());
+        assertTrue(index.search("pelle", 0).isEmpty());
+    }
+
+    @Test
+    public void lazyNotesTest() {
+        NoteBook.NotesCache notesCache = new NoteBook.NotesCache();
+        notesCache.elementsLoader = () -> Collections.singletonList(new Note("Plays golf on sundays"));
+        Contact.ContactCache cache = new Contact.ContactCache();
+        cache.name = "Kerstin";
+        cache.phoneNumber = "";
+        cache.address = "";
+        cache.tags = new ArrayList<>();
+        cache.noteBook = new NoteBook(notesCache);
+        cache.directoryId = UUID.randomUUID();
+        Contact kerstin = new Contact(cache);
+        contacts.addContact(kerstin);
+
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, MultiFieldSearchEngine::new);
+        assertEquals(kerstin, index.search("golf", 0).get(0));
+        assertFalse(cache.noteBook.isLoaded());
+
+        List<ChangeEvent<Contact>> changes = new ArrayList<>();
+        kerstin.subscribeChanges(changes::addAll);
+        assertEquals(1, kerstin.sizeOfNotes());
+        assertEquals("Plays golf on sundays", kerstin.viewNote(0));
+        assertTrue(cache.noteBook.isLoaded());
+        assertTrue(changes.isEmpty());
+        assertEquals(kerstin, index.search("golf", 0).get(0));
+    }
+
+    @Test
+    public void closeTest() {
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, NGramSearchEngine::new);
+        index.close();
+        contacts.getList().get(0).setName("Kerstin");
+        assertEquals(1, index.search("pelle", 0).size());
+    }
+}
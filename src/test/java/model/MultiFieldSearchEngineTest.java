@@ -0,0 +1,145 @@
+package model;
+
+import model.exceptions.NameNotAllowedException;
+import model.search.LiveSearchIndex;
+import model.search.MultiFieldSearchEngine;
+import model.search.SearchCursor;
+import model.search.SearchResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MultiFieldSearchEngineTest {
+
+    private final TagHandler tagHandler = new TagHandler();
+    private List<Contact> base;
+    private Contact pelle;
+    private Contact kalle;
+    private Contact anna;
+
+    @Before
+    public void before() throws NameNotAllowedException {
+        pelle = new Contact("Pelle");
+        pelle.setPhoneNumber("070-123 45 67");
+        pelle.setAddress("Storgatan 5, Göteborg");
+        kalle = new Contact("Kalle");
+        kalle.setPhoneNumber("031-772 10 00");
+        kalle.setAddress("Lilla gatan 2, Stockholm");
+        kalle.addTag(tagHandler.createTag("Work"));
+        kalle.addNote("Met at the conference in Göteborg");
+        anna = new Contact("Anna");
+        anna.addTag(tagHandler.createTag("Family"));
+        anna.addNote("Birthday in May");
+        base = new ArrayList<>();
+        base.add(pelle);
+        base.add(kalle);
+        base.add(anna);
+    }
+
+    @Test
+    public void phoneNumberTest() {
+        MultiFieldSearchEngine<Contact> engine = new MultiFieldSearchEngine<>(base);
+        assertEquals(pelle, engine.search("0701234567", 1).get(0));
+        assertEquals(1, engine.search("070 12", 1).size());
+        assertEquals(kalle, engine.search("031", 1).get(0));
+        assertTrue(engine.search("12", 0).isEmpty());
+    }
+
+    @Test
+    public void addressTagAndNoteTest() {
+        MultiFieldSearchEngine<Contact> engine = new MultiFieldSearchEngine<>(base);
+        assertEquals(pelle, engine.search("storg", 0).get(0));
+        assertEquals(kalle, engine.search("work", 0).get(0));
+        assertEquals(anna, engine.search("birthday", 0).get(0));
+        assertTrue(engine.search("birth", 0).isEmpty());
+    }
+
+    @Test
+    public void combinedScoreTest() {
+        MultiFieldSearchEngine<Contact> engine = new MultiFieldSearchEngine<>(base);
+        List<SearchResult<Contact>> results = engine.searchResults("göteborg", 0);
+        assertEquals(2, results.size());
+        // an address match outweighs a note match
+        assertEquals(pelle, results.get(0).getElement());
+        assertEquals(kalle, results.get(1).getElement());
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        assertEquals(1, results.get(0).getDistance());
+
+        results = engine.searchResults("anna", 1);
+        assertEquals(anna, results.get(0).getElement());
+        assertEquals(0, results.get(0).getDistance());
+    }
+
+    @Test
+    public void updateAndRemoveTest() {
+        MultiFieldSearchEngine<Contact> engine = new MultiFieldSearchEngine<>(base);
+        pelle.setAddress("Kungsgatan 1");
+        assertTrue(engine.update(pelle));
+        assertTrue(engine.search("storgatan", 0).isEmpty());
+        assertEquals(pelle, engine.search("kungsgatan", 0).get(0));
+        assertTrue(engine.remove(kalle));
+        assertTrue(engine.search("work", 0).isEmpty());
+        assertEquals(2, engine.size());
+        List<Contact> expected = new ArrayList<>();
+        expected.add(pelle);
+        expected.add(anna);
+        assertEquals(expected, engine.getSearchBase());
+    }
+
+    @Test
+    public void repeatedUpdateTest() {
+        MultiFieldSearchEngine<Contact> engine = new MultiFieldSearchEngine<>(base);
+        // Enough updates for the discarded ids to be compacted in between.
+        for (String name : new String[]{"Olle", "Bosse", "Ville", "Olle", "Nisse"}) {
+            kalle.setName(name);
+            assertTrue(engine.update(kalle));
+        }
+        assertEquals(3, engine.size());
+        assertTrue(engine.search("olle", 0).isEmpty());
+        List<SearchResult<Contact>> results = engine.searchResults("nisse", 0);
+        assertEquals(1, results.size());
+        assertEquals(kalle, results.get(0).getElement());
+        assertEquals(2.0, results.get(0).getScore(), 0);
+        assertEquals(1, engine.searchResults("work", 0).size());
+    }
+
+    @Test
+    public void cursorTest() {
+        for (int i = 0; i < 200; i++) {
+            Contact contact = new Contact("Contact " + i);
+            contact.setAddress(i % 3 == 0 ? "Storgatan " + i : "Lillgatan " + i);
+            contact.addNote(i % 2 == 0 ? "Met in Göteborg" : "Met in Stockholm");
+            base.add(contact);
+        }
+        MultiFieldSearchEngine<Contact> engine = new MultiFieldSearchEngine<>(base);
+        List<SearchResult<Contact>> all = engine.searchResults("storgatan göteborg", 1);
+        SearchCursor<Contact> cursor = engine.cursor("storgatan göteborg", 1, 15);
+        List<SearchResult<Contact>> paged = new ArrayList<>();
+        while (cursor.hasNextPage()) {
+            List<SearchResult<Contact>> page = cursor.nextPage();
+            assertTrue(page.size() <= 15);
+            paged.addAll(page);
+        }
+        assertEquals(all.size(), paged.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(all.get(i).getElement(), paged.get(i).getElement());
+        }
+    }
+
+    @Test
+    public void liveFieldChangeTest() throws NameNotAllowedException {
+        ContactList contacts = new ContactList();
+        contacts.addContact(pelle);
+        LiveSearchIndex<Contact> index = new LiveSearchIndex<>(contacts, contacts::getList, MultiFieldSearchEngine::new);
+        assertTrue(index.search("golf", 0).isEmpty());
+        pelle.addNote("Plays golf on sundays");
+        assertEquals(pelle, index.search("golf", 0).get(0));
+        pelle.addTag(tagHandler.createTag("Golf club"));
+        assertEquals(pelle, index.search("golf club", 0).get(0));
+    }
+}
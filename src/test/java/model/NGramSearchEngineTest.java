@@ -0,0 +1,108 @@
+package model;
+
+import mocks.MockStringSearchable;
+import model.search.ISearchable;
+import model.search.NGramSearchEngine;
+import model.search.SearchEngine;
+import model.search.SearchResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class NGramSearchEngineTest {
+
+    private List<MockStringSearchable> base;
+
+    @Before
+    public void instantiateList() {
+        base = new ArrayList<>();
+    }
+
+    @Test
+    public void strictAccuracyTest() {
+        MockStringSearchable s1 = new MockStringSearchable("Pelle");
+        base.add(s1);
+        base.add(new MockStringSearchable("Pulle"));
+        base.add(new MockStringSearchable("Palle"));
+        NGramSearchEngine<MockStringSearchable> searchEngine = new NGramSearchEngine<>(base);
+        assertEquals(base, searchEngine.getSearchBase());
+        List<MockStringSearchable> results = searchEngine.search("pelle", 0);
+        assertEquals(1, results.size());
+        assertEquals(s1, results.get(0));
+    }
+
+    @Test
+    public void transpositionTest() {
+        MockStringSearchable s1 = new MockStringSearchable("Plele");
+        base.add(s1);
+        base.add(new MockStringSearchable("Kerstin"));
+        NGramSearchEngine<MockStringSearchable> searchEngine = new NGramSearchEngine<>(base, 3);
+        List<SearchResult<MockStringSearchable>> results = searchEngine.searchResults("pelle", 1);
+        assertEquals(1, results.size());
+        assertEquals(s1, results.get(0).getElement());
+        assertEquals(1, results.get(0).getDistance());
+    }
+
+    @Test
+    public void sameResultsAsScanTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            base.add(new MockStringSearchable(randomName(random)));
+        }
+        SearchEngine<MockStringSearchable> scan = new SearchEngine<>(base);
+        for (int gramLength = 1; gramLength <= 3; gramLength++) {
+            NGramSearchEngine<MockStringSearchable> indexed = new NGramSearchEngine<>(base, gramLength);
+            for (int i = 0; i < 50; i++) {
+                String query = randomName(random);
+                for (int tol = 0; tol <= 4; tol++) {
+                    assertEquals(scan.search(query, tol), indexed.search(query, tol));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void repeatedUpdateTest() {
+        RenamedSearchable renamed = new RenamedSearchable("alpha");
+        List<ISearchable<String>> content = new ArrayList<>();
+        content.add(renamed);
+        content.add(new MockStringSearchable("Kerstin"));
+        NGramSearchEngine<ISearchable<String>> searchEngine = new NGramSearchEngine<>(content);
+        for (String name : new String[]{"beta", "gamma", "delta", "delta"}) {
+            renamed.name = name;
+            searchEngine.update(renamed);
+        }
+        assertEquals(2, searchEngine.size());
+        assertEquals(Collections.singletonList(renamed), searchEngine.search("delta", 0));
+        assertEquals(Collections.emptyList(), searchEngine.search("gamma", 0));
+    }
+
+    private String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            name.append("aeiklnpst".charAt(random.nextInt(9)));
+        }
+        return name.toString();
+    }
+
+    // A searchable whose identity changes, as contacts change their names.
+    private static class RenamedSearchable implements ISearchable<String> {
+        private String name;
+
+        RenamedSearchable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getSearchIdentity() {
+            return name;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import model.notes.Note;
 import model.notes.NoteBook;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -111,4 +112,19 @@ public class NoteBookTest {
         assert "Second".equals(notes.getLastAddedNote().viewNote());
     }
 
+    @Test
+    public void lazyElementsTest() {
+        int[] loads = new int[1];
+        NoteBook.NotesCache cache = new NoteBook.NotesCache();
+        cache.elementsLoader = () -> {
+            loads[0]++;
+            return Arrays.asList(new Note("Pizza"), new Note("Taco"));
+        };
+        NoteBook notes = new NoteBook(cache);
+        assertEquals(0, loads[0]);
+        assertEquals("Taco", notes.viewNote(1));
+        notes.addNote("Burrito");
+        assertEquals(3, notes.sizeOfNotes());
+        assertEquals(1, loads[0]);
+    }
 }
@@ -0,0 +1,142 @@
+package model;
+
+import mocks.MockStringSearchable;
+import model.search.PrefixTrie;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrefixTrieTest {
+
+    private final Random random = new Random(11);
+    private List<MockStringSearchable> base;
+
+    @Before
+    public void instantiateList() {
+        base = new ArrayList<>();
+    }
+
+    @Test
+    public void wordPrefixTest() {
+        MockStringSearchable s1 = new MockStringSearchable("Anna Svensson");
+        MockStringSearchable s2 = new MockStringSearchable("Sven Andersson");
+        MockStringSearchable s3 = new MockStringSearchable("Anders");
+        base.add(s1);
+        base.add(s2);
+        base.add(s3);
+        PrefixTrie<MockStringSearchable> trie = new PrefixTrie<>(base);
+        List<MockStringSearchable> results = trie.complete("AN", 10);
+        assertEquals(3, results.size());
+        assertEquals(s3, results.get(0));
+        assertEquals(s1, results.get(1));
+        assertEquals(s2, results.get(2));
+        assertEquals(1, trie.complete("anna sv", 10).size());
+        assertTrue(trie.complete("nna", 10).isEmpty());
+        assertEquals(2, trie.complete("an", 2).size());
+    }
+
+    @Test
+    public void sameResultsAsScanTest() {
+        for (int i = 0; i < 2000; i++) {
+            base.add(new MockStringSearchable(randomName()));
+        }
+        PrefixTrie<MockStringSearchable> trie = new PrefixTrie<>(base, 10);
+        for (int i = 0; i < 200; i++) {
+            String prefix = randomPrefix();
+            assertEquals(scan(prefix, 10), trie.complete(prefix, 10));
+        }
+    }
+
+    @Test
+    public void addAndRemoveTest() {
+        PrefixTrie<MockStringSearchable> trie = new PrefixTrie<>(base, 10);
+        for (int i = 0; i < 1000; i++) {
+            MockStringSearchable elem = new MockStringSearchable(randomName());
+            base.add(elem);
+            assertTrue(trie.add(elem));
+            assertFalse(trie.add(elem));
+        }
+        for (int i = 0; i < 700; i++) {
+            MockStringSearchable elem = base.remove(random.nextInt(base.size()));
+            assertTrue(trie.remove(elem));
+            assertFalse(trie.remove(elem));
+        }
+        assertEquals(base.size(), trie.size());
+        for (int i = 0; i < 200; i++) {
+            String prefix = randomPrefix();
+            assertEquals(scan(prefix, 10), trie.complete(prefix, 10));
+        }
+    }
+
+    @Test
+    public void renameTest() throws Exception {
+        ContactList contacts = new ContactList();
+        contacts.addContact("Pelle Svensson");
+        contacts.addContact("Kalle");
+        PrefixTrie<Contact> trie = new PrefixTrie<>(contacts.getList());
+        Contact pelle = trie.complete("sv", 1).get(0);
+        pelle.setName("Kerstin");
+        assertTrue(trie.update(pelle));
+        assertTrue(trie.complete("sv", 10).isEmpty());
+        assertEquals(pelle, trie.complete("ke", 10).get(0));
+        assertEquals(2, trie.complete("", 10).size());
+    }
+
+    /**
+     * Completes the prefix by comparing it to every word of every identity, ranked the way the trie ranks them.
+     */
+    private List<MockStringSearchable> scan(String prefix, int limit) {
+        List<MockStringSearchable> matches = new ArrayList<>();
+        List<Boolean> leading = new ArrayList<>();
+        for (MockStringSearchable elem : base) {
+            String identity = elem.getSearchIdentity();
+            if (identity.startsWith(prefix)) {
+                matches.add(elem);
+                leading.add(true);
+            } else if (identity.contains(" " + prefix)) {
+                matches.add(elem);
+                leading.add(false);
+            }
+        }
+        List<Integer> ranks = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++) {
+            ranks.add(i);
+        }
+        ranks.sort(Comparator.<Integer>comparingInt(i -> leading.get(i) ? 0 : 1)
+                .thenComparingInt(i -> matches.get(i).getSearchIdentity().length())
+                .thenComparingInt(i -> base.indexOf(matches.get(i))));
+        List<MockStringSearchable> results = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, ranks.size()); i++) {
+            results.add(matches.get(ranks.get(i)));
+        }
+        return results;
+    }
+
+    private String randomPrefix() {
+        String name = randomName();
+        return name.substring(0, Math.min(name.length(), 1 + random.nextInt(3)));
+    }
+
+    private String randomName() {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(2);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            int length = 1 + random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                name.append("aeklnst".charAt(random.nextInt(7)));
+            }
+        }
+        return name.toString();
+    }
+}
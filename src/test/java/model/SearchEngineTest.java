@@ -1,14 +1,20 @@
 package model;
 
 import mocks.MockStringSearchable;
+import model.search.SearchCursor;
 import model.search.SearchEngine;
+import model.search.SearchResult;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class SearchEngineTest {
 
@@ -62,4 +68,102 @@ public class SearchEngineTest {
                 results.contains(s3) && !results.contains(s4);
     }
 
+    @Test
+    public void scoredResultsTest() {
+        MockStringSearchable s1 = new MockStringSearchable("Kalle");
+        MockStringSearchable s2 = new MockStringSearchable("Pelle");
+        MockStringSearchable s3 = new MockStringSearchable("Palle");
+        MockStringSearchable s4 = new MockStringSearchable("Pelle");
+        base.add(s1);
+        base.add(s2);
+        base.add(s3);
+        base.add(s4);
+        SearchEngine<MockStringSearchable> searchEngine = new SearchEngine<>(base);
+        List<SearchResult<MockStringSearchable>> results = searchEngine.searchResults("pelle", 2);
+        assertEquals(4, results.size());
+        assertEquals(s2, results.get(0).getElement());
+        assertEquals(s4, results.get(1).getElement());
+        assertEquals(s3, results.get(2).getElement());
+        assertEquals(s1, results.get(3).getElement());
+        assertEquals(0, results.get(0).getDistance());
+        assertEquals(1, results.get(2).getDistance());
+        assertEquals(2, results.get(3).getDistance());
+    }
+
+    @Test
+    public void parallelScanTest() {
+        Random random = new Random(5);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int j = 0; j < 3 + random.nextInt(5); j++) {
+                name.append("aeklnst".charAt(random.nextInt(7)));
+            }
+            base.add(new MockStringSearchable(name.toString()));
+        }
+        SearchEngine<MockStringSearchable> sequential = new SearchEngine<>(base, Integer.MAX_VALUE);
+        SearchEngine<MockStringSearchable> parallel = new SearchEngine<>(base, 0);
+        SearchEngine<MockStringSearchable> linked = new SearchEngine<>(new LinkedList<>(base), 0);
+        for (String query : new String[]{"kalle", "stella", "an"}) {
+            List<MockStringSearchable> expected = sequential.search(query, 2);
+            assertEquals(expected, parallel.search(query, 2));
+            assertEquals(expected, linked.search(query, 2));
+        }
+    }
+
+    @Test
+    public void limitedSearchTest() {
+        addRandomNames(5000, new Random(8));
+        SearchEngine<MockStringSearchable> sequential = new SearchEngine<>(base, Integer.MAX_VALUE);
+        SearchEngine<MockStringSearchable> parallel = new SearchEngine<>(base, 0);
+        for (String query : new String[]{"kalle", "st", "annelie"}) {
+            List<MockStringSearchable> all = sequential.search(query, 4);
+            for (int limit : new int[]{1, 10, 100, all.size() + 1}) {
+                List<MockStringSearchable> expected = all.subList(0, Math.min(limit, all.size()));
+                assertEquals(expected, sequential.search(query, 4, limit));
+                assertEquals(expected, parallel.search(query, 4, limit));
+            }
+        }
+        assertEquals(0, sequential.search("kalle", 4, 0).size());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void interruptedSearchTest() {
+        addRandomNames(3000, new Random(10));
+        SearchEngine<MockStringSearchable> searchEngine = new SearchEngine<>(base);
+        Thread.currentThread().interrupt();
+        try {
+            searchEngine.search("pelle", 2);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void cursorTest() {
+        addRandomNames(3000, new Random(9));
+        SearchEngine<MockStringSearchable> searchEngine = new SearchEngine<>(base);
+        List<MockStringSearchable> all = searchEngine.search("stella", 3);
+        SearchCursor<MockStringSearchable> cursor = searchEngine.cursor("stella", 3, 70);
+        List<MockStringSearchable> paged = new ArrayList<>();
+        while (cursor.hasNextPage()) {
+            List<SearchResult<MockStringSearchable>> page = cursor.nextPage();
+            assert page.size() <= 70;
+            for (SearchResult<MockStringSearchable> result : page) {
+                paged.add(result.getElement());
+            }
+        }
+        assertEquals(all, paged);
+        assertFalse(cursor.hasNextPage());
+        assertEquals(0, cursor.nextPage().size());
+    }
+
+    private void addRandomNames(int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int j = 0; j < 3 + random.nextInt(5); j++) {
+                name.append("aeklnst".charAt(random.nextInt(7)));
+            }
+            base.add(new MockStringSearchable(name.toString()));
+        }
+    }
 }
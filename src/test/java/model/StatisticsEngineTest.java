@@ -0,0 +1,77 @@
+package model;
+
+import mocks.MockObserver;
+import model.exceptions.NameNotAllowedException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatisticsEngineTest {
+    private EventList eventList;
+    private StatisticsEngine statistics;
+    private final MockObserver mockObserver = new MockObserver();
+    private ITag work;
+    private ITag golf;
+
+    @Before
+    public void before() throws NameNotAllowedException {
+        TagHandler tagHandler = new TagHandler();
+        work = tagHandler.createTag("work");
+        golf = tagHandler.createTag("golf");
+        eventList = new EventList();
+        Event monday = new Event("monday", LocalDateTime.of(2021, 3, 1, 9, 0));
+        monday.setTag(work);
+        eventList.addEvent(monday);
+        statistics = new StatisticsEngine(eventList);
+        statistics.subscribe(mockObserver);
+    }
+
+    @Test
+    public void countsExistingEventsTest() {
+        assertEquals(1, statistics.getEventCount());
+        assertEquals(1, statistics.getEventCount(work));
+        assertEquals(Collections.singletonMap(YearMonth.of(2021, 3), 1), statistics.getEventsPerMonth());
+        assertEquals(Collections.singletonList(DayOfWeek.MONDAY), statistics.getBusiestWeekdays());
+    }
+
+    @Test
+    public void followsChangesTest() {
+        Contact contact = new Contact("contact");
+        Event event = new Event("tuesday", LocalDateTime.of(2021, 3, 2, 9, 0));
+        eventList.addEvent(event);
+        assertEquals(1, mockObserver.getEventCount());
+
+        event.setTag(golf);
+        event.addContact(contact);
+        event.setDateTime(LocalDateTime.of(2021, 4, 5, 9, 0));
+        assertEquals(4, mockObserver.getEventCount());
+        assertEquals(1, statistics.getEventCount(golf));
+        assertEquals(1, statistics.getInteractionCount(contact));
+        assertEquals(Arrays.asList(YearMonth.of(2021, 3), YearMonth.of(2021, 4)),
+                Arrays.asList(statistics.getEventsPerMonth().keySet().toArray()));
+        assertEquals(Integer.valueOf(2), statistics.getEventsPerWeekday().get(DayOfWeek.MONDAY));
+
+        event.setName("renamed");
+        assertEquals(4, mockObserver.getEventCount());
+
+        eventList.removeEvent(event);
+        assertEquals(0, statistics.getEventCount(golf));
+        assertEquals(0, statistics.getInteractionCount(contact));
+        assertEquals(Collections.singletonMap(YearMonth.of(2021, 3), 1), statistics.getEventsPerMonth());
+    }
+
+    @Test
+    public void disposeTest() {
+        statistics.dispose();
+        eventList.addEvent(new Event("ignored", LocalDateTime.of(2021, 3, 2, 9, 0)));
+        assertEquals(0, mockObserver.getEventCount());
+        assertEquals(0, statistics.getEventCount());
+    }
+}
@@ -0,0 +1,52 @@
+package model.search;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LevenshteinUtilsTest {
+
+    @Test
+    public void distanceTest() {
+        assertEquals(0, LevenshteinUtils.distance("pelle", "pelle"));
+        assertEquals(1, LevenshteinUtils.distance("pelle", "pele"));
+        assertEquals(1, LevenshteinUtils.distance("pelle", "plele"));
+        assertEquals(3, LevenshteinUtils.distance("kitten", "sitting"));
+        assertEquals(5, LevenshteinUtils.distance("", "pelle"));
+    }
+
+    @Test
+    public void boundedDistanceTest() {
+        assertEquals(3, LevenshteinUtils.distance("kitten", "sitting", 3));
+        assertEquals(3, LevenshteinUtils.distance("kitten", "sitting", 2));
+        assertEquals(2, LevenshteinUtils.distance("kitten", "sitting", 1));
+        assertEquals(1, LevenshteinUtils.distance("ab", "ba", 1));
+        assertEquals(1, LevenshteinUtils.distance("pelle", "kerstin", 0));
+    }
+
+    @Test
+    public void lengthDifferenceExceedsBoundTest() {
+        assertEquals(3, LevenshteinUtils.distance("al", "alexander", 2));
+        assertEquals(3, LevenshteinUtils.distance("alexander", "al", 2));
+    }
+
+    @Test
+    public void boundedMatchesUnboundedTest() {
+        String[] words = {"", "pelle", "pulle", "kjelle", "peter", "kalle", "kerstin", "ab", "ba", "abc"};
+        for (String a : words) {
+            for (String b : words) {
+                int full = LevenshteinUtils.distance(a, b);
+                for (int max = 0; max <= 5; max++) {
+                    assertEquals(Math.min(full, max + 1), LevenshteinUtils.distance(a, b, max));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void unboundedMaximumTest() {
+        assertEquals(3, LevenshteinUtils.distance("kitten", "sitting", Integer.MAX_VALUE));
+        assertEquals(5, LevenshteinUtils.distance("", "pelle", Integer.MAX_VALUE));
+        assertEquals(1, LevenshteinUtils.distance("ab", "ba", Integer.MAX_VALUE));
+    }
+}